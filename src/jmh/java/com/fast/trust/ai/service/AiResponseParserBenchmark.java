@@ -0,0 +1,57 @@
+package com.fast.trust.ai.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AI 응답 파싱 핫패스 벤치마크
+ * 입력: src/jmh/resources/fixtures/ai-response-*.txt (정상 / 코드 펜스 / 이중 따옴표 손상 / 앞뒤 설명문)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AiResponseParserBenchmark {
+
+    @Param({"clean", "fenced", "broken-quotes", "prose"})
+    public String variant;
+
+    private String response;
+    private String jsonBlock;
+    private AiResponseParser parser;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        response = readFixture("/fixtures/ai-response-" + variant + ".txt");
+        jsonBlock = AiResponseParser.extractJsonBlock(AiResponseParser.stripCodeFence(response));
+        parser = new AiResponseParser(new ObjectMapper().findAndRegisterModules());
+    }
+
+    @Benchmark
+    public Object parseResponse() {
+        return parser.parseResponse(1L, response);
+    }
+
+    @Benchmark
+    public String extractJsonBlock() {
+        return AiResponseParser.extractJsonBlock(AiResponseParser.stripCodeFence(response));
+    }
+
+    @Benchmark
+    public String normalizeBrokenJson() {
+        return AiResponseParser.normalizeBrokenJson(jsonBlock);
+    }
+
+    private static String readFixture(String path) throws IOException {
+        try (InputStream in = AiResponseParserBenchmark.class.getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IllegalStateException("Fixture not found: " + path);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
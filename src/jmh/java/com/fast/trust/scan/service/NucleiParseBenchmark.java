@@ -0,0 +1,154 @@
+package com.fast.trust.scan.service;
+
+import com.fast.trust.scan.dto.NucleiLine;
+import com.fast.trust.scan.entity.ScanDetail;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * nuclei 출력 처리 핫패스 벤치마크
+ * 입력: src/jmh/resources/fixtures/nuclei-output.jsonl (진행률 / 텍스트 / 수십~수백 KB 응답 본문 포함)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class NucleiParseBenchmark {
+
+    private static final String FIXTURE = "/fixtures/nuclei-output.jsonl";
+
+    private List<String> lines;
+    private List<NucleiLine> parsedFindings;
+
+    private NucleiOutputParser parser;
+    private ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        lines = readFixture();
+        parser = new NucleiOutputParser();
+        objectMapper = new ObjectMapper();
+
+        parsedFindings = new ArrayList<>();
+        for (String line : lines) {
+            NucleiLine parsed = parser.parse(NucleiOutputParser.stripAnsi(line));
+            if (parsed.kind() == NucleiLine.Kind.FINDING) {
+                parsedFindings.add(parsed);
+            }
+        }
+    }
+
+    /**
+     * 점수 계산 입력 (scoreDetailCount 는 calculateScore 에만 적용, 파싱 벤치마크가 매개변수마다 반복되지 않도록 분리)
+     */
+    @State(Scope.Benchmark)
+    public static class ScoreInput {
+
+        @Param({"1000", "10000"})
+        public int scoreDetailCount;
+
+        private List<ScanDetail> scoreDetails;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            String[] severities = {"critical", "high", "medium", "low", "info", "info", "info"};
+            String[] templates = {"tech-detect", "http-missing-security-headers", "ssl-expired", "git-config", "CVE-2021-41773"};
+            Random random = new Random(42);
+            scoreDetails = new ArrayList<>(scoreDetailCount);
+            for (int i = 0; i < scoreDetailCount; i++) {
+                scoreDetails.add(ScanDetail.builder()
+                        .scanId("bench")
+                        .severity(severities[random.nextInt(severities.length)])
+                        .templateId(templates[random.nextInt(templates.length)])
+                        .build());
+            }
+        }
+    }
+
+    /**
+     * 현재 경로: stripAnsi + 스트리밍 파서
+     */
+    @Benchmark
+    public void parseStreaming(Blackhole bh) throws IOException {
+        for (String line : lines) {
+            bh.consume(parser.parse(NucleiOutputParser.stripAnsi(line)));
+        }
+    }
+
+    /**
+     * 이전 경로: 정규식 ANSI 제거 + Map 전체 역직렬화 + filterLongFields
+     */
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public void parseLegacyMap(Blackhole bh) {
+        for (String line : lines) {
+            String cleanLine = line.replaceAll("\u001b\\[[0-9;]*m", "");
+            if (cleanLine.trim().isEmpty()) {
+                continue;
+            }
+            try {
+                Map<String, Object> jsonData = objectMapper.readValue(cleanLine, Map.class);
+                if (jsonData.containsKey("info")) {
+                    bh.consume(legacyFilterLongFields(jsonData));
+                } else {
+                    bh.consume(jsonData.get("percent"));
+                }
+            } catch (Exception e) {
+                bh.consume(cleanLine);
+            }
+        }
+    }
+
+    @Benchmark
+    public void toScanDetail(Blackhole bh) {
+        for (NucleiLine parsed : parsedFindings) {
+            bh.consume(ScanPipeline.toScanDetail("bench", parsed.finding()));
+        }
+    }
+
+    @Benchmark
+    public Object calculateScore(ScoreInput input) {
+        return ScanService.calculateScore(input.scoreDetails);
+    }
+
+    /**
+     * 스트리밍 파서 도입 전 ScanService.filterLongFields 와 동일 (비교 기준용)
+     */
+    private static Map<String, Object> legacyFilterLongFields(Map<String, Object> data) {
+        Map<String, Object> filtered = new HashMap<>(data);
+
+        for (String field : Arrays.asList("response", "request")) {
+            filtered.remove(field);
+        }
+
+        if (filtered.get("extracted-results") instanceof List<?> list && list.size() > 10) {
+            filtered.put("extracted-results", list.subList(0, 10));
+            filtered.put("extracted-results-count", list.size());
+        }
+
+        return filtered;
+    }
+
+    private static List<String> readFixture() throws IOException {
+        try (InputStream in = NucleiParseBenchmark.class.getResourceAsStream(FIXTURE)) {
+            if (in == null) {
+                throw new IllegalStateException("Fixture not found: " + FIXTURE);
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            List<String> result = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                result.add(line);
+            }
+            return result;
+        }
+    }
+}
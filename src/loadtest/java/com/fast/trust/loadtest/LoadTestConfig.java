@@ -0,0 +1,23 @@
+package com.fast.trust.loadtest;
+
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * loadtest 프로필 전용 빈 (실제 Anthropic 모델 대신 MockChatModel 사용)
+ */
+@Configuration
+@Profile("loadtest")
+public class LoadTestConfig {
+
+    @Bean
+    @Primary
+    public ChatModel mockChatModel(@Value("${loadtest.ai.latency-ms:800}") long latencyMs,
+                                   @Value("${loadtest.ai.stream-chunks:20}") int streamChunks) {
+        return new MockChatModel(latencyMs, streamChunks);
+    }
+}
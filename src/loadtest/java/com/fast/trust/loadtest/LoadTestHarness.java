@@ -0,0 +1,278 @@
+package com.fast.trust.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * /stream, /streamAll, /mcpAll 부하 테스트 클라이언트
+ * 엔드포인트마다 N 개 동시 클라이언트를 돌리고 처리량 / 첫 결과까지 시간 / 종단 지연(p50, p99) 을 출력한다
+ *
+ * ./gradlew loadTest -Pargs="clients=20 iterations=3 endpoints=stream,streamAll"
+ *
+ * 인자 (key=value)
+ *   baseUrl    서버 주소 (기본 http://localhost:8080)
+ *   clients    엔드포인트별 동시 클라이언트 수 (기본 10)
+ *   iterations 클라이언트당 요청 수 (기본 1)
+ *   endpoints  stream,streamAll,mcpAll 중 선택 (기본 전체)
+ *   target     스캔 대상 URL (기본 https://target.example.com)
+ *   timeoutSec 요청 하나의 최대 시간 (기본 600)
+ *   report     결과 JSON 저장 경로 (선택)
+ */
+public class LoadTestHarness {
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final String baseUrl;
+    private final int clients;
+    private final int iterations;
+    private final List<String> endpoints;
+    private final String target;
+    private final Duration timeout;
+
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    public LoadTestHarness(Map<String, String> options) {
+        this.baseUrl = options.getOrDefault("baseUrl", "http://localhost:8080");
+        this.clients = Integer.parseInt(options.getOrDefault("clients", "10"));
+        this.iterations = Integer.parseInt(options.getOrDefault("iterations", "1"));
+        this.endpoints = List.of(options.getOrDefault("endpoints", "stream,streamAll,mcpAll").split(","));
+        this.target = options.getOrDefault("target", "https://target.example.com");
+        this.timeout = Duration.ofSeconds(Long.parseLong(options.getOrDefault("timeoutSec", "600")));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) {
+                options.put(arg.substring(0, eq), arg.substring(eq + 1));
+            }
+        }
+
+        LoadTestHarness harness = new LoadTestHarness(options);
+        List<Map<String, Object>> reports = new ArrayList<>();
+        for (String endpoint : harness.endpoints) {
+            reports.add(harness.run(endpoint.trim()));
+        }
+
+        String report = options.get("report");
+        if (report != null) {
+            Files.writeString(Path.of(report),
+                    harness.objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(reports));
+            System.out.println("Report written to " + report);
+        }
+    }
+
+    private Map<String, Object> run(String endpoint) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        List<Future<List<Sample>>> futures = new ArrayList<>();
+
+        long started = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            futures.add(pool.submit(() -> {
+                List<Sample> results = new ArrayList<>();
+                for (int i = 0; i < iterations; i++) {
+                    results.add(execute(endpoint));
+                }
+                return results;
+            }));
+        }
+
+        List<Sample> samples = new ArrayList<>();
+        for (Future<List<Sample>> future : futures) {
+            try {
+                samples.addAll(future.get());
+            } catch (ExecutionException e) {
+                samples.add(Sample.failed(e.getCause().toString()));
+            }
+        }
+        pool.shutdown();
+        double elapsedSec = (System.nanoTime() - started) / 1_000_000_000.0;
+
+        Map<String, Object> report = summarize(endpoint, samples, elapsedSec);
+        print(report);
+        return report;
+    }
+
+    private Sample execute(String endpoint) {
+        String url = target + (target.contains("?") ? "&" : "?") + "lt=" + sequence.incrementAndGet();
+        URI uri = URI.create(baseUrl + "/api/scan/" + endpoint
+                + "?url=" + URLEncoder.encode(url, StandardCharsets.UTF_8));
+
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .GET()
+                .build();
+
+        long start = System.nanoTime();
+        try {
+            return "mcpAll".equals(endpoint)
+                    ? executeJson(request, start)
+                    : executeSse(request, start);
+        } catch (IOException e) {
+            return Sample.failed(e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Sample.failed("interrupted");
+        }
+    }
+
+    private Sample executeSse(HttpRequest request, long start) throws IOException, InterruptedException {
+        HttpResponse<Stream<String>> response = httpClient.send(request, HttpResponse.BodyHandlers.ofLines());
+        if (response.statusCode() != 200) {
+            return Sample.failed("HTTP " + response.statusCode());
+        }
+
+        long firstFinding = -1;
+        int findings = 0;
+        String event = null;
+        String error = null;
+        boolean completed = false;
+
+        Iterator<String> lines = response.body().iterator();
+        while (lines.hasNext()) {
+            String line = lines.next();
+            if (line.startsWith("event:")) {
+                event = line.substring(6).trim();
+            } else if (line.startsWith("data:")) {
+                String data = line.substring(5);
+                if (data.contains("\"type\":\"FIND\"")) {
+                    findings++;
+                    if (firstFinding < 0) {
+                        firstFinding = System.nanoTime();
+                    }
+                }
+                if ("error".equals(event)) {
+                    error = data.trim();
+                }
+                if ("complete".equals(event)) {
+                    completed = true;
+                }
+            } else if (line.isEmpty()) {
+                event = null;
+            }
+        }
+
+        long end = System.nanoTime();
+        if (!completed) {
+            return Sample.failed(error != null ? error : "stream closed before complete");
+        }
+        return new Sample(
+                millis(start, end),
+                firstFinding < 0 ? null : millis(start, firstFinding),
+                findings,
+                null
+        );
+    }
+
+    private Sample executeJson(HttpRequest request, long start) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        long end = System.nanoTime();
+
+        if (response.statusCode() != 200) {
+            return Sample.failed("HTTP " + response.statusCode());
+        }
+        JsonNode json = objectMapper.readTree(response.body());
+        if (!"DONE".equals(json.path("status").asText())) {
+            return Sample.failed(json.path("message").asText("status " + json.path("status").asText()));
+        }
+        // 동기 응답이라 첫 결과 시간은 종단 지연과 같다
+        double latency = millis(start, end);
+        return new Sample(latency, latency, json.path("totalFindings").asInt(), null);
+    }
+
+    private Map<String, Object> summarize(String endpoint, List<Sample> samples, double elapsedSec) {
+        List<Double> latencies = new ArrayList<>();
+        List<Double> firstFindings = new ArrayList<>();
+        Map<String, Integer> errors = new TreeMap<>();
+        long findings = 0;
+
+        for (Sample sample : samples) {
+            if (sample.error() != null) {
+                errors.merge(sample.error(), 1, Integer::sum);
+                continue;
+            }
+            latencies.add(sample.latencyMs());
+            if (sample.firstFindingMs() != null) {
+                firstFindings.add(sample.firstFindingMs());
+            }
+            findings += sample.findings();
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("endpoint", endpoint);
+        report.put("clients", clients);
+        report.put("requests", samples.size());
+        report.put("succeeded", latencies.size());
+        report.put("failed", samples.size() - latencies.size());
+        report.put("elapsedSec", round(elapsedSec));
+        report.put("scansPerSec", round(latencies.size() / elapsedSec));
+        report.put("findingsPerSec", round(findings / elapsedSec));
+        report.put("firstFindingP50Ms", percentile(firstFindings, 50));
+        report.put("firstFindingP99Ms", percentile(firstFindings, 99));
+        report.put("latencyP50Ms", percentile(latencies, 50));
+        report.put("latencyP99Ms", percentile(latencies, 99));
+        report.put("errors", errors);
+        return report;
+    }
+
+    private void print(Map<String, Object> report) {
+        System.out.printf(
+                "%-10s clients=%d requests=%s ok=%s failed=%s | %.2f scans/s %.2f findings/s"
+                        + " | first finding p50=%s p99=%s ms | latency p50=%s p99=%s ms%n",
+                report.get("endpoint"), clients, report.get("requests"), report.get("succeeded"),
+                report.get("failed"), report.get("scansPerSec"), report.get("findingsPerSec"),
+                report.get("firstFindingP50Ms"), report.get("firstFindingP99Ms"),
+                report.get("latencyP50Ms"), report.get("latencyP99Ms"));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Integer> errors = (Map<String, Integer>) report.get("errors");
+        errors.forEach((message, count) -> System.out.printf("           %dx %s%n", count, message));
+    }
+
+    private static Double percentile(List<Double> values, int percentile) {
+        if (values.isEmpty()) {
+            return null;
+        }
+        List<Double> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return round(sorted.get(Math.max(0, index)));
+    }
+
+    private static double millis(long from, long to) {
+        return (to - from) / 1_000_000.0;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    /**
+     * 요청 한 건의 결과
+     */
+    private record Sample(double latencyMs, Double firstFindingMs, int findings, String error) {
+
+        static Sample failed(String error) {
+            return new Sample(0, null, 0, error);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.fast.trust.loadtest;
+
+import com.fast.trust.TrustApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * 부하 테스트용 서버 실행
+ * - fake-nuclei.sh 와 녹화 fixture 를 임시 디렉터리에 풀고 nuclei.path 로 지정
+ * - MockChatModel 사용 (외부 네트워크 불필요, Postgres 만 로컬에 필요)
+ *
+ * ./gradlew loadTestServer
+ */
+public class LoadTestServer {
+
+    public static void main(String[] args) throws IOException {
+        Path workDir = Files.createTempDirectory("fake-nuclei");
+        Path nuclei = extract("/fake-nuclei.sh", workDir.resolve("nuclei"));
+        extract("/fixtures/nuclei-output.jsonl", workDir.resolve("fixtures/nuclei-output.jsonl"));
+
+        if (!nuclei.toFile().setExecutable(true)) {
+            throw new IllegalStateException("Cannot make fake nuclei executable: " + nuclei);
+        }
+
+        new SpringApplicationBuilder(TrustApplication.class, LoadTestConfig.class)
+                .profiles("loadtest")
+                .properties(
+                        "nuclei.path=" + nuclei,
+                        "spring.ai.anthropic.api-key=offline"
+                )
+                .run(args);
+    }
+
+    private static Path extract(String resource, Path target) throws IOException {
+        try (InputStream in = LoadTestServer.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Resource not found: " + resource);
+            }
+            Files.createDirectories(target.getParent());
+            Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+            return target;
+        }
+    }
+}
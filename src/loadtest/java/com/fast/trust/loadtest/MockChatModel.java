@@ -0,0 +1,88 @@
+package com.fast.trust.loadtest;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 고정 응답 + 설정 가능한 지연을 주는 ChatModel (부하 테스트용, 외부 API 호출 없음)
+ * 묶음 프롬프트([scanDetailId: N]) 에는 id 별 JSON 배열로 응답한다
+ */
+public class MockChatModel implements ChatModel {
+
+    private static final Pattern SCAN_DETAIL_ID = Pattern.compile("\\[scanDetailId: (\\d+)]");
+
+    private static final String ANALYSIS = """
+            "description": "부하 테스트용 고정 분석 결과입니다.",
+            "impact": "실제 영향 분석은 수행되지 않았습니다.",
+            "category": "misconfiguration",
+            "before_code": "",
+            "after_code": "",
+            "fix_steps": ["설정을 확인합니다", "취약한 구성 요소를 업데이트합니다"],
+            "fix_complexity": "easy",
+            "references": ["https://owasp.org/"]""";
+
+    private final long latencyMs;
+    private final int streamChunks;
+
+    public MockChatModel(long latencyMs, int streamChunks) {
+        this.latencyMs = latencyMs;
+        this.streamChunks = Math.max(1, streamChunks);
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        sleep(latencyMs);
+        return toResponse(buildAnswer(prompt));
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        String answer = buildAnswer(prompt);
+        int chunkSize = Math.max(1, answer.length() / streamChunks);
+
+        List<String> chunks = new ArrayList<>();
+        for (int i = 0; i < answer.length(); i += chunkSize) {
+            chunks.add(answer.substring(i, Math.min(answer.length(), i + chunkSize)));
+        }
+
+        return Flux.fromIterable(chunks)
+                .delayElements(Duration.ofMillis(Math.max(1, latencyMs / chunks.size())))
+                .map(this::toResponse);
+    }
+
+    private String buildAnswer(Prompt prompt) {
+        Matcher matcher = SCAN_DETAIL_ID.matcher(prompt.getContents());
+
+        List<String> items = new ArrayList<>();
+        while (matcher.find()) {
+            items.add("{\"scanDetailId\": " + matcher.group(1) + ", " + ANALYSIS + "}");
+        }
+
+        if (items.isEmpty()) {
+            return "{" + ANALYSIS + "}";
+        }
+        return "[" + String.join(",", items) + "]";
+    }
+
+    private ChatResponse toResponse(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
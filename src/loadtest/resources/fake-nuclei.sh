@@ -0,0 +1,74 @@
+#!/usr/bin/env bash
+#
+# nuclei 대역 실행 파일 (부하 테스트용, 네트워크 접속 없음)
+# 녹화된 -jsonl 출력을 재생하면서 대상 URL 만 요청값으로 바꿔 준다.
+#
+# 환경 변수
+#   FAKE_NUCLEI_FIXTURE          재생할 JSONL 파일 (기본: 스크립트 옆 fixtures/nuclei-output.jsonl)
+#   FAKE_NUCLEI_LINE_RATE        초당 출력 줄 수 (기본 200, 0 이면 제한 없음)
+#   FAKE_NUCLEI_FINDING_DENSITY  결과 줄을 남길 비율 0~100 (기본 100)
+#   FAKE_NUCLEI_REPEAT           fixture 반복 횟수 (기본 1)
+#
+set -u
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+FIXTURE="${FAKE_NUCLEI_FIXTURE:-$SCRIPT_DIR/fixtures/nuclei-output.jsonl}"
+LINE_RATE="${FAKE_NUCLEI_LINE_RATE:-200}"
+DENSITY="${FAKE_NUCLEI_FINDING_DENSITY:-100}"
+REPEAT="${FAKE_NUCLEI_REPEAT:-1}"
+
+targets=()
+while [ $# -gt 0 ]; do
+    case "$1" in
+        -version)
+            echo "[INF] Nuclei Engine Version: v3.3.7 (fake)"
+            exit 0
+            ;;
+        -u)
+            targets+=("$2")
+            shift
+            ;;
+        -l)
+            while IFS= read -r target || [ -n "$target" ]; do
+                [ -n "$target" ] && targets+=("$target")
+            done < "$2"
+            shift
+            ;;
+    esac
+    shift
+done
+
+if [ ! -f "$FIXTURE" ]; then
+    echo "[ERR] fixture not found: $FIXTURE" >&2
+    exit 1
+fi
+if [ ${#targets[@]} -eq 0 ]; then
+    targets=("https://example.com")
+fi
+
+delay=0
+if [ "$LINE_RATE" -gt 0 ]; then
+    delay=$(awk -v rate="$LINE_RATE" 'BEGIN { printf "%.4f", 1 / rate }')
+fi
+
+index=0
+for ((round = 0; round < REPEAT; round++)); do
+    while IFS= read -r line || [ -n "$line" ]; do
+        case "$line" in
+            *'"template-id"'*)
+                if [ $((RANDOM % 100)) -ge "$DENSITY" ]; then
+                    continue
+                fi
+                target="${targets[$((index % ${#targets[@]}))]}"
+                index=$((index + 1))
+                line="${line//https:\/\/shop.example.com/$target}"
+                line="${line//https:\/\/api.example.com/$target}"
+                line="${line//https:\/\/blog.example.org:8443/$target}"
+                ;;
+        esac
+        printf '%s\n' "$line"
+        if [ "$delay" != "0" ]; then
+            sleep "$delay"
+        fi
+    done < "$FIXTURE"
+done
@@ -1,28 +1,79 @@
 package com.fast.trust.ai.controller;
 
+import com.fast.trust.ai.service.AiAnalysisCache;
 import com.fast.trust.ai.service.AiService;
 import com.fast.trust.scan.dto.SSEDto;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/ai/")
 public class AiController {
     private final AiService aiService;
+    private final AiAnalysisCache aiAnalysisCache;
 
     @GetMapping(value = "/analyzeScan", produces = MediaType.APPLICATION_JSON_VALUE)
     public List<SSEDto> analyzeScan(String scanId) {
         return aiService.analyzeScan(scanId);
     }
 
+    /**
+     * 스캔 전체 AI 분석 (완료되는 순서대로 SSE 전송)
+     */
+    @GetMapping(value = "/analyzeScanStream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter analyzeScanStream(String scanId) {
+        SseEmitter emitter = new SseEmitter(600000L);
+        aiService.analyzeScanStream(scanId, emitter);
+        return emitter;
+    }
+
     @GetMapping(value = "/analyzeScanDetail", produces = MediaType.APPLICATION_JSON_VALUE)
     public SSEDto analyzeScanDetail(String scanDetailId) {
         return aiService.analyzeScanDetail(scanDetailId);
     }
+
+    @GetMapping(value = "/cache/stats", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, Object> cacheStats() {
+        return aiAnalysisCache.stats();
+    }
+
+    /**
+     * AI 캐시 무효화
+     * templateId 가 있으면 해당 템플릿만, 없으면 전체 (SYSTEM_PROMPT 변경 시)
+     */
+    @DeleteMapping(value = "/cache", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, Object> invalidateCache(String templateId) {
+        if (templateId != null && !templateId.isBlank()) {
+            return Map.of("deleted", aiAnalysisCache.invalidateTemplate(templateId));
+        }
+        aiAnalysisCache.invalidateAll();
+        return Map.of("deleted", "all");
+    }
+
+    /**
+     * 현재 프롬프트 버전이 아닌 캐시 항목 정리
+     */
+    @DeleteMapping(value = "/cache/stale", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, Object> invalidateStaleCache() {
+        return Map.of("deleted", aiAnalysisCache.invalidateStale(AiService.PROMPT_VERSION));
+    }
+
+    /**
+     * 단건 AI 분석 토큰 스트리밍 (부분 AI 이벤트 → 최종 AI 이벤트)
+     */
+    @GetMapping(value = "/analyzeScanDetailStream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter analyzeScanDetailStream(String scanDetailId) {
+        SseEmitter emitter = new SseEmitter(600000L);
+        aiService.analyzeScanDetailStream(scanDetailId, emitter);
+        return emitter;
+    }
 }
@@ -26,6 +26,12 @@ public record AiRstDto(
         Double confidence,
         LocalDateTime analyzedAt,
         // 디버깅용 (선택)
-        String rawResponse
+        String rawResponse,
+        // MODEL | CACHE | FALLBACK
+        String source
 ) {
+    public AiRstDto withScanDetail(Long scanDetailId, String source) {
+        return new AiRstDto(scanDetailId, description, impact, category, beforeCode, afterCode,
+                fixSteps, fixComplexity, references, aiModel, confidence, analyzedAt, rawResponse, source);
+    }
 }
@@ -0,0 +1,52 @@
+package com.fast.trust.ai.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Entity
+@Getter
+@Table(name = "ai_analysis_cache")
+@NoArgsConstructor
+public class AiCacheEntry {
+    // 정규화된 프롬프트 입력값 + 프롬프트 버전의 SHA-256
+    @Id
+    @Column(name = "fingerprint", length = 64)
+    private String fingerprint;
+
+    @Column(name = "template_id")
+    private String templateId;
+
+    @Column(name = "severity")
+    private String severity;
+
+    // SYSTEM_PROMPT 의 해시 (프롬프트 변경 시 무효화 기준)
+    @Column(name = "prompt_version", length = 64)
+    private String promptVersion;
+
+    // AiRstDto 전체 (jsonb)
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "result", columnDefinition = "jsonb")
+    private Map<String, Object> result;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    public AiCacheEntry(String fingerprint, String templateId, String severity,
+                        String promptVersion, Map<String, Object> result) {
+        this.fingerprint = fingerprint;
+        this.templateId = templateId;
+        this.severity = severity;
+        this.promptVersion = promptVersion;
+        this.result = result;
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,18 @@
+package com.fast.trust.ai.repository;
+
+import com.fast.trust.ai.entity.AiCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface AiCacheEntryRepository extends JpaRepository<AiCacheEntry, String> {
+
+    @Modifying
+    @Query("delete from AiCacheEntry e where e.templateId = :templateId")
+    int deleteByTemplateId(@Param("templateId") String templateId);
+
+    @Modifying
+    @Query("delete from AiCacheEntry e where e.promptVersion <> :promptVersion")
+    int deleteByPromptVersionNot(@Param("promptVersion") String promptVersion);
+}
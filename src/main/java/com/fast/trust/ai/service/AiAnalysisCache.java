@@ -0,0 +1,189 @@
+package com.fast.trust.ai.service;
+
+import com.fast.trust.ai.dto.AiRstDto;
+import com.fast.trust.ai.entity.AiCacheEntry;
+import com.fast.trust.ai.repository.AiCacheEntryRepository;
+import com.fast.trust.scan.entity.ScanDetail;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AI 분석 결과 2단 캐시 (메모리 LRU + TTL → Postgres)
+ * 키는 buildPrompt 입력값(템플릿 / 이름 / 심각도 / 추출 데이터)을 정규화한 fingerprint
+ * matchedAt 은 대상마다 달라 재사용을 막으므로 키에서 제외한다
+ * 조회 결과는 ai.cache.requests{result=memory_hit|db_hit|miss}, 메모리 항목 수는 ai.cache.memory.size 지표
+ */
+@Component
+@Slf4j
+public class AiAnalysisCache {
+
+    private final AiCacheEntryRepository aiCacheEntryRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Map<String, MemoryEntry> memory;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong dbHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public AiAnalysisCache(
+            AiCacheEntryRepository aiCacheEntryRepository,
+            ObjectMapper objectMapper,
+            @Value("${ai.cache.ttl-hours:720}") long ttlHours,
+            @Value("${ai.cache.memory-size:1000}") int memorySize,
+            MeterRegistry meterRegistry
+    ) {
+        this.aiCacheEntryRepository = aiCacheEntryRepository;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.memory = Collections.synchronizedMap(new LinkedHashMap<String, MemoryEntry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, MemoryEntry> eldest) {
+                return size() > memorySize;
+            }
+        });
+
+        registerRequests(meterRegistry, "memory_hit", memoryHits);
+        registerRequests(meterRegistry, "db_hit", dbHits);
+        registerRequests(meterRegistry, "miss", misses);
+        Gauge.builder("ai.cache.memory.size", memory, Map::size)
+                .description("Entries in the in-memory AI analysis cache")
+                .register(meterRegistry);
+    }
+
+    public String fingerprint(ScanDetail scanDetail, String promptVersion) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(promptVersion).append('\n');
+        sb.append(normalize(scanDetail.getTemplateId())).append('\n');
+        sb.append(normalize(scanDetail.getName())).append('\n');
+        sb.append(normalize(scanDetail.getSeverity())).append('\n');
+
+        if (scanDetail.getExtractedResults() != null) {
+            scanDetail.getExtractedResults().stream()
+                    .map(this::normalize)
+                    .filter(v -> !v.isEmpty())
+                    .distinct()
+                    .sorted()
+                    .forEach(v -> sb.append(v).append('\n'));
+        }
+
+        return DigestUtils.sha256Hex(sb.toString());
+    }
+
+    public Optional<AiRstDto> get(String fingerprint) {
+        MemoryEntry cached = memory.get(fingerprint);
+        if (cached != null) {
+            if (!isExpired(cached.createdAt())) {
+                memoryHits.incrementAndGet();
+                return Optional.of(cached.result());
+            }
+            memory.remove(fingerprint);
+        }
+
+        Optional<AiCacheEntry> stored = aiCacheEntryRepository.findById(fingerprint)
+                .filter(entry -> !isExpired(entry.getCreatedAt()));
+
+        if (stored.isPresent()) {
+            try {
+                AiRstDto result = objectMapper.convertValue(stored.get().getResult(), AiRstDto.class);
+                memory.put(fingerprint, new MemoryEntry(result, stored.get().getCreatedAt()));
+                dbHits.incrementAndGet();
+                return Optional.of(result);
+            } catch (IllegalArgumentException e) {
+                log.warn("Broken AI cache entry {}, ignoring", fingerprint, e);
+            }
+        }
+
+        misses.incrementAndGet();
+        return Optional.empty();
+    }
+
+    public void put(String fingerprint, ScanDetail scanDetail, String promptVersion, AiRstDto result) {
+        memory.put(fingerprint, new MemoryEntry(result, LocalDateTime.now()));
+        try {
+            Map<String, Object> json = objectMapper.convertValue(result, new TypeReference<Map<String, Object>>() {});
+            aiCacheEntryRepository.save(new AiCacheEntry(
+                    fingerprint,
+                    scanDetail.getTemplateId(),
+                    scanDetail.getSeverity(),
+                    promptVersion,
+                    json
+            ));
+        } catch (Exception e) {
+            log.warn("Failed to store AI cache entry {}: {}", fingerprint, e.getMessage());
+        }
+    }
+
+    /**
+     * 전체 무효화 (SYSTEM_PROMPT 변경 시)
+     */
+    @Transactional
+    public void invalidateAll() {
+        memory.clear();
+        aiCacheEntryRepository.deleteAllInBatch();
+        log.info("AI cache invalidated");
+    }
+
+    @Transactional
+    public int invalidateTemplate(String templateId) {
+        // 메모리 항목은 템플릿을 알 수 없으므로 전부 비운다
+        memory.clear();
+        return aiCacheEntryRepository.deleteByTemplateId(templateId);
+    }
+
+    /**
+     * 현재 프롬프트 버전이 아닌 항목 정리
+     */
+    @Transactional
+    public int invalidateStale(String promptVersion) {
+        memory.clear();
+        return aiCacheEntryRepository.deleteByPromptVersionNot(promptVersion);
+    }
+
+    public Map<String, Object> stats() {
+        long hits = memoryHits.get() + dbHits.get();
+        long total = hits + misses.get();
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("memoryHits", memoryHits.get());
+        stats.put("dbHits", dbHits.get());
+        stats.put("misses", misses.get());
+        stats.put("hitRatio", total == 0 ? 0.0 : (double) hits / total);
+        stats.put("memorySize", memory.size());
+        return stats;
+    }
+
+    private static void registerRequests(MeterRegistry meterRegistry, String result, AtomicLong count) {
+        FunctionCounter.builder("ai.cache.requests", count, AtomicLong::get)
+                .description("AI analysis cache lookups by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private boolean isExpired(LocalDateTime createdAt) {
+        return createdAt == null || createdAt.plus(ttl).isBefore(LocalDateTime.now());
+    }
+
+    private String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.trim().replaceAll("\\s+", " ").toLowerCase();
+    }
+
+    private record MemoryEntry(AiRstDto result, LocalDateTime createdAt) {
+    }
+}
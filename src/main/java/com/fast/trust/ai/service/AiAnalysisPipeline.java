@@ -0,0 +1,108 @@
+package com.fast.trust.ai.service;
+
+import com.fast.trust.scan.dto.SSEDto;
+import com.fast.trust.scan.entity.ScanDetail;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 스캔 루프와 분리된 비동기 AI 분석 단계
+ * 분석 + 저장을 aiExecutor 워커에서 수행하고, 완료되면 AI 이벤트용 SSEDto 를 돌려준다
+ * 제출 수는 워커 수 + 대기열 크기만큼의 허가(Semaphore)로 제한, 작업이 끝나면 반납한다
+ * 허가가 없으면 제출하는 쪽(스캔의 저장 워커)이 반납될 때까지 기다려 nuclei 출력 읽기까지 늦춘다
+ * (ai.pipeline.submit-timeout-seconds 를 넘기면 분석 없이 실패, ai.pipeline.rejected 지표)
+ */
+@Component
+@Slf4j
+public class AiAnalysisPipeline {
+
+    private final AiService aiService;
+    private final Executor aiExecutor;
+    private final Semaphore permits;
+    private final long submitTimeoutMillis;
+    private final Timer submitWait;
+    private final Counter rejected;
+
+    public AiAnalysisPipeline(AiService aiService,
+                              @Qualifier("aiExecutor") Executor aiExecutor,
+                              @Value("${ai.pipeline.workers:4}") int workers,
+                              @Value("${ai.pipeline.queue-capacity:200}") int queueCapacity,
+                              @Value("${ai.pipeline.submit-timeout-seconds:60}") long submitTimeoutSeconds,
+                              MeterRegistry meterRegistry) {
+        this.aiService = aiService;
+        this.aiExecutor = aiExecutor;
+        this.permits = new Semaphore(workers + queueCapacity);
+        this.submitTimeoutMillis = submitTimeoutSeconds * 1000;
+        this.submitWait = Timer.builder("ai.pipeline.submit.wait")
+                .description("Time spent waiting for room in the AI analysis queue")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("ai.pipeline.rejected")
+                .description("Findings left unanalyzed because the AI queue stayed full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 대기열이 계속 가득 차 있으면 실패한 future 를 돌려준다
+     * (분석되지 않은 항목은 aiAnalyzed=false 로 남고 /api/ai/analyzeScanDetail 로 다시 요청 가능)
+     */
+    public CompletableFuture<SSEDto> submit(ScanDetail scanDetail) {
+        return submit(scanDetail, () -> false);
+    }
+
+    /**
+     * @param cancelled 제출 시점이나 워커가 꺼냈을 때 true 면 모델 호출 없이 CancellationException (스캔 취소)
+     */
+    public CompletableFuture<SSEDto> submit(ScanDetail scanDetail, BooleanSupplier cancelled) {
+        if (cancelled.getAsBoolean()) {
+            return CompletableFuture.failedFuture(new CancellationException("Scan cancelled"));
+        }
+
+        long startedAt = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(submitTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                log.warn("AI queue stayed full for {}s, leaving scanDetail {} unanalyzed",
+                        submitTimeoutMillis / 1000, scanDetail.getId());
+                return CompletableFuture.failedFuture(
+                        new RejectedExecutionException("AI analysis queue is full"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        submitWait.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+
+        try {
+            CompletableFuture<SSEDto> future = CompletableFuture.supplyAsync(
+                    () -> {
+                        if (cancelled.getAsBoolean()) {
+                            throw new CancellationException("Scan cancelled");
+                        }
+                        return aiService.saveResult(scanDetail, aiService.analyze(scanDetail));
+                    },
+                    aiExecutor
+            );
+            future.whenComplete((result, ex) -> permits.release());
+            return future;
+        } catch (RejectedExecutionException e) {
+            // 허가 수가 실행기 용량과 맞지 않게 설정된 경우
+            permits.release();
+            rejected.increment();
+            log.warn("AI executor rejected scanDetail {}: {}", scanDetail.getId(), e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.fast.trust.ai.service;
+
+import com.fast.trust.ai.dto.AiRstDto;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 모델 응답 텍스트 → AiRstDto 변환
+ * 코드 펜스 / 앞뒤 설명문 / 잘못된 이중 따옴표가 섞인 응답도 최대한 복구한다
+ */
+@Slf4j
+public class AiResponseParser {
+
+    public static final String AI_MODEL = "claude-sonnet-4";
+
+    // ""key"" → "key"
+    private static final Pattern DOUBLE_QUOTED_KEY = Pattern.compile("\"\"([^\"]+)\"\"");
+    // ""value"" → "value"
+    private static final Pattern DOUBLE_QUOTED_VALUE = Pattern.compile(":\\s*\"\"([^\"]*)\"\"");
+
+    private static final TypeReference<List<String>> STRING_LIST = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper;
+
+    public AiResponseParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public AiRstDto parseResponse(Long scanDetailId, String text) {
+        try {
+            if (text == null || text.isBlank()) {
+                throw new IllegalArgumentException("Empty AI response");
+            }
+
+            // 1️⃣ ``` 제거
+            String cleaned = stripCodeFence(text);
+
+            // 2️⃣ JSON 블록 추출
+            String jsonOnly = extractJsonBlock(cleaned);
+
+            // 3️⃣ 🔥 잘못된 이중 따옴표 복구
+            jsonOnly = normalizeBrokenJson(jsonOnly);
+
+            // 4️⃣ JSON 파싱
+            JsonNode json = objectMapper.readTree(jsonOnly);
+
+            return toAiRstDto(scanDetailId, json, text);
+
+        } catch (Exception e) {
+            log.error("AI 응답 파싱 실패", e);
+
+            return new AiRstDto(
+                    scanDetailId,
+                    "AI 응답 파싱 실패",
+                    "응답 JSON이 손상되었거나 미완성 상태입니다.",
+                    "exposure",
+                    "",
+                    "",
+                    List.of(),
+                    "moderate",
+                    List.of(),
+                    AI_MODEL,
+                    0.0,
+                    java.time.LocalDateTime.now(),
+                    text,
+                    "MODEL"
+            );
+        }
+    }
+
+    /**
+     * 여러 취약점 묶음 응답 (JSON 배열) 파싱
+     */
+    public List<JsonNode> parseBatchResponse(String text) throws Exception {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Empty AI response");
+        }
+
+        String cleaned = stripCodeFence(text);
+
+        int start = cleaned.indexOf("[");
+        int end = cleaned.lastIndexOf("]");
+        if (start == -1 || end == -1 || end <= start) {
+            throw new IllegalArgumentException("JSON array not found or incomplete");
+        }
+
+        JsonNode array = objectMapper.readTree(normalizeBrokenJson(cleaned.substring(start, end + 1)));
+        List<JsonNode> items = new ArrayList<>();
+        array.forEach(items::add);
+        return items;
+    }
+
+    public AiRstDto toAiRstDto(Long scanDetailId, JsonNode json, String text) {
+        return new AiRstDto(
+                scanDetailId,
+                json.path("description").asText(),
+                json.path("impact").asText(),
+                json.path("category").asText("exposure"),
+                json.path("before_code").asText(),
+                json.path("after_code").asText(),
+                objectMapper.convertValue(json.path("fix_steps"), STRING_LIST),
+                json.path("fix_complexity").asText("moderate"),
+                objectMapper.convertValue(json.path("references"), STRING_LIST),
+                AI_MODEL,
+                1.0,
+                java.time.LocalDateTime.now(),
+                text,
+                "MODEL"
+        );
+    }
+
+    public static String stripCodeFence(String text) {
+        return text.trim()
+                .replace("```json", "")
+                .replace("```", "")
+                .trim();
+    }
+
+    public static String extractJsonBlock(String text) {
+        int start = text.indexOf("{");
+        int end = text.lastIndexOf("}");
+
+        if (start == -1 || end == -1 || end <= start) {
+            throw new IllegalArgumentException("JSON block not found or incomplete");
+        }
+
+        return text.substring(start, end + 1);
+    }
+
+    public static String normalizeBrokenJson(String json) {
+        // 대부분의 응답은 "" 가 없으므로 정규식 실행 생략
+        if (!json.contains("\"\"")) {
+            return json;
+        }
+
+        json = DOUBLE_QUOTED_KEY.matcher(json).replaceAll("\"$1\"");
+        json = DOUBLE_QUOTED_VALUE.matcher(json).replaceAll(": \"$1\"");
+
+        return json;
+    }
+}
@@ -5,30 +5,68 @@ import com.fast.trust.scan.dto.SSEDto;
 import com.fast.trust.scan.dto.SSE_TYPE;
 import com.fast.trust.scan.entity.ScanDetail;
 import com.fast.trust.scan.repository.ScanDetailRepository;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fast.trust.scan.service.RawSegmentStore;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Service
 @Slf4j
 public class AiService {
     private final ChatClient chatClient;
-    private final ObjectMapper objectMapper;
+    private final AiResponseParser aiResponseParser;
     private final ScanDetailRepository scanDetailRepository;
+    private final AiAnalysisCache aiAnalysisCache;
+    private final Executor aiExecutor;
+    private final MeterRegistry meterRegistry;
+    private final RawSegmentStore rawSegmentStore;
+
+    @Value("${ai.analyze-scan.concurrency:4}")
+    private int analyzeScanConcurrency;
+
+    // 1 이면 묶음 분석 사용 안 함
+    @Value("${ai.analyze-scan.pack-size:5}")
+    private int analyzeScanPackSize;
+
+    @Value("${ai.analyze-scan.pack-max-chars:500}")
+    private int analyzeScanPackMaxChars;
 
     public AiService(
             ChatClient.Builder builder,
             ScanDetailRepository scanDetailRepository,
-            ObjectMapper objectMapper
+            ObjectMapper objectMapper,
+            AiAnalysisCache aiAnalysisCache,
+            @Qualifier("aiExecutor") Executor aiExecutor,
+            MeterRegistry meterRegistry,
+            RawSegmentStore rawSegmentStore
     ) {
         this.chatClient = builder.build();
         this.scanDetailRepository = scanDetailRepository;
-        this.objectMapper = objectMapper;
+        this.aiResponseParser = new AiResponseParser(objectMapper);
+        this.aiAnalysisCache = aiAnalysisCache;
+        this.aiExecutor = aiExecutor;
+        this.meterRegistry = meterRegistry;
+        this.rawSegmentStore = rawSegmentStore;
     }
 
     private static final String SYSTEM_PROMPT = """
@@ -54,7 +92,50 @@ public class AiService {
 중요: JSON 외 다른 텍스트는 절대 포함하지 마세요.
 """;
 
+    private static final String BATCH_PROMPT_SUFFIX = """
+
+여러 취약점이 주어지면 위 JSON 객체를 취약점마다 하나씩 만들고,
+각 객체에 "scanDetailId" (숫자) 를 포함한 JSON 배열로만 응답하세요:
+[{"scanDetailId": 1, "description": "...", ...}]
+""";
+
+    @Value("${ai.stream.partial-interval-ms:150}")
+    private long streamPartialIntervalMs;
+
+    @Value("${ai.stream.timeout-seconds:120}")
+    private long streamTimeoutSeconds;
+
+    // SYSTEM_PROMPT 가 바뀌면 캐시 키도 바뀐다
+    public static final String PROMPT_VERSION = DigestUtils.sha256Hex(SYSTEM_PROMPT);
+
     public AiRstDto analyze(ScanDetail aiReqDto) {
+        long startedAt = System.nanoTime();
+        AiRstDto result = analyzeWithCache(aiReqDto);
+        recordAnalyze("single", result.source(), analyzeOutcome(result), startedAt);
+        return result;
+    }
+
+    /**
+     * ai.analyze 타이머 (단건 / 묶음 / 스트리밍 공통)
+     * mode: single / batch / stream, source: MODEL / CACHE / FALLBACK
+     * outcome: cache / success / parse_failure / error / cancelled → 오류율은 outcome 비율로 계산
+     * 묶음은 모델 호출 한 번에 한 건 (캐시 적중은 항목마다)
+     */
+    private void recordAnalyze(String mode, String source, String outcome, long startedAt) {
+        meterRegistry.timer("ai.analyze",
+                        "mode", mode,
+                        "source", source,
+                        "outcome", outcome)
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+    }
+
+    private AiRstDto analyzeWithCache(ScanDetail aiReqDto) {
+        String fingerprint = aiAnalysisCache.fingerprint(aiReqDto, PROMPT_VERSION);
+        Optional<AiRstDto> cached = aiAnalysisCache.get(fingerprint);
+        if (cached.isPresent()) {
+            return cached.get().withScanDetail(aiReqDto.getId(), "CACHE");
+        }
+
         String userPrompt = buildPrompt(aiReqDto);
 
         try {
@@ -64,7 +145,13 @@ public class AiService {
                     .call()
                     .content();
 
-            return parseResponse(aiReqDto, response);
+            AiRstDto result = aiResponseParser.parseResponse(aiReqDto.getId(), response);
+
+            // 파싱 실패(confidence 0)는 캐시하지 않는다
+            if (result.confidence() != null && result.confidence() > 0) {
+                aiAnalysisCache.put(fingerprint, aiReqDto, PROMPT_VERSION, result);
+            }
+            return result;
 
         } catch (Exception e) {
             return defaultAnalysis(aiReqDto, e.getMessage());
@@ -73,6 +160,14 @@ public class AiService {
 
     /* ===================== 내부 메서드 ===================== */
 
+    private String analyzeOutcome(AiRstDto result) {
+        return switch (result.source()) {
+            case "CACHE" -> "cache";
+            case "FALLBACK" -> "error";
+            default -> result.confidence() != null && result.confidence() > 0 ? "success" : "parse_failure";
+        };
+    }
+
     private String buildPrompt(ScanDetail aiReqDto) {
         StringBuilder sb = new StringBuilder();
         sb.append("다음 보안 취약점을 분석해주세요:\n\n");
@@ -90,71 +185,6 @@ public class AiService {
         return sb.toString();
     }
 
-    private AiRstDto parseResponse(ScanDetail scanDetail, String text) {
-        try {
-            if (text == null || text.isBlank()) {
-                throw new IllegalArgumentException("Empty AI response");
-            }
-
-            String cleaned = text.trim();
-
-            // 1️⃣ ``` 제거
-            cleaned = cleaned.replaceAll("```json", "")
-                    .replaceAll("```", "")
-                    .trim();
-
-            // 2️⃣ JSON 블록 추출
-            String jsonOnly = extractJsonBlock(cleaned);
-
-            // 3️⃣ 🔥 잘못된 이중 따옴표 복구
-            jsonOnly = normalizeBrokenJson(jsonOnly);
-
-            // 4️⃣ JSON 파싱
-            JsonNode json = objectMapper.readTree(jsonOnly);
-
-            return new AiRstDto(
-                    scanDetail.getId(),
-                    json.path("description").asText(),
-                    json.path("impact").asText(),
-                    json.path("category").asText("exposure"),
-                    json.path("before_code").asText(),
-                    json.path("after_code").asText(),
-                    objectMapper.convertValue(
-                            json.path("fix_steps"),
-                            new TypeReference<List<String>>() {}
-                    ),
-                    json.path("fix_complexity").asText("moderate"),
-                    objectMapper.convertValue(
-                            json.path("references"),
-                            new TypeReference<List<String>>() {}
-                    ),
-                    "claude-sonnet-4",
-                    1.0,
-                    java.time.LocalDateTime.now(),
-                    text
-            );
-
-        } catch (Exception e) {
-            log.error("AI 응답 파싱 실패", e);
-
-            return new AiRstDto(
-                    scanDetail.getId(),
-                    "AI 응답 파싱 실패",
-                    "응답 JSON이 손상되었거나 미완성 상태입니다.",
-                    "exposure",
-                    "",
-                    "",
-                    List.of(),
-                    "moderate",
-                    List.of(),
-                    "claude-sonnet-4",
-                    0.0,
-                    java.time.LocalDateTime.now(),
-                    text
-            );
-        }
-    }
-
     private AiRstDto defaultAnalysis(ScanDetail scanDetail, String error) {
         return new AiRstDto(
                 scanDetail.getId(),
@@ -173,40 +203,237 @@ public class AiService {
                 "claude-sonnet-4",
                 0.0,
                 java.time.LocalDateTime.now(),
-                error
+                error,
+                "FALLBACK"
         );
     }
 
     public List<SSEDto> analyzeScan(String scanId) {
+        return analyzeScan(scanId, sseDto -> {});
+    }
+
+    /**
+     * 스캔 전체 분석을 SSE 로 전송 (완료되는 순서대로)
+     */
+    @Async
+    public void analyzeScanStream(String scanId, SseEmitter emitter) {
+        try {
+            analyzeScan(scanId, sseDto -> {
+                try {
+                    emitter.send(SseEmitter.event()
+                            .name("progress")
+                            .data(sseDto));
+                } catch (IOException e) {
+                    throw new IllegalStateException("SSE send failed", e);
+                }
+            });
+
+            SSEDto end = new SSEDto();
+            end.setType(SSE_TYPE.END.name());
+            end.setScanId(scanId);
+            emitter.send(SseEmitter.event()
+                    .name("complete")
+                    .data(end));
+            emitter.complete();
+        } catch (Exception e) {
+            log.error("AI scan analysis failed for {}", scanId, e);
+            emitter.completeWithError(e);
+        }
+    }
+
+    /**
+     * 스캔의 모든 취약점을 동시에 분석
+     * - ai.analyze-scan.concurrency 개의 작업자가 분석 단위를 나눠 처리
+     * - 작은 취약점(info / low, 짧은 추출 데이터)은 pack-size 개씩 한 프롬프트로 묶어 요청
+     * - 한 단위가 실패해도 나머지는 계속 진행
+     */
+    public List<SSEDto> analyzeScan(String scanId, Consumer<SSEDto> onResult) {
         List<ScanDetail> scanDetailList = scanDetailRepository.findByScanId(scanId);
-        List<SSEDto> sseDtoList = new ArrayList<>();
+        Queue<List<ScanDetail>> units = new ConcurrentLinkedQueue<>(planUnits(scanDetailList));
+        List<SSEDto> sseDtoList = Collections.synchronizedList(new ArrayList<>());
+
+        Runnable worker = () -> {
+            List<ScanDetail> unit;
+            while ((unit = units.poll()) != null) {
+                for (SSEDto sseDto : analyzeUnit(unit)) {
+                    sseDtoList.add(sseDto);
+                    try {
+                        onResult.accept(sseDto);
+                    } catch (Exception e) {
+                        log.warn("Failed to deliver AI result {}: {}", sseDto.getScanDetailId(), e.getMessage());
+                    }
+                }
+            }
+        };
+
+        int workers = Math.max(1, Math.min(analyzeScanConcurrency, scanDetailList.size()));
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            try {
+                futures.add(CompletableFuture.runAsync(worker, aiExecutor));
+            } catch (RejectedExecutionException e) {
+                // AI 워커 풀이 가득 차면 호출 스레드에서 처리
+                worker.run();
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        return sseDtoList;
+    }
+
+    List<List<ScanDetail>> planUnits(List<ScanDetail> scanDetailList) {
+        List<List<ScanDetail>> units = new ArrayList<>();
+        List<ScanDetail> pack = new ArrayList<>();
+
         for (ScanDetail scanDetail : scanDetailList) {
-            AiRstDto result = analyze(scanDetail);
-            sseDtoList.add(saveResult(scanDetail, result));
+            if (analyzeScanPackSize > 1 && isSmallFinding(scanDetail)) {
+                pack.add(scanDetail);
+                if (pack.size() >= analyzeScanPackSize) {
+                    units.add(pack);
+                    pack = new ArrayList<>();
+                }
+            } else {
+                units.add(List.of(scanDetail));
+            }
         }
+        if (!pack.isEmpty()) {
+            units.add(pack);
+        }
+        return units;
+    }
 
+    private boolean isSmallFinding(ScanDetail scanDetail) {
+        String severity = Optional.ofNullable(scanDetail.getSeverity()).orElse("info").toLowerCase();
+        if (!"info".equals(severity) && !"low".equals(severity)) {
+            return false;
+        }
+        int extractedLength = scanDetail.getExtractedResults() == null ? 0
+                : scanDetail.getExtractedResults().stream().mapToInt(v -> v == null ? 0 : v.length()).sum();
+        return extractedLength <= analyzeScanPackMaxChars;
+    }
+
+    private List<SSEDto> analyzeUnit(List<ScanDetail> unit) {
+        Map<Long, AiRstDto> results = unit.size() > 1 ? analyzeBatch(unit) : new HashMap<>();
+        // 묶음 응답을 처음 기록한 항목 (나머지는 같은 위치를 가리킨다)
+        ScanDetail batchRaw = null;
+
+        List<SSEDto> sseDtoList = new ArrayList<>();
+        for (ScanDetail scanDetail : unit) {
+            try {
+                AiRstDto result = results.get(scanDetail.getId());
+                if (result == null) {
+                    sseDtoList.add(saveResult(scanDetail, analyze(scanDetail)));
+                } else if ("MODEL".equals(result.source())) {
+                    // 묶음 응답 원본은 한 번만 기록
+                    if (batchRaw == null || batchRaw.getAiRawOffset() == null) {
+                        rawSegmentStore.appendAiResponse(scanDetail, result.rawResponse());
+                        batchRaw = scanDetail;
+                    } else {
+                        scanDetail.setAiRawOffset(batchRaw.getAiRawOffset());
+                        scanDetail.setAiRawLength(batchRaw.getAiRawLength());
+                    }
+                    sseDtoList.add(saveAnalysis(scanDetail, result));
+                } else {
+                    sseDtoList.add(saveResult(scanDetail, result));
+                }
+            } catch (Exception e) {
+                log.error("AI analysis failed for scanDetail {}", scanDetail.getId(), e);
+            }
+        }
         return sseDtoList;
     }
 
+    /**
+     * 여러 취약점을 한 프롬프트로 분석하고 scanDetailId 기준으로 다시 나눈다
+     * 캐시에 있는 항목은 요청에서 빼고, 응답에 빠진 항목은 호출한 쪽에서 단건 분석으로 처리
+     */
+    private Map<Long, AiRstDto> analyzeBatch(List<ScanDetail> unit) {
+        Map<Long, AiRstDto> results = new HashMap<>();
+        Map<Long, ScanDetail> pending = new LinkedHashMap<>();
+        Map<Long, String> fingerprints = new HashMap<>();
+
+        for (ScanDetail scanDetail : unit) {
+            long lookupStartedAt = System.nanoTime();
+            String fingerprint = aiAnalysisCache.fingerprint(scanDetail, PROMPT_VERSION);
+            Optional<AiRstDto> cached = aiAnalysisCache.get(fingerprint);
+            if (cached.isPresent()) {
+                results.put(scanDetail.getId(), cached.get().withScanDetail(scanDetail.getId(), "CACHE"));
+                recordAnalyze("batch", "CACHE", "cache", lookupStartedAt);
+            } else {
+                pending.put(scanDetail.getId(), scanDetail);
+                fingerprints.put(scanDetail.getId(), fingerprint);
+            }
+        }
+
+        if (pending.size() < 2) {
+            return results;
+        }
+
+        long startedAt = System.nanoTime();
+        int parsed = 0;
+        try {
+            String response = chatClient.prompt()
+                    .system(SYSTEM_PROMPT + BATCH_PROMPT_SUFFIX)
+                    .user(buildBatchPrompt(pending.values()))
+                    .call()
+                    .content();
+
+            for (JsonNode json : aiResponseParser.parseBatchResponse(response)) {
+                long scanDetailId = json.path("scanDetailId").asLong(-1);
+                ScanDetail scanDetail = pending.get(scanDetailId);
+                if (scanDetail == null) {
+                    continue;
+                }
+                AiRstDto result = aiResponseParser.toAiRstDto(scanDetail.getId(), json, response);
+                // 파싱 실패(confidence 0)는 캐시하지 않는다
+                if (result.confidence() != null && result.confidence() > 0) {
+                    aiAnalysisCache.put(fingerprints.get(scanDetailId), scanDetail, PROMPT_VERSION, result);
+                    parsed++;
+                }
+                results.put(scanDetailId, result);
+            }
+            // 일부 항목이 빠지거나 깨졌으면 parse_failure (빠진 항목은 단건 분석으로 따로 기록)
+            recordAnalyze("batch", "MODEL", parsed == pending.size() ? "success" : "parse_failure", startedAt);
+        } catch (Exception e) {
+            recordAnalyze("batch", "FALLBACK", "error", startedAt);
+            log.warn("Batch AI analysis failed ({} findings), falling back to single requests: {}",
+                    pending.size(), e.getMessage());
+        }
+
+        return results;
+    }
+
+    private String buildBatchPrompt(Collection<ScanDetail> scanDetails) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("다음 보안 취약점들을 각각 분석해주세요:\n");
+        for (ScanDetail scanDetail : scanDetails) {
+            sb.append("\n[scanDetailId: ").append(scanDetail.getId()).append("]\n");
+            sb.append(buildPrompt(scanDetail).replace("다음 보안 취약점을 분석해주세요:\n\n", ""));
+        }
+        return sb.toString();
+    }
+
     public SSEDto saveResult(ScanDetail scanDetail, AiRstDto result) {
 
-        // 1️⃣ 전체 AI 결과 JSON (백업 / 디버깅용)
-        Map<String, Object> aiResult = new HashMap<>();
-        aiResult.put("description", result.description());
-        aiResult.put("impact", result.impact());
-        aiResult.put("category", result.category());
-        aiResult.put("beforeCode", result.beforeCode());
-        aiResult.put("afterCode", result.afterCode());
-        aiResult.put("fixSteps", result.fixSteps());
-        aiResult.put("fixComplexity", result.fixComplexity());
-        aiResult.put("references", result.references());
-        aiResult.put("aiModel", result.aiModel());
-        aiResult.put("confidence", result.confidence());
-        aiResult.put("analyzedAt", result.analyzedAt());
-        aiResult.put("rawResponse", result.rawResponse());
-
-        scanDetail.setAiResult(aiResult);
+        // 모델 호출 / 응답 오류의 대체 결과는 저장하지 않는다 (aiAnalyzed 를 그대로 두어 다음 요청에서 다시 분석)
+        if ("FALLBACK".equals(result.source())) {
+            log.warn("AI analysis fell back for scanDetail {}, result not saved: {}",
+                    scanDetail.getId(), result.rawResponse());
+            return toFallbackSseDto(scanDetail, result);
+        }
+
+        // 1️⃣ 원본 응답은 스캔별 세그먼트 파일에 (백업 / 디버깅용, DB 에는 위치만)
+        // 캐시 결과는 처음 분석한 스캔에 이미 기록되어 있으므로 모델 응답만
+        if ("MODEL".equals(result.source())) {
+            rawSegmentStore.appendAiResponse(scanDetail, result.rawResponse());
+        }
+        return saveAnalysis(scanDetail, result);
+    }
 
+    /**
+     * 분석 결과 컬럼 저장 (원본 응답 위치는 호출한 쪽에서 설정)
+     */
+    private SSEDto saveAnalysis(ScanDetail scanDetail, AiRstDto result) {
         // 2️⃣ 컬럼 정규화 저장 (검색 / 필터 / UI용)
         scanDetail.setAiDescription(result.description());
         scanDetail.setAiImpact(result.impact());
@@ -219,12 +446,19 @@ public class AiService {
         scanDetail.setAiModel(result.aiModel());
         scanDetail.setAiConfidence(result.confidence());
         scanDetail.setAiAnalyzedAt(result.analyzedAt());
-        scanDetail.setAiRawResponse(result.rawResponse());
+        scanDetail.setAiSource(result.source());
 
         // 3️⃣ 상태 플래그
         scanDetail.setAiAnalyzed(true);
 
         scanDetailRepository.save(scanDetail);
+        return toAiSseDto(scanDetail);
+    }
+
+    /**
+     * 저장된 AI 분석 컬럼 → AI 이벤트
+     */
+    public static SSEDto toAiSseDto(ScanDetail scanDetail) {
         SSEDto sSEDto = new SSEDto();
         sSEDto.setType(SSE_TYPE.AI.name());
         sSEDto.setScanId(scanDetail.getScanId());
@@ -242,30 +476,191 @@ public class AiService {
         return sSEDto;
     }
 
-    private String extractJsonBlock(String text) {
-        int start = text.indexOf("{");
-        int end = text.lastIndexOf("}");
+    /**
+     * 저장하지 않은 대체 결과 → AI 이벤트 (aiAnalyzed = false)
+     */
+    private static SSEDto toFallbackSseDto(ScanDetail scanDetail, AiRstDto result) {
+        SSEDto sSEDto = new SSEDto();
+        sSEDto.setType(SSE_TYPE.AI.name());
+        sSEDto.setScanId(scanDetail.getScanId());
+        sSEDto.setScanDetailId(String.valueOf(scanDetail.getId()));
+        sSEDto.setName(scanDetail.getName());
+        sSEDto.setDescription(scanDetail.getDescription());
+        sSEDto.setSeverity(scanDetail.getSeverity());
+        sSEDto.setAiAnalyzed(false);
+        sSEDto.setAiDescription(result.description());
+        sSEDto.setAiImpact(result.impact());
+        sSEDto.setAiFixSteps(result.fixSteps());
+        return sSEDto;
+    }
+
+    public SSEDto analyzeScanDetail(String scanDetailId) {
+        ScanDetail scanDetail = scanDetailRepository.findById(Long.parseLong(scanDetailId)).orElseThrow(() -> new IllegalArgumentException("존재하지 않는 scanDetailId: " + scanDetailId));;
+        AiRstDto result = analyze(scanDetail);
+        return saveResult(scanDetail, result);
+    }
 
-        if (start == -1 || end == -1 || end <= start) {
-            throw new IllegalArgumentException("JSON block not found or incomplete");
+    /**
+     * 토큰 스트리밍 분석
+     * 생성 중인 description / fix_steps 를 부분 AI 이벤트로 보내고, 끝나면 최종 결과를 저장해 전송
+     */
+    @Async
+    public void analyzeScanDetailStream(String scanDetailId, SseEmitter emitter) {
+        try {
+            ScanDetail scanDetail = scanDetailRepository.findById(Long.parseLong(scanDetailId))
+                    .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 scanDetailId: " + scanDetailId));
+
+            AiRstDto result = analyzeStreaming(scanDetail, partial -> {
+                try {
+                    emitter.send(SseEmitter.event()
+                            .name("progress")
+                            .data(partial));
+                } catch (IOException e) {
+                    throw new IllegalStateException("SSE send failed", e);
+                }
+            });
+
+            emitter.send(SseEmitter.event()
+                    .name("progress")
+                    .data(saveResult(scanDetail, result)));
+            emitter.complete();
+        } catch (PartialDeliveryException e) {
+            // 클라이언트 연결이 끊기면 모델 스트림을 취소하고 결과를 저장하지 않는다
+            log.info("Streaming AI analysis for {} cancelled: {}", scanDetailId, e.getCause().getMessage());
+            emitter.completeWithError(e.getCause());
+        } catch (Exception e) {
+            log.error("Streaming AI analysis failed for {}", scanDetailId, e);
+            emitter.completeWithError(e);
         }
+    }
 
-        return text.substring(start, end + 1);
+    /**
+     * onPartial 이 실패하면 스트림을 취소하고 PartialDeliveryException 을 던진다
+     * 대체 결과(FALLBACK)는 모델 호출 / 응답 오류일 때만 반환
+     */
+    public AiRstDto analyzeStreaming(ScanDetail scanDetail, Consumer<SSEDto> onPartial) {
+        long startedAt = System.nanoTime();
+        try {
+            AiRstDto result = analyzeStreamingWithCache(scanDetail, onPartial);
+            recordAnalyze("stream", result.source(), analyzeOutcome(result), startedAt);
+            return result;
+        } catch (PartialDeliveryException e) {
+            recordAnalyze("stream", "MODEL", "cancelled", startedAt);
+            throw e;
+        }
     }
 
-    private String normalizeBrokenJson(String json) {
-        // ""key"" → "key"
-        json = json.replaceAll("\"\"([^\"]+)\"\"", "\"$1\"");
+    private AiRstDto analyzeStreamingWithCache(ScanDetail scanDetail, Consumer<SSEDto> onPartial) {
+        String fingerprint = aiAnalysisCache.fingerprint(scanDetail, PROMPT_VERSION);
+        Optional<AiRstDto> cached = aiAnalysisCache.get(fingerprint);
+        if (cached.isPresent()) {
+            return cached.get().withScanDetail(scanDetail.getId(), "CACHE");
+        }
+
+        StringBuilder buffer = new StringBuilder();
+        PartialState state = new PartialState();
 
-        // ""value"" → "value"
-        json = json.replaceAll(":\\s*\"\"([^\"]*)\"\"", ": \"$1\"");
+        try {
+            chatClient.prompt()
+                    .system(SYSTEM_PROMPT)
+                    .user(buildPrompt(scanDetail))
+                    .stream()
+                    .content()
+                    .doOnNext(chunk -> {
+                        buffer.append(chunk);
+                        SSEDto partial = state.next(scanDetail, buffer, streamPartialIntervalMs);
+                        if (partial != null) {
+                            try {
+                                onPartial.accept(partial);
+                            } catch (RuntimeException e) {
+                                throw new PartialDeliveryException(e);
+                            }
+                        }
+                    })
+                    .blockLast(Duration.ofSeconds(streamTimeoutSeconds));
+
+            AiRstDto result = aiResponseParser.parseResponse(scanDetail.getId(), buffer.toString());
+            if (result.confidence() != null && result.confidence() > 0) {
+                aiAnalysisCache.put(fingerprint, scanDetail, PROMPT_VERSION, result);
+            }
+            return result;
 
-        return json;
+        } catch (PartialDeliveryException e) {
+            throw e;
+        } catch (Exception e) {
+            log.warn("AI stream failed for scanDetail {}: {}", scanDetail.getId(), e.getMessage());
+            return defaultAnalysis(scanDetail, e.getMessage());
+        }
     }
 
-    public SSEDto analyzeScanDetail(String scanDetailId) {
-        ScanDetail scanDetail = scanDetailRepository.findById(Long.parseLong(scanDetailId)).orElseThrow(() -> new IllegalArgumentException("존재하지 않는 scanDetailId: " + scanDetailId));;
-        AiRstDto result = analyze(scanDetail);
-        return saveResult(scanDetail, result);
+    /**
+     * 부분 결과 전달 실패 (클라이언트 연결 끊김 등) - 모델 오류와 구분한다
+     */
+    public static class PartialDeliveryException extends RuntimeException {
+        public PartialDeliveryException(Throwable cause) {
+            super(cause);
+        }
+    }
+
+    /**
+     * 미완성 JSON 에서 지금까지 생성된 description / fix_steps 추출
+     */
+    private static class PartialState {
+        private static final Pattern DESCRIPTION = Pattern.compile("\"description\"\\s*:\\s*\"((?:[^\"\\\\]|\\\\.)*)");
+        private static final Pattern FIX_STEPS = Pattern.compile("\"fix_steps\"\\s*:\\s*\\[([^\\]]*)");
+        private static final Pattern JSON_STRING = Pattern.compile("\"((?:[^\"\\\\]|\\\\.)*)\"");
+
+        private String description = "";
+        private List<String> fixSteps = List.of();
+        private long lastSentAt;
+
+        private SSEDto next(ScanDetail scanDetail, CharSequence buffer, long intervalMs) {
+            long now = System.currentTimeMillis();
+            if (now - lastSentAt < intervalMs) {
+                return null;
+            }
+
+            String currentDescription = description;
+            Matcher descriptionMatcher = DESCRIPTION.matcher(buffer);
+            if (descriptionMatcher.find()) {
+                currentDescription = unescape(descriptionMatcher.group(1));
+            }
+
+            List<String> currentFixSteps = fixSteps;
+            Matcher fixStepsMatcher = FIX_STEPS.matcher(buffer);
+            if (fixStepsMatcher.find()) {
+                List<String> steps = new ArrayList<>();
+                Matcher step = JSON_STRING.matcher(fixStepsMatcher.group(1));
+                while (step.find()) {
+                    steps.add(unescape(step.group(1)));
+                }
+                currentFixSteps = steps;
+            }
+
+            if (currentDescription.equals(description) && currentFixSteps.equals(fixSteps)) {
+                return null;
+            }
+
+            description = currentDescription;
+            fixSteps = currentFixSteps;
+            lastSentAt = now;
+
+            SSEDto sseDto = new SSEDto();
+            sseDto.setType(SSE_TYPE.AI.name());
+            sseDto.setScanId(scanDetail.getScanId());
+            sseDto.setScanDetailId(String.valueOf(scanDetail.getId()));
+            sseDto.setName(scanDetail.getName());
+            sseDto.setSeverity(scanDetail.getSeverity());
+            sseDto.setAiPartial(true);
+            sseDto.setAiDescription(description);
+            sseDto.setAiFixSteps(fixSteps);
+            return sseDto;
+        }
+
+        private static String unescape(String value) {
+            return value.replace("\\n", "\n")
+                    .replace("\\\"", "\"")
+                    .replace("\\\\", "\\");
+        }
     }
 }
@@ -1,18 +1,33 @@
 package com.fast.trust.common.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
+/**
+ * 실행기 설정
+ * spring.threads.virtual.enabled=true (JDK 21+) 이면 블로킹 작업(스캔 루프, AI 호출, @Async)을 가상 스레드에서 실행한다
+ * 이때도 nuclei 동시 실행 수는 ScanScheduler 슬롯, AI 동시 호출 수는 ai.pipeline.workers 로 제한된다
+ */
 @Configuration
 @EnableAsync
+@EnableScheduling
 public class AsyncConfig {
 
     @Bean
-    public Executor taskExecutor() {
+    public Executor taskExecutor(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return new VirtualThreadTaskExecutor("async-");
+        }
         ThreadPoolTaskExecutor ex = new ThreadPoolTaskExecutor();
         ex.setCorePoolSize(10);
         ex.setMaxPoolSize(20);
@@ -20,4 +35,83 @@ public class AsyncConfig {
         ex.initialize();
         return ex;
     }
+
+    /**
+     * nuclei 스캔 루프 전용 실행기
+     * 동시 실행 수는 ScanScheduler 슬롯으로 제한되므로 풀 크기를 슬롯 수와 맞춘다
+     */
+    @Bean
+    public Executor scanExecutor(Environment environment,
+                                 @Value("${scan.scheduler.max-concurrent:4}") int maxConcurrent) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            // 슬롯을 얻은 스캔마다 가상 스레드 하나 (readLine / JPA 저장 대기 중에는 캐리어 스레드를 놓아준다)
+            return new VirtualThreadTaskExecutor("scan-");
+        }
+        ThreadPoolTaskExecutor ex = new ThreadPoolTaskExecutor();
+        ex.setCorePoolSize(maxConcurrent);
+        ex.setMaxPoolSize(maxConcurrent);
+        ex.setThreadNamePrefix("scan-");
+        ex.initialize();
+        return ex;
+    }
+
+    /**
+     * ScanDetail 배치 저장 / 저장 후 콜백(SSE FIND, AI 제출) 실행기
+     * 스캔마다 한 번에 한 배치씩 이어서 실행하므로 실행 중인 스캔 수만큼이면 충분하다
+     * 대기열(scan.persist.queue-capacity)이 차면 제출한 스레드에서 실행 → 스캔 스레드가 출력 읽기를 멈춘다
+     */
+    @Bean
+    public Executor scanPersistExecutor(Environment environment,
+                                        @Value("${scan.scheduler.max-concurrent:4}") int maxConcurrent,
+                                        @Value("${scan.persist.queue-capacity:100}") int queueCapacity) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return new VirtualThreadTaskExecutor("scan-persist-");
+        }
+        ThreadPoolTaskExecutor ex = new ThreadPoolTaskExecutor();
+        ex.setCorePoolSize(maxConcurrent);
+        ex.setMaxPoolSize(maxConcurrent);
+        ex.setQueueCapacity(queueCapacity);
+        ex.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        ex.setThreadNamePrefix("scan-persist-");
+        ex.initialize();
+        return ex;
+    }
+
+    /**
+     * SSE 구독자별 전송 실행기 (ScanBroadcast)
+     * 구독자마다 한 번에 하나의 전송 작업, 느린 클라이언트는 자기 작업 스레드만 붙잡는다
+     */
+    @Bean
+    public Executor sseSendExecutor(Environment environment,
+                                    @Value("${scan.events.send-threads:16}") int threads) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return new VirtualThreadTaskExecutor("sse-send-");
+        }
+        ThreadPoolTaskExecutor ex = new ThreadPoolTaskExecutor();
+        ex.setCorePoolSize(threads);
+        ex.setMaxPoolSize(threads);
+        ex.setThreadNamePrefix("sse-send-");
+        ex.initialize();
+        return ex;
+    }
+
+    /**
+     * AI 분석 워커 풀
+     * 제출 수는 AiAnalysisPipeline 이 workers + queue-capacity 개의 허가로 제한한다 (대기열이 넘쳐 거절되지 않도록)
+     */
+    @Bean
+    public Executor aiExecutor(Environment environment,
+                               @Value("${ai.pipeline.workers:4}") int workers,
+                               @Value("${ai.pipeline.queue-capacity:200}") int queueCapacity) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return new BoundedVirtualThreadExecutor("ai-", workers, queueCapacity);
+        }
+        ThreadPoolTaskExecutor ex = new ThreadPoolTaskExecutor();
+        ex.setCorePoolSize(workers);
+        ex.setMaxPoolSize(workers);
+        ex.setQueueCapacity(queueCapacity);
+        ex.setThreadNamePrefix("ai-");
+        ex.initialize();
+        return ex;
+    }
 }
@@ -0,0 +1,52 @@
+package com.fast.trust.common.config;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 작업마다 가상 스레드 하나를 쓰는 실행기
+ * - 동시 실행은 concurrency 개로 제한, 나머지는 세마포어에서 대기 (대기 중에는 플랫폼 스레드를 점유하지 않음)
+ * - 실행 + 대기가 concurrency + queueCapacity 를 넘으면 ThreadPoolTaskExecutor 처럼 TaskRejectedException
+ */
+class BoundedVirtualThreadExecutor implements Executor {
+
+    private final VirtualThreadTaskExecutor delegate;
+    private final Semaphore admitted;
+    private final Semaphore running;
+
+    BoundedVirtualThreadExecutor(String threadNamePrefix, int concurrency, int queueCapacity) {
+        this.delegate = new VirtualThreadTaskExecutor(threadNamePrefix);
+        this.admitted = new Semaphore(concurrency + queueCapacity);
+        this.running = new Semaphore(concurrency);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (!admitted.tryAcquire()) {
+            throw new TaskRejectedException("Executor is full: " + task);
+        }
+        try {
+            delegate.execute(() -> {
+                try {
+                    running.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    admitted.release();
+                    return;
+                }
+                try {
+                    task.run();
+                } finally {
+                    running.release();
+                    admitted.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            admitted.release();
+            throw e;
+        }
+    }
+}
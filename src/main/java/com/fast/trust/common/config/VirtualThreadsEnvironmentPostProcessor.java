@@ -0,0 +1,22 @@
+package com.fast.trust.common.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+/**
+ * spring.threads.virtual.enabled=true (JDK 21+) 이면 Reactor boundedElastic 도 가상 스레드로 실행
+ * MCP 동기 도구 호출(ScanTools)은 boundedElastic 에서 실행되므로, Schedulers 가 초기화되기 전인 이 시점에 설정한다
+ */
+public class VirtualThreadsEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    private static final String REACTOR_VIRTUAL_THREADS = "reactor.schedulers.defaultBoundedElasticOnVirtualThreads";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (Threading.VIRTUAL.isActive(environment) && System.getProperty(REACTOR_VIRTUAL_THREADS) == null) {
+            System.setProperty(REACTOR_VIRTUAL_THREADS, "true");
+        }
+    }
+}
@@ -13,6 +13,8 @@ public enum ExceptionCode {
 
     NOT_FOUND(String.valueOf(HttpStatus.NOT_FOUND.value()), "요청한 페이지를 찾을 수 없습니다."),
 
+    TOO_MANY_REQUESTS(String.valueOf(HttpStatus.TOO_MANY_REQUESTS.value()), "스캔 대기열이 가득 찼습니다. 잠시 후 다시 시도해주세요."),
+
     SERVER_ERROR(String.valueOf(HttpStatus.INTERNAL_SERVER_ERROR.value()), "내부 서버 오류입니다.");
 
     private static final ExceptionCode[] VALUES;
@@ -0,0 +1,14 @@
+package com.fast.trust.common.exception;
+
+import lombok.Getter;
+
+@Getter
+public class ScanQueueFullException extends CommonException {
+
+    private final long retryAfterSeconds;
+
+    public ScanQueueFullException(long retryAfterSeconds) {
+        super(ExceptionCode.TOO_MANY_REQUESTS.getMessage(), ExceptionCode.TOO_MANY_REQUESTS.getCode());
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
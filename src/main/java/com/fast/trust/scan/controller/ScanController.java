@@ -1,17 +1,45 @@
 package com.fast.trust.scan.controller;
 
+import com.fast.trust.common.exception.ScanQueueFullException;
+import com.fast.trust.scan.dto.AffectedTarget;
+import com.fast.trust.scan.dto.BatchScanReqDto;
+import com.fast.trust.scan.dto.FindingItem;
+import com.fast.trust.scan.dto.KeysetPage;
+import com.fast.trust.scan.dto.SSEDto;
+import com.fast.trust.scan.dto.ScanHistoryItem;
+import com.fast.trust.scan.dto.ScanScoreResult;
+import com.fast.trust.scan.service.ReactiveScanService;
+import com.fast.trust.scan.service.RescanService;
+import com.fast.trust.scan.service.ScanQueryService;
 import com.fast.trust.scan.service.ScanService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Flux;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequiredArgsConstructor
@@ -19,33 +47,160 @@ import java.util.Map;
 @Slf4j
 public class ScanController {
     private final ScanService scanService;
+    private final ReactiveScanService reactiveScanService;
+    private final RescanService rescanService;
+    private final ScanQueryService scanQueryService;
+
+    // 배치 / 재스캔 응답 대기 한도 (스캔 최대 시간 + 대기열 대기, 넘기면 503 이고 스캔은 계속 진행되어 이력으로 조회 가능)
+    @Value("${scan.async.response-timeout-minutes:150}")
+    private long responseTimeoutMinutes;
 
     /**
      * SSE를 통한 실시간 스캔
      * GET /api/nuclei/scan/stream?url=https://example.com
      */
     @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public SseEmitter scanWithStream(@RequestParam String url) {
+    public SseEmitter scanWithStream(@RequestParam String url,
+                                     @RequestParam(required = false) String mode,
+                                     @RequestParam(required = false) String templates,
+                                     @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
         log.info("Starting Nuclei scan for URL: {}", url);
 
         SseEmitter emitter = new SseEmitter(600000L); // 5분 타임아웃
 
-        scanService.scanUrlWithStream(url, emitter);
+        scanService.scanUrlWithStream(url, mode, templates, lastEventId, emitter);
 
         return emitter;
     }
 
     @GetMapping(value = "/streamAll", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public SseEmitter streamAll(@RequestParam String url) throws Exception {
+    public SseEmitter streamAll(@RequestParam String url,
+                                @RequestParam(required = false) String mode,
+                                @RequestParam(required = false) String templates,
+                                @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) throws Exception {
         SseEmitter emitter = new SseEmitter(600000L); // 5분 타임아웃
-        scanService.scanUrlWithStreamAi(url, emitter);
+        scanService.scanUrlWithStreamAi(url, mode, templates, lastEventId, emitter);
+        return emitter;
+    }
+
+    /**
+     * 스캔 이벤트 구독 / 재연결 (여러 구독자가 nuclei 실행 하나를 공유)
+     * GET /api/scan/{scanId}/events   (Last-Event-ID 헤더 이후 이벤트부터 재전송)
+     */
+    @GetMapping(value = "/{scanId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@PathVariable String scanId,
+                             @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        SseEmitter emitter = new SseEmitter(600000L);
+        scanService.subscribeEvents(scanId, lastEventId, emitter);
         return emitter;
     }
 
+    /**
+     * 대기 / 실행 중인 스캔 취소 (nuclei 종료, 남은 AI 분석 중단, CANCELLED)
+     * DELETE /api/scan/{scanId}
+     */
+    @DeleteMapping("/{scanId}")
+    public Map<String, Object> cancel(@PathVariable String scanId) {
+        return scanService.cancelScan(scanId);
+    }
+
+    /**
+     * 리액티브 스트림 스캔 (클라이언트가 느리면 진행률은 최신 값만, 연결을 끊으면 스캔 취소)
+     * GET /api/scan/reactive?url=https://example.com
+     */
+    @GetMapping(value = "/reactive", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<SSEDto>> reactive(@RequestParam String url,
+                                                  @RequestParam(required = false) String mode,
+                                                  @RequestParam(required = false) String templates) {
+        log.info("Starting reactive Nuclei scan for URL: {}", url);
+        return reactiveScanService.scan(url, mode, templates);
+    }
+
     @GetMapping("/mcpAll")
-    public Map<String, Object> mcpAll(@RequestParam String url) throws Exception {
+    public Map<String, Object> mcpAll(@RequestParam String url,
+                                      @RequestParam(required = false) String mode) throws Exception {
         // scanService.mcpAll(url) → Map<String,Object> 리턴
-        return scanService.mcpAll(url);
+        return scanService.mcpAll(url, mode);
+    }
+
+    /**
+     * 다중 대상 배치 스캔 (nuclei -l 한 번 실행)
+     * POST /api/scan/batch {"targetUrls": ["https://a.com", "https://b.com"], "mode": "critical-fast"}
+     * 스캔이 끝나면 응답 (요청 스레드는 기다리는 동안 반환된다)
+     */
+    @PostMapping("/batch")
+    public DeferredResult<Map<String, Object>> batch(@RequestBody BatchScanReqDto req) {
+        return deferred(scanService.scanBatch(req.targetUrls(), req.mode(), req.templates()));
+    }
+
+    /**
+     * 이전 결과 기반 재스캔 (이전에 결과가 나온 템플릿 + 새 / 변경 템플릿만, 전체 스캔은 일정에 따라)
+     * POST /api/scan/rescan?url=https://example.com&mode=full&full=false
+     * → new / resolved / unchanged (스캔이 끝나면 응답, 요청 스레드는 기다리는 동안 반환된다)
+     */
+    @PostMapping("/rescan")
+    public DeferredResult<Map<String, Object>> rescan(@RequestParam String url,
+                                                      @RequestParam(required = false) String mode,
+                                                      @RequestParam(defaultValue = "false") boolean full) {
+        return deferred(rescanService.rescan(url, mode, full));
+    }
+
+    /**
+     * 스캔 이력 (최신순, 다음 페이지는 nextCursor 전달)
+     * GET /api/scan/history?url=https://example.com&status=COMPLETED&from=2025-01-01T00:00:00&size=50
+     */
+    @GetMapping("/history")
+    public KeysetPage<ScanHistoryItem> history(@RequestParam(required = false) String url,
+                                               @RequestParam(required = false) String status,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(defaultValue = "50") int size) {
+        return scanQueryService.history(url, status, from, to, cursor, size);
+    }
+
+    /**
+     * 결과 검색 (최신순, 다음 페이지는 nextCursor 전달)
+     * GET /api/scan/findings?url=https://example.com&severity=high&templateId=CVE-2021-44228&aiAnalyzed=false
+     */
+    @GetMapping("/findings")
+    public KeysetPage<FindingItem> findings(@RequestParam(required = false) String scanId,
+                                            @RequestParam(required = false) String url,
+                                            @RequestParam(required = false) String severity,
+                                            @RequestParam(required = false) String templateId,
+                                            @RequestParam(required = false) Boolean aiAnalyzed,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "50") int size) {
+        return scanQueryService.findings(scanId, url, severity, templateId, aiAnalyzed, from, to, cursor, size);
+    }
+
+    /**
+     * 결과 원본 (nuclei JSON / AI 원본 응답)
+     * GET /api/scan/findings/123/raw
+     */
+    @GetMapping("/findings/{scanDetailId}/raw")
+    public Map<String, Object> raw(@PathVariable Long scanDetailId) {
+        return scanQueryService.raw(scanDetailId);
+    }
+
+    /**
+     * 템플릿이 현재 영향을 주는 대상 (대상 / 프로필별 가장 최근 완료 스캔 기준)
+     * GET /api/scan/templates/CVE-2021-44228/targets
+     */
+    @GetMapping("/templates/{templateId}/targets")
+    public List<AffectedTarget> affectedTargets(@PathVariable String templateId) {
+        return scanQueryService.affectedTargets(templateId);
+    }
+
+    /**
+     * 과거 스캔 점수 재계산 (DB 집계)
+     * POST /api/scan/{scanId}/rescore
+     */
+    @PostMapping("/{scanId}/rescore")
+    public ScanScoreResult rescore(@PathVariable String scanId) {
+        return scanService.recalculateScore(scanId);
     }
 
     /**
@@ -62,4 +217,28 @@ public class ScanController {
                     .body(Map.of("error", e.getMessage()));
         }
     }
+
+    private DeferredResult<Map<String, Object>> deferred(CompletableFuture<Map<String, Object>> future) {
+        DeferredResult<Map<String, Object>> result = new DeferredResult<>(responseTimeoutMinutes * 60 * 1000);
+        future.whenComplete((response, ex) -> {
+            if (ex != null) {
+                result.setErrorResult(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+            } else {
+                result.setResult(response);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 스캔 대기열 초과 시 429 + Retry-After
+     * SSE 요청도 처리할 수 있도록 본문 없이 응답한다
+     */
+    @ExceptionHandler(ScanQueueFullException.class)
+    public ResponseEntity<Void> handleScanQueueFull(ScanQueueFullException e) {
+        log.warn("Scan rejected: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .build();
+    }
 }
@@ -0,0 +1,12 @@
+package com.fast.trust.scan.dto;
+
+import java.time.LocalDateTime;
+
+// 템플릿별 영향 대상 (대상 / 프로필별 가장 최근 완료 스캔 기준)
+public record AffectedTarget(
+        String targetUrl,
+        String scanProfile,
+        String scanId,
+        LocalDateTime completedAt,
+        Long findingCount
+) {}
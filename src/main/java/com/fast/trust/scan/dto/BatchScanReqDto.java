@@ -0,0 +1,12 @@
+package com.fast.trust.scan.dto;
+
+import java.util.List;
+
+public record BatchScanReqDto(
+        // 스캔할 대상 URL 목록 (한 번의 nuclei -l 실행으로 처리)
+        List<String> targetUrls,
+        // 스캔 프로필 (예: "full", "critical", "critical-fast", 없으면 기본 프로필)
+        String mode,
+        // 선택 사항: 쉼표로 구분한 템플릿 ID
+        String templates
+) {}
@@ -0,0 +1,18 @@
+package com.fast.trust.scan.dto;
+
+import java.time.LocalDateTime;
+
+// 결과 조회용 (AI 분석 본문 / 원본 위치 등은 읽지 않음)
+public record FindingItem(
+        Long id,
+        String scanId,
+        String targetUrl,
+        String templateId,
+        String name,
+        String severity,
+        String matchedAt,
+        boolean highRiskInfo,
+        boolean aiAnalyzed,
+        String aiCategory,
+        LocalDateTime scannedAt
+) {}
@@ -0,0 +1,9 @@
+package com.fast.trust.scan.dto;
+
+import java.util.List;
+
+public record KeysetPage<T>(
+        List<T> items,
+        // 다음 페이지 요청에 그대로 전달 (마지막 페이지면 null)
+        String nextCursor
+) {}
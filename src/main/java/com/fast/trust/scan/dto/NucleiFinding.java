@@ -0,0 +1,27 @@
+package com.fast.trust.scan.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public record NucleiFinding(
+        // nuclei template-id
+        String templateId,
+        // info.name
+        String name,
+        // info.severity
+        String severity,
+        // info.description
+        String description,
+        // 발견 위치
+        String matchedAt,
+        // 입력 대상 (배치 스캔 결과 분배용)
+        String host,
+        // info.tags
+        List<String> tags,
+        // extracted-results (최대 10개로 잘림)
+        List<String> extractedResults,
+        // 잘리기 전 extracted-results 개수
+        int extractedResultsCount,
+        // request / response 를 제외한 원본 (jsonb 저장용)
+        Map<String, Object> fullResult
+) {}
@@ -0,0 +1,39 @@
+package com.fast.trust.scan.dto;
+
+/**
+ * nuclei 출력 한 줄의 파싱 결과
+ */
+public record NucleiLine(
+        Kind kind,
+        // kind == FINDING
+        NucleiFinding finding,
+        // kind == PROGRESS (-stats 출력의 percent)
+        String percent,
+        // kind == TEXT
+        String text
+) {
+    public enum Kind {
+        FINDING,
+        PROGRESS,
+        TEXT,
+        EMPTY
+    }
+
+    private static final NucleiLine EMPTY_LINE = new NucleiLine(Kind.EMPTY, null, null, null);
+
+    public static NucleiLine finding(NucleiFinding finding) {
+        return new NucleiLine(Kind.FINDING, finding, null, null);
+    }
+
+    public static NucleiLine progress(String percent) {
+        return new NucleiLine(Kind.PROGRESS, null, percent, null);
+    }
+
+    public static NucleiLine text(String text) {
+        return new NucleiLine(Kind.TEXT, null, null, text);
+    }
+
+    public static NucleiLine empty() {
+        return EMPTY_LINE;
+    }
+}
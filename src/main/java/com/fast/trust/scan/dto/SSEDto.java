@@ -11,11 +11,16 @@ public class SSEDto {
     private String type;
     private String name;
     private String percent;
+    private Integer queuePosition;
     private String severity;
     private Integer score;
     private String grade;
     private String description;
     private boolean aiAnalyzed;
+    // TTL 내 이전 스캔 결과를 재전송한 경우
+    private boolean reused;
+    // 스트리밍 중인 부분 AI 결과
+    private boolean aiPartial;
     private String aiDescription;
     private String aiAfterCode;
     private String aiBeforeCode;
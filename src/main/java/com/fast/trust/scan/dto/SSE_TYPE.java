@@ -1,9 +1,12 @@
 package com.fast.trust.scan.dto;
 
 public enum SSE_TYPE {
+    QUEUE,
     START,
     FIND,
     PROGRESS,
     AI,
-    END
+    END,
+    ERROR,
+    CANCELLED
 }
@@ -0,0 +1,23 @@
+package com.fast.trust.scan.dto;
+
+import java.time.LocalDateTime;
+
+// 스캔 이력 조회용 (ScanMaster 의 조회 컬럼 + nuclei 자원 사용량)
+public record ScanHistoryItem(
+        String scanId,
+        String targetUrl,
+        String scanProfile,
+        String scanType,
+        String status,
+        Integer score,
+        String grade,
+        LocalDateTime createdAt,
+        LocalDateTime completedAt,
+        Long cpuMillis,
+        Long peakRssKb,
+        Long ioReadBytes,
+        Long ioWriteBytes,
+        Long wallMillis,
+        Integer lineCount,
+        Integer findingCount
+) {}
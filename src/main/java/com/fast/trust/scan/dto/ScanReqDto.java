@@ -3,8 +3,8 @@ package com.fast.trust.scan.dto;
 public record ScanReqDto(
         // 스캔할 대상 URL (예: https://example.com)
         String targetUrl,
-        // 스캔 모드 (예: "full", "critical")
+        // 스캔 모드 = 스캔 프로필 이름 (예: "full", "critical", "critical-fast", ScanProfiles 참고)
          String mode,
-         // 선택 사항: 특정 템플릿만 지정하고 싶은 경우
+         // 선택 사항: 특정 템플릿만 지정하고 싶은 경우 (쉼표로 구분한 템플릿 ID)
          String templates
 ) {}
@@ -0,0 +1,6 @@
+package com.fast.trust.scan.dto;
+
+public record SeverityCount(
+        String severity,
+        Long count
+) {}
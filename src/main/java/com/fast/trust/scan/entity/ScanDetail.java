@@ -15,10 +15,19 @@ import java.util.Map;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "scan_detail")
+@Table(name = "scan_detail", indexes = {
+        // 스캔별 결과 / keyset 페이지 (id 순)
+        @Index(name = "idx_scan_detail_scan_id_id", columnList = "scan_id, id"),
+        // 템플릿별 영향 대상 조회
+        @Index(name = "idx_scan_detail_template_scan", columnList = "template_id, scan_id"),
+        @Index(name = "idx_scan_detail_severity_id", columnList = "severity, id"),
+        @Index(name = "idx_scan_detail_ai_analyzed_id", columnList = "ai_analyzed, id")
+})
 public class ScanDetail {
+    // IDENTITY 는 JDBC 배치를 막으므로 pooled sequence 사용
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "scan_detail_seq")
+    @SequenceGenerator(name = "scan_detail_seq", sequenceName = "scan_detail_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "scan_id", nullable = false)
@@ -36,11 +45,26 @@ public class ScanDetail {
     @Column(name = "matched_at")
     private String matchedAt;
 
-    // Nuclei 스캔 원본 결과 (jsonb)
-    @JdbcTypeCode(SqlTypes.JSON)
-    @Column(name = "full_result", columnDefinition = "jsonb")
+    // Nuclei 스캔 원본 결과 (저장 시 RawSegmentStore 로 기록, DB 에는 offset / length 만)
+    @Transient
     private Map<String, Object> fullResult;
 
+    @Column(name = "raw_offset")
+    private Long rawOffset;
+
+    // 압축된 레코드 길이
+    @Column(name = "raw_length")
+    private Integer rawLength;
+
+    // 세그먼트 기록에 실패한 경우에만 원본을 행에 보관 (raw_offset 은 null)
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "raw_inline", columnDefinition = "jsonb")
+    private Map<String, Object> rawInline;
+
+    // 재스캔 비교용 (fullResult 의 matcher-name)
+    @Column(name = "matcher_name")
+    private String matcherName;
+
     // 추출된 데이터 (extractedResults)
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "extracted_results", columnDefinition = "jsonb")
@@ -51,11 +75,6 @@ public class ScanDetail {
     @Column(name = "tags", columnDefinition = "jsonb")
     private List<String> tags;
 
-    // AI 분석 결과
-    @JdbcTypeCode(SqlTypes.JSON)
-    @Column(name = "ai_result", columnDefinition = "jsonb")
-    private Map<String, Object> aiResult;
-
     @Column(name = "ai_analyzed")
     private boolean aiAnalyzed = false;
 
@@ -97,9 +116,17 @@ public class ScanDetail {
     @Column(name = "ai_confidence")
     private Double aiConfidence;
 
+    // MODEL | CACHE | FALLBACK
+    @Column(name = "ai_source")
+    private String aiSource;
+
     @Column(name = "ai_analyzed_at")
     private LocalDateTime aiAnalyzedAt;
 
-    @Column(name = "ai_raw_response", columnDefinition = "text")
-    private String aiRawResponse;
+    // AI 원본 응답 (RawSegmentStore, DB 에는 offset / length 만)
+    @Column(name = "ai_raw_offset")
+    private Long aiRawOffset;
+
+    @Column(name = "ai_raw_length")
+    private Integer aiRawLength;
 }
\ No newline at end of file
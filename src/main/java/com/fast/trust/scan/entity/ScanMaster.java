@@ -3,6 +3,7 @@ package com.fast.trust.scan.entity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -12,7 +13,14 @@ import java.time.LocalDateTime;
 
 @Entity
 @Getter
-@Table(name = "scan_master") // 테이블 이름 명시
+@Table(name = "scan_master", indexes = { // 테이블 이름 명시
+        // 결과 재사용 / 재스캔 기준 / 템플릿별 최신 스캔 조회
+        @Index(name = "idx_scan_master_target_profile_status_completed",
+                columnList = "target_url, scan_profile, status, completed_at"),
+        // 스캔 이력 keyset 페이지 (대상별 / 전체)
+        @Index(name = "idx_scan_master_target_created", columnList = "target_url, created_at, id"),
+        @Index(name = "idx_scan_master_created", columnList = "created_at, id")
+})
 @NoArgsConstructor
 public class ScanMaster {
     @Id
@@ -41,9 +49,56 @@ public class ScanMaster {
     @Setter
     private String grade;
 
+    // 적용된 스캔 프로필 (ScanOptions.key, 결과 재사용 구분)
+    @Column(name = "scan_profile")
+    private String scanProfile;
+
+    // 실행 시 배정된 nuclei 동시성 / 요청률 인자 (NucleiGovernor)
+    @Column(name = "nuclei_flags")
+    @Setter
+    private String nucleiFlags;
+
+    // FULL | INCREMENTAL (null 은 이전 버전의 전체 스캔)
+    @Column(name = "scan_type")
+    @Setter
+    private String scanType;
+
+    // 증분 재스캔이 비교한 이전 스캔
+    @Column(name = "baseline_scan_id")
+    @Setter
+    private String baselineScanId;
+
+    // nuclei 프로세스 자원 사용량 (NucleiResourceSampler, 배치 실행이면 대상들이 같은 값)
+    @Column(name = "cpu_millis")
+    private Long cpuMillis;
+
+    @Column(name = "peak_rss_kb")
+    private Long peakRssKb;
+
+    @Column(name = "io_read_bytes")
+    private Long ioReadBytes;
+
+    @Column(name = "io_write_bytes")
+    private Long ioWriteBytes;
+
+    @Column(name = "wall_millis")
+    private Long wallMillis;
+
+    // nuclei 출력 줄 수 (프로세스 전체) / 이 대상의 결과 수
+    @Column(name = "line_count")
+    private Integer lineCount;
+
+    @Column(name = "finding_count")
+    private Integer findingCount;
+
     public ScanMaster(String id, String targetUrl) {
+        this(id, targetUrl, null);
+    }
+
+    public ScanMaster(String id, String targetUrl, String scanProfile) {
         this.id = id;
         this.targetUrl = targetUrl;
+        this.scanProfile = scanProfile;
         this.status = "PROCESSING";
         this.createdAt = LocalDateTime.now();
     }
@@ -57,4 +112,38 @@ public class ScanMaster {
         this.status = "ERROR";
         this.errorMessage = message;
     }
+
+    /**
+     * 프로필 제한 시간(max-duration)을 넘겨 중단 (그때까지의 결과 / 점수는 저장, 결과 재사용 대상 아님)
+     */
+    public void timeOut(String reason) {
+        this.status = "TIMED_OUT";
+        this.errorMessage = reason;
+        this.completedAt = LocalDateTime.now();
+    }
+
+    /**
+     * 자원 상한 초과로 중단 (그때까지의 결과 / 점수는 저장, 결과 재사용 대상 아님)
+     */
+    public void stopOnResourceLimit(String reason) {
+        this.status = "RESOURCE_LIMIT";
+        this.errorMessage = reason;
+        this.completedAt = LocalDateTime.now();
+    }
+
+    public void recordResources(long cpuMillis, long peakRssKb, long ioReadBytes, long ioWriteBytes,
+                                long wallMillis, int lineCount, int findingCount) {
+        this.cpuMillis = cpuMillis;
+        this.peakRssKb = peakRssKb;
+        this.ioReadBytes = ioReadBytes;
+        this.ioWriteBytes = ioWriteBytes;
+        this.wallMillis = wallMillis;
+        this.lineCount = lineCount;
+        this.findingCount = findingCount;
+    }
+
+    public void cancel() {
+        this.status = "CANCELLED";
+        this.completedAt = LocalDateTime.now();
+    }
 }
@@ -0,0 +1,46 @@
+package com.fast.trust.scan.repository;
+
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 값이 있는 조건만 where 절에 넣는 JPQL 조건 모음
+ * (:x is null or col = :x) 형태는 Postgres 에서 모든 조합이 같은 generic plan 이 되어 복합 인덱스를 못 타므로 쓰지 않는다
+ */
+final class JpqlWhere {
+
+    private final List<String> conditions = new ArrayList<>();
+    private final Map<String, Object> parameters = new LinkedHashMap<>();
+
+    /**
+     * value 가 null 이면 조건을 넣지 않는다
+     */
+    JpqlWhere and(String condition, String name, Object value) {
+        if (value != null) {
+            conditions.add(condition);
+            parameters.put(name, value);
+        }
+        return this;
+    }
+
+    /**
+     * 바로 앞 조건에 필요한 추가 파라미터 (조건이 들어간 경우에만 호출)
+     */
+    JpqlWhere param(String name, Object value) {
+        parameters.put(name, value);
+        return this;
+    }
+
+    String clause() {
+        return conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions);
+    }
+
+    <T> TypedQuery<T> bind(TypedQuery<T> query) {
+        parameters.forEach(query::setParameter);
+        return query;
+    }
+}
@@ -1,12 +1,72 @@
 package com.fast.trust.scan.repository;
 
 
+import com.fast.trust.scan.dto.AffectedTarget;
+import com.fast.trust.scan.dto.SeverityCount;
+import com.fast.trust.scan.dto.TemplateCount;
 import com.fast.trust.scan.entity.ScanDetail;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface ScanDetailRepository extends JpaRepository<ScanDetail, Long> {
+public interface ScanDetailRepository extends JpaRepository<ScanDetail, Long>, ScanDetailRepositoryCustom {
 
     List<ScanDetail> findByScanId(String scanId);
-}
\ No newline at end of file
+
+    // MCP scan_result 페이지 조회 (저장 순서)
+    Page<ScanDetail> findByScanIdOrderByIdAsc(String scanId, Pageable pageable);
+
+    long countByScanId(String scanId);
+
+    // 증분 재스캔: 이전 스캔에서 결과가 나온 템플릿
+    @Query("select distinct d.templateId from ScanDetail d where d.scanId = :scanId and d.templateId is not null")
+    List<String> findDistinctTemplateIds(@Param("scanId") String scanId);
+
+    // 점수 재계산용 집계 (엔티티 / jsonb 컬럼을 읽지 않음)
+    @Query("select new com.fast.trust.scan.dto.SeverityCount(lower(coalesce(d.severity, 'info')), count(d)) " +
+            "from ScanDetail d where d.scanId = :scanId " +
+            "group by lower(coalesce(d.severity, 'info'))")
+    List<SeverityCount> countBySeverity(@Param("scanId") String scanId);
+
+    @Query("select new com.fast.trust.scan.dto.TemplateCount(lower(d.templateId), count(d)) " +
+            "from ScanDetail d where d.scanId = :scanId and lower(coalesce(d.severity, 'info')) = 'info' " +
+            "group by lower(d.templateId)")
+    List<TemplateCount> countInfoByTemplate(@Param("scanId") String scanId);
+
+    // 템플릿이 현재 영향을 주는 대상: 대상 / 프로필별 가장 최근 완료 스캔에 그 템플릿 결과가 있는 경우
+    @Query("select new com.fast.trust.scan.dto.AffectedTarget(m.targetUrl, m.scanProfile, m.id, m.completedAt, count(d)) " +
+            "from ScanDetail d join ScanMaster m on m.id = d.scanId " +
+            "where d.templateId = :templateId and m.status = 'COMPLETED' " +
+            "and m.completedAt = (select max(latest.completedAt) from ScanMaster latest " +
+            "where latest.targetUrl = m.targetUrl and coalesce(latest.scanProfile, '') = coalesce(m.scanProfile, '') " +
+            "and latest.status = 'COMPLETED') " +
+            "group by m.targetUrl, m.scanProfile, m.id, m.completedAt " +
+            "order by m.targetUrl")
+    List<AffectedTarget> findAffectedTargets(@Param("templateId") String templateId);
+
+    // 세그먼트 저장 이전 행의 원본 (매핑하지 않는 이전 컬럼, 새로 만든 DB 에는 컬럼이 없을 수 있음)
+    @Query(value = "select cast(d.full_result as text) as fullResult, " +
+            "coalesce(d.ai_raw_response, d.ai_result ->> 'rawResponse') as aiRawResponse " +
+            "from scan_detail d where d.id = :id", nativeQuery = true)
+    Optional<LegacyRaw> findLegacyRaw(@Param("id") Long id);
+
+    // 보관 기간이 지난 스캔 정리
+    @Transactional
+    @Modifying
+    @Query("delete from ScanDetail d where d.scanId in :scanIds")
+    int deleteByScanIdIn(@Param("scanIds") Collection<String> scanIds);
+
+    interface LegacyRaw {
+        String getFullResult();
+
+        String getAiRawResponse();
+    }
+}
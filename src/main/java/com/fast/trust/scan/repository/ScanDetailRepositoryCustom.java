@@ -0,0 +1,15 @@
+package com.fast.trust.scan.repository;
+
+import com.fast.trust.scan.dto.FindingItem;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ScanDetailRepositoryCustom {
+
+    // 결과 검색 (id 역순 keyset, 첫 페이지는 cursor 가 null, null 인 조건은 제외)
+    List<FindingItem> searchFindings(String scanId, String targetUrl, String severity, String templateId,
+                                     Boolean aiAnalyzed, LocalDateTime from, LocalDateTime to, Long cursor,
+                                     Pageable pageable);
+}
@@ -0,0 +1,42 @@
+package com.fast.trust.scan.repository;
+
+import com.fast.trust.scan.dto.FindingItem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * ScanDetailRepository 동적 조회 (설정된 조건만 where 절에)
+ * scanId / severity / aiAnalyzed 조건은 각각 (조건, id) 복합 인덱스로 id 역순을 그대로 읽는다
+ */
+class ScanDetailRepositoryCustomImpl implements ScanDetailRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<FindingItem> searchFindings(String scanId, String targetUrl, String severity, String templateId,
+                                            Boolean aiAnalyzed, LocalDateTime from, LocalDateTime to, Long cursor,
+                                            Pageable pageable) {
+        JpqlWhere where = new JpqlWhere()
+                .and("d.scanId = :scanId", "scanId", scanId)
+                .and("m.targetUrl = :targetUrl", "targetUrl", targetUrl)
+                .and("d.severity = :severity", "severity", severity)
+                .and("d.templateId = :templateId", "templateId", templateId)
+                .and("d.aiAnalyzed = :aiAnalyzed", "aiAnalyzed", aiAnalyzed)
+                .and("m.createdAt >= :from", "from", from)
+                .and("m.createdAt < :to", "to", to)
+                .and("d.id < :cursor", "cursor", cursor);
+
+        String jpql = "select new com.fast.trust.scan.dto.FindingItem(d.id, d.scanId, m.targetUrl, d.templateId, d.name, " +
+                "d.severity, d.matchedAt, d.highRiskInfo, d.aiAnalyzed, d.aiCategory, m.createdAt) " +
+                "from ScanDetail d join ScanMaster m on m.id = d.scanId" + where.clause() +
+                " order by d.id desc";
+        return where.bind(entityManager.createQuery(jpql, FindingItem.class))
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+}
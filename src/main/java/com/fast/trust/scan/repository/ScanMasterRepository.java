@@ -2,7 +2,33 @@ package com.fast.trust.scan.repository;
 
 
 import com.fast.trust.scan.entity.ScanMaster;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface ScanMasterRepository extends JpaRepository<ScanMaster, String> {
-}
\ No newline at end of file
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ScanMasterRepository extends JpaRepository<ScanMaster, String>, ScanMasterRepositoryCustom {
+
+    // 결과 재사용: 같은 대상 / 같은 프로필의 가장 최근 완료 스캔
+    Optional<ScanMaster> findFirstByTargetUrlAndScanProfileAndStatusAndCompletedAtAfterOrderByCompletedAtDesc(
+            String targetUrl, String scanProfile, String status, LocalDateTime completedAfter);
+
+    // 재스캔 비교 기준: 같은 대상 / 같은 프로필의 가장 최근 완료 스캔 (전체 / 증분 무관)
+    Optional<ScanMaster> findFirstByTargetUrlAndScanProfileAndStatusOrderByCompletedAtDesc(
+            String targetUrl, String scanProfile, String status);
+
+    // 마지막 전체 스캔 (scan_type 이 없는 이전 스캔도 전체 스캔)
+    @Query("select m from ScanMaster m where m.targetUrl = :targetUrl and m.scanProfile = :scanProfile " +
+            "and m.status = 'COMPLETED' and coalesce(m.scanType, 'FULL') = 'FULL' order by m.completedAt desc")
+    List<ScanMaster> findLatestFullScans(@Param("targetUrl") String targetUrl,
+                                         @Param("scanProfile") String scanProfile,
+                                         Pageable pageable);
+
+    // 보관 기간이 지난 스캔 (오래된 순)
+    @Query("select m.id from ScanMaster m where m.createdAt < :cutoff order by m.createdAt")
+    List<String> findIdsCreatedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+}
@@ -0,0 +1,14 @@
+package com.fast.trust.scan.repository;
+
+import com.fast.trust.scan.dto.ScanHistoryItem;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ScanMasterRepositoryCustom {
+
+    // 스캔 이력 (생성 시각 → id 역순 keyset, 첫 페이지는 cursor 가 null, null 인 조건은 제외)
+    List<ScanHistoryItem> findHistory(String targetUrl, String status, LocalDateTime from, LocalDateTime to,
+                                      LocalDateTime cursorCreatedAt, String cursorId, Pageable pageable);
+}
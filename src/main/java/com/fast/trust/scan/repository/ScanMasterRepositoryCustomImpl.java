@@ -0,0 +1,43 @@
+package com.fast.trust.scan.repository;
+
+import com.fast.trust.scan.dto.ScanHistoryItem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * ScanMasterRepository 동적 조회 (설정된 조건만 where 절에)
+ * 대상 지정 시 idx_scan_master_target_created, 아니면 idx_scan_master_created 순서로 읽는다
+ */
+class ScanMasterRepositoryCustomImpl implements ScanMasterRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ScanHistoryItem> findHistory(String targetUrl, String status, LocalDateTime from, LocalDateTime to,
+                                             LocalDateTime cursorCreatedAt, String cursorId, Pageable pageable) {
+        JpqlWhere where = new JpqlWhere()
+                .and("m.targetUrl = :targetUrl", "targetUrl", targetUrl)
+                .and("m.status = :status", "status", status)
+                .and("m.createdAt >= :from", "from", from)
+                .and("m.createdAt < :to", "to", to);
+        if (cursorCreatedAt != null) {
+            where.and("(m.createdAt < :cursorCreatedAt or (m.createdAt = :cursorCreatedAt and m.id < :cursorId))",
+                            "cursorCreatedAt", cursorCreatedAt)
+                    .param("cursorId", cursorId);
+        }
+
+        String jpql = "select new com.fast.trust.scan.dto.ScanHistoryItem(m.id, m.targetUrl, m.scanProfile, m.scanType, " +
+                "m.status, m.score, m.grade, m.createdAt, m.completedAt, " +
+                "m.cpuMillis, m.peakRssKb, m.ioReadBytes, m.ioWriteBytes, m.wallMillis, m.lineCount, m.findingCount) " +
+                "from ScanMaster m" + where.clause() +
+                " order by m.createdAt desc, m.id desc";
+        return where.bind(entityManager.createQuery(jpql, ScanHistoryItem.class))
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+}
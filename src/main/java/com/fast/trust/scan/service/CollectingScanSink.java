@@ -0,0 +1,64 @@
+package com.fast.trust.scan.service;
+
+import com.fast.trust.scan.entity.ScanDetail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 결과를 메모리에 모아 한 번에 응답하는 sink (MCP 도구용)
+ */
+public class CollectingScanSink implements ScanSink {
+
+    private final List<ScanDetail> findings = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public void onFinding(ScanDetail detail) {
+        findings.add(detail);
+    }
+
+    public List<ScanDetail> getFindings() {
+        synchronized (findings) {
+            return new ArrayList<>(findings);
+        }
+    }
+
+    /**
+     * MCP 응답 형식 (scan_url 도구 / GET /api/scan/mcpAll)
+     */
+    public Map<String, Object> toResponse(ScanPipeline.Result result) {
+        Map<String, Object> response = new HashMap<>();
+        if (result.failed()) {
+            response.put("status", result.cancelled() ? "CANCELLED" : "ERROR");
+            response.put("message", result.error().getMessage());
+            return response;
+        }
+
+        ScanPipeline.TargetResult target = result.single();
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (ScanDetail detail : getFindings()) {
+            results.add(toMcpFinding(detail));
+        }
+
+        response.put("status", result.timedOut() ? "TIMED_OUT" : "DONE");
+        response.put("scanId", target.scanMaster().getId());
+        response.put("url", target.scanMaster().getTargetUrl());
+        response.put("totalFindings", target.findingCount());
+        response.put("grade", target.score().grade());
+        response.put("score", target.score().score());
+        response.put("results", results);
+        return response;
+    }
+
+    static Map<String, Object> toMcpFinding(ScanDetail detail) {
+        Map<String, Object> find = new HashMap<>();
+        find.put("name", detail.getName());
+        find.put("severity", detail.getSeverity());
+        find.put("description", detail.getDescription());
+        find.put("matched", detail.getMatchedAt());
+        return find;
+    }
+}
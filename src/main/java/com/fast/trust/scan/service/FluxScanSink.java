@@ -0,0 +1,144 @@
+package com.fast.trust.scan.service;
+
+import com.fast.trust.scan.dto.SSEDto;
+import com.fast.trust.scan.dto.SSE_TYPE;
+import com.fast.trust.scan.dto.ScanScoreResult;
+import com.fast.trust.scan.entity.ScanDetail;
+import com.fast.trust.scan.entity.ScanMaster;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 스캔 이벤트를 Flux&lt;ServerSentEvent&lt;SSEDto&gt;&gt; 로 내보내는 sink (리액티브 스트림)
+ * - init / FIND 는 버리지 않고 bufferSize 개까지만 보관 (merge 가 미리 받는 1건 제외), 가득 차면 클라이언트가 읽을 때까지 emit 하는 저장 스레드가 기다린다
+ *   → 저장이 밀리면 ScanDetailWriter 가 nuclei 출력을 읽는 스캔 스레드를 멈춘다 (stdout 까지 backpressure)
+ * - stallTimeout 동안 자리가 나지 않으면 스트림을 오류로 끝낸다 (ReactiveScanService 가 스캔 취소)
+ * - 대기열 순번 / 진행률은 클라이언트가 느리면 최신 값만 유지 (conflate)
+ * 종료 이벤트(complete / error / cancelled)는 ReactiveScanService 가 파이프라인 결과로 이어 붙인다
+ */
+@Slf4j
+public class FluxScanSink implements ScanSink {
+
+    // 여러 스레드(스캔 루프 / 저장 워커)에서 emit 할 때의 경합 재시도
+    private static final Sinks.EmitFailureHandler RETRY = Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(1));
+
+    private final Sinks.Many<ServerSentEvent<SSEDto>> events = Sinks.many().unicast().onBackpressureBuffer();
+    private final Sinks.Many<ServerSentEvent<SSEDto>> progress = Sinks.many().unicast().onBackpressureBuffer();
+    // 정체 시 버퍼에 남은 이벤트보다 먼저 오류를 보내기 위한 신호
+    private final Sinks.Empty<ServerSentEvent<SSEDto>> stalled = Sinks.empty();
+    // events 버퍼의 남은 자리 (구독자에게 넘어가면 반납)
+    private final Semaphore capacity;
+    private final int bufferSize;
+    private final Duration stallTimeout;
+    private volatile boolean closed;
+
+    public FluxScanSink(int bufferSize, Duration stallTimeout) {
+        this.capacity = new Semaphore(bufferSize);
+        this.bufferSize = bufferSize;
+        this.stallTimeout = stallTimeout;
+    }
+
+    /**
+     * 발견 / 진행률 이벤트 (파이프라인이 끝나 complete 되면 완료)
+     * prefetch 1: 진행률이 merge 내부 큐에 쌓이지 않고 onBackpressureLatest 에서 합쳐지도록
+     */
+    public Flux<ServerSentEvent<SSEDto>> asFlux() {
+        return Flux.merge(1, events.asFlux().doOnNext(event -> capacity.release()),
+                        progress.asFlux().onBackpressureLatest(), stalled.asMono())
+                .doFinally(signal -> close());
+    }
+
+    /**
+     * 대기열 순번 (슬롯 대기 중)
+     */
+    public void onQueuePosition(int position) {
+        SSEDto sseDto = new SSEDto();
+        sseDto.setType(SSE_TYPE.QUEUE.name());
+        sseDto.setQueuePosition(position);
+        progress.emitNext(ServerSentEvent.builder(sseDto).event("queue").build(), RETRY);
+    }
+
+    @Override
+    public void onStart(ScanMaster scanMaster) {
+        SSEDto sseDto = new SSEDto();
+        sseDto.setType(SSE_TYPE.START.name());
+        sseDto.setScanId(scanMaster.getId());
+        emitEvent(ServerSentEvent.builder(sseDto).event("init").build());
+    }
+
+    @Override
+    public void onFinding(ScanDetail detail) {
+        SSEDto sseDto = new SSEDto();
+        sseDto.setType(SSE_TYPE.FIND.name());
+        sseDto.setScanId(detail.getScanId());
+        sseDto.setScanDetailId(String.valueOf(detail.getId()));
+        sseDto.setName(detail.getName());
+        sseDto.setSeverity(detail.getSeverity());
+        sseDto.setDescription(detail.getDescription());
+        emitEvent(ServerSentEvent.builder(sseDto).event("progress").build());
+    }
+
+    @Override
+    public void onProgress(String percent, ScanScoreResult liveScore) {
+        SSEDto sseDto = new SSEDto();
+        sseDto.setType(SSE_TYPE.PROGRESS.name());
+        sseDto.setPercent(percent);
+        if (liveScore != null) {
+            sseDto.setScore(liveScore.score());
+            sseDto.setGrade(liveScore.grade());
+        }
+        progress.emitNext(ServerSentEvent.builder(sseDto).event("progress").build(), RETRY);
+    }
+
+    /**
+     * 파이프라인이 끝난 뒤 (저장 / 발견 이벤트가 모두 나간 뒤) 호출
+     */
+    void complete() {
+        events.emitComplete(RETRY);
+        progress.emitComplete(RETRY);
+        stalled.emitEmpty(RETRY);
+    }
+
+    /**
+     * 버퍼에 자리가 날 때까지 기다렸다가 emit (구독이 끝났거나 stallTimeout 을 넘기면 버림)
+     */
+    private void emitEvent(ServerSentEvent<SSEDto> event) {
+        if (closed) {
+            return;
+        }
+        boolean acquired;
+        try {
+            acquired = capacity.tryAcquire(stallTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (closed) {
+            return;
+        }
+        if (!acquired) {
+            log.warn("Reactive client did not read {} buffered events within {}s, closing stream",
+                    bufferSize, stallTimeout.toSeconds());
+            close();
+            stalled.emitError(new IllegalStateException("Client is not consuming scan events"), RETRY);
+            return;
+        }
+        events.emitNext(event, RETRY);
+    }
+
+    /**
+     * 구독 종료 / 정체: 기다리는 emit 을 깨워 버리게 한다
+     */
+    private void close() {
+        if (!closed) {
+            closed = true;
+            capacity.release(bufferSize);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.fast.trust.scan.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * nuclei 프로세스별 -c / -bulk-size / -rate-limit 계산
+ * - 전체 요청률(scan.governor.rate-limit-total)과 템플릿 동시 실행 수(코어당 scan.governor.concurrency-per-core)를
+ *   실행 중인 프로세스 수로 나눈 몫, 단 이미 배정된 양을 뺀 남은 예산을 넘지 않게 배정
+ * - 배정한 양은 예산에서 예약하고 프로세스가 끝나 close 하면 돌려준다 (동시 실행 합계가 예산을 넘지 않음)
+ * - 시스템 load 가 코어 수를 넘으면 동시 실행 수를 그 비율만큼 줄임
+ * - 같은 대상 host 를 스캔 중인 프로세스끼리 host 당 요청률(scan.governor.host-rate-limit)을 같은 방식으로 나눠 씀
+ * 값은 실행 시점에 정해지며, 실행 중인 프로세스의 값은 바뀌지 않는다
+ * 예산이 바닥나도 하한(-c 1, scan.governor.min-rate-limit)은 보장하므로 그만큼은 예산을 넘을 수 있다
+ */
+@Component
+@Slf4j
+public class NucleiGovernor {
+
+    // nuclei 기본값 (-c 25, -bulk-size 25, -rate-limit 150) 을 프로세스당 상한으로 사용
+    private static final int MAX_CONCURRENCY = 25;
+    private static final int MAX_BULK_SIZE = 25;
+    private static final int MAX_RATE_LIMIT = 150;
+
+    @Value("${scan.governor.enabled:true}")
+    private boolean enabled;
+
+    @Value("${scan.governor.rate-limit-total:600}")
+    private int rateLimitTotal;
+
+    @Value("${scan.governor.concurrency-per-core:10}")
+    private int concurrencyPerCore;
+
+    // host 당 요청률 (기본 50): 대상이 하나뿐인 단독 스캔도 nuclei 기본값 150 이 아니라 50 으로 제한된다
+    // 대상 서버 보호를 위한 값이므로, 자체 서버만 스캔한다면 올려서 사용
+    @Value("${scan.governor.host-rate-limit:50}")
+    private int hostRateLimit;
+
+    @Value("${scan.governor.min-rate-limit:5}")
+    private int minRateLimit;
+
+    private final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+    private final Map<String, Integer> hostsInUse = new HashMap<>();
+    // host 별로 예약된 요청률
+    private final Map<String, Integer> hostRateReserved = new HashMap<>();
+    private int active;
+    private int reservedConcurrency;
+    private int reservedRate;
+
+    /**
+     * 프로세스 하나의 배정 (프로세스가 끝나면 close)
+     * @param targetUrls 정규화된 대상 URL
+     */
+    public Allocation allocate(List<String> targetUrls) {
+        Set<String> hosts = new LinkedHashSet<>();
+        for (String targetUrl : targetUrls) {
+            hosts.add(hostOf(targetUrl));
+        }
+
+        if (!enabled) {
+            return new Allocation(hosts, List.of(), "", 0, 0, 0);
+        }
+
+        int cores = os.getAvailableProcessors();
+        int concurrencyBudget = cores * concurrencyPerCore;
+        double load = os.getSystemLoadAverage();
+        if (load > cores) {
+            concurrencyBudget = (int) (concurrencyBudget * cores / load);
+        }
+
+        int processes;
+        int concurrency;
+        int bulkSize;
+        int rateLimit;
+        int hostRate;
+        synchronized (this) {
+            active++;
+            processes = active;
+
+            // 몫과 남은 예산 중 작은 값
+            concurrency = clamp(Math.min(concurrencyBudget / processes, concurrencyBudget - reservedConcurrency),
+                    1, MAX_CONCURRENCY);
+            bulkSize = clamp(Math.min(hosts.size(), concurrency), 1, MAX_BULK_SIZE);
+
+            // 전체 예산, 그리고 host 당 예산 (가장 여유 없는 host 기준) × 동시에 치는 host 수
+            int perHost = hostRateLimit;
+            for (String host : hosts) {
+                int inUse = hostsInUse.getOrDefault(host, 0) + 1;
+                int remaining = hostRateLimit - hostRateReserved.getOrDefault(host, 0);
+                perHost = Math.min(perHost, Math.min(hostRateLimit / inUse, remaining));
+            }
+            rateLimit = Math.min(rateLimitTotal / processes, rateLimitTotal - reservedRate);
+            rateLimit = Math.min(rateLimit, Math.max(perHost, 0) * bulkSize);
+            rateLimit = clamp(rateLimit, minRateLimit, MAX_RATE_LIMIT);
+
+            // host 하나에는 동시에 치는 host 수로 나눈 만큼 요청이 간다
+            hostRate = (rateLimit + bulkSize - 1) / bulkSize;
+            reservedConcurrency += concurrency;
+            reservedRate += rateLimit;
+            for (String host : hosts) {
+                hostsInUse.merge(host, 1, Integer::sum);
+                hostRateReserved.merge(host, hostRate, Integer::sum);
+            }
+        }
+
+        List<String> args = List.of(
+                "-c", String.valueOf(concurrency),
+                "-bulk-size", String.valueOf(bulkSize),
+                "-rate-limit", String.valueOf(rateLimit)
+        );
+        String flags = String.join(" ", args);
+        log.info("Nuclei allocation: {} (processes={}, cores={}, load={}, hosts={})",
+                flags, processes, cores, load, hosts.size());
+        return new Allocation(hosts, args, flags, concurrency, rateLimit, hostRate);
+    }
+
+    public synchronized int getActive() {
+        return active;
+    }
+
+    private synchronized void release(Allocation allocation) {
+        active--;
+        reservedConcurrency -= allocation.concurrency;
+        reservedRate -= allocation.rateLimit;
+        for (String host : allocation.hosts) {
+            hostsInUse.computeIfPresent(host, (key, inUse) -> inUse > 1 ? inUse - 1 : null);
+            hostRateReserved.computeIfPresent(host,
+                    (key, reserved) -> reserved > allocation.hostRate ? reserved - allocation.hostRate : null);
+        }
+    }
+
+    private static String hostOf(String targetUrl) {
+        try {
+            String host = URI.create(targetUrl).getHost();
+            return host != null ? host.toLowerCase(Locale.ROOT) : targetUrl;
+        } catch (IllegalArgumentException e) {
+            return targetUrl;
+        }
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    /**
+     * @param args  nuclei 에 추가할 인자 (비활성이면 비어 있음)
+     * @param flags ScanMaster 에 기록할 문자열
+     */
+    public class Allocation implements AutoCloseable {
+        private final Set<String> hosts;
+        private final List<String> args;
+        private final String flags;
+        // 예약한 양 (close 때 반납)
+        private final int concurrency;
+        private final int rateLimit;
+        private final int hostRate;
+        private final AtomicBoolean released = new AtomicBoolean(!enabled);
+
+        private Allocation(Set<String> hosts, List<String> args, String flags,
+                           int concurrency, int rateLimit, int hostRate) {
+            this.hosts = hosts;
+            this.args = args;
+            this.flags = flags;
+            this.concurrency = concurrency;
+            this.rateLimit = rateLimit;
+            this.hostRate = hostRate;
+        }
+
+        public List<String> args() {
+            return args;
+        }
+
+        public String flags() {
+            return flags;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                release(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.fast.trust.scan.service;
+
+import com.fast.trust.scan.dto.NucleiFinding;
+import com.fast.trust.scan.dto.NucleiLine;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * nuclei -jsonl 출력 스트리밍 파서
+ * - ANSI 색상 코드를 정규식 없이 한 번에 제거
+ * - request / response 는 값으로 만들지 않고 건너뜀
+ * - extracted-results 는 읽으면서 최대 10개로 자름
+ */
+@Component
+public class NucleiOutputParser {
+
+    public static final int MAX_EXTRACTED_RESULTS = 10;
+
+    private static final char ESC = '\u001b';
+
+    private final ObjectMapper objectMapper;
+    private final JsonFactory jsonFactory;
+
+    public NucleiOutputParser() {
+        this.objectMapper = new ObjectMapper();
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    public NucleiLine parse(String cleanLine) throws IOException {
+        int start = firstNonWhitespace(cleanLine);
+        if (start < 0) {
+            return NucleiLine.empty();
+        }
+        if (cleanLine.charAt(start) != '{') {
+            return NucleiLine.text(cleanLine);
+        }
+
+        try (JsonParser parser = jsonFactory.createParser(cleanLine)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected JSON object");
+            }
+
+            Map<String, Object> fields = new LinkedHashMap<>();
+            Map<String, Object> info = null;
+            List<String> extractedResults = null;
+            int extractedResultsCount = 0;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+
+                switch (field) {
+                    // 본문 전체 (수 MB) 는 문자열로 만들지 않는다
+                    case "request", "response" -> parser.skipChildren();
+                    case "info" -> info = readObject(parser, value);
+                    case "extracted-results" -> {
+                        if (value == JsonToken.START_ARRAY) {
+                            extractedResults = new ArrayList<>();
+                            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                                extractedResultsCount++;
+                                if (extractedResults.size() < MAX_EXTRACTED_RESULTS
+                                        && parser.currentToken().isScalarValue()) {
+                                    extractedResults.add(parser.getValueAsString());
+                                } else {
+                                    parser.skipChildren();
+                                }
+                            }
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    default -> fields.put(field, value.isScalarValue()
+                            ? scalar(parser, value)
+                            : objectMapper.readValue(parser, Object.class));
+                }
+            }
+
+            if (info == null) {
+                return NucleiLine.progress(asString(fields.get("percent")));
+            }
+
+            fields.put("info", info);
+            if (extractedResults != null) {
+                fields.put("extracted-results", extractedResults);
+                if (extractedResultsCount > MAX_EXTRACTED_RESULTS) {
+                    fields.put("extracted-results-count", extractedResultsCount);
+                }
+            }
+
+            return NucleiLine.finding(new NucleiFinding(
+                    asString(fields.get("template-id")),
+                    asString(info.get("name")),
+                    asString(info.get("severity")),
+                    asString(info.get("description")),
+                    asString(fields.get("matched-at")),
+                    asString(fields.get("host")),
+                    asStringList(info.get("tags")),
+                    extractedResults,
+                    extractedResultsCount,
+                    fields
+            ));
+        }
+    }
+
+    /**
+     * ANSI 색상 코드(ESC[...m) 제거, 없으면 원본 그대로 반환
+     */
+    public static String stripAnsi(String line) {
+        int esc = line.indexOf(ESC);
+        if (esc < 0) {
+            return line;
+        }
+
+        StringBuilder sb = new StringBuilder(line.length());
+        sb.append(line, 0, esc);
+
+        int i = esc;
+        while (i < line.length()) {
+            char c = line.charAt(i);
+            if (c == ESC && i + 1 < line.length() && line.charAt(i + 1) == '[') {
+                int j = i + 2;
+                while (j < line.length() && (Character.isDigit(line.charAt(j)) || line.charAt(j) == ';')) {
+                    j++;
+                }
+                if (j < line.length() && line.charAt(j) == 'm') {
+                    i = j + 1;
+                    continue;
+                }
+            }
+            sb.append(c);
+            i++;
+        }
+        return sb.toString();
+    }
+
+    private Map<String, Object> readObject(JsonParser parser, JsonToken value) throws IOException {
+        if (value != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return new LinkedHashMap<>();
+        }
+        Map<String, Object> map = new LinkedHashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            map.put(field, token.isScalarValue()
+                    ? scalar(parser, token)
+                    : objectMapper.readValue(parser, Object.class));
+        }
+        return map;
+    }
+
+    private Object scalar(JsonParser parser, JsonToken token) throws IOException {
+        return switch (token) {
+            case VALUE_STRING -> parser.getText();
+            case VALUE_NUMBER_INT -> parser.getNumberValue();
+            case VALUE_NUMBER_FLOAT -> parser.getDoubleValue();
+            case VALUE_TRUE -> Boolean.TRUE;
+            case VALUE_FALSE -> Boolean.FALSE;
+            default -> null;
+        };
+    }
+
+    private static int firstNonWhitespace(String line) {
+        for (int i = 0; i < line.length(); i++) {
+            if (!Character.isWhitespace(line.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String asString(Object value) {
+        return value == null ? null : String.valueOf(value);
+    }
+
+    private static List<String> asStringList(Object value) {
+        if (value instanceof List<?> list) {
+            List<String> result = new ArrayList<>(list.size());
+            for (Object item : list) {
+                result.add(String.valueOf(item));
+            }
+            return result;
+        }
+        if (value instanceof String s && !s.isBlank()) {
+            return Arrays.asList(s.split(","));
+        }
+        return null;
+    }
+}
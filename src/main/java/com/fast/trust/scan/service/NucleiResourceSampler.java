@@ -0,0 +1,282 @@
+package com.fast.trust.scan.service;
+
+import com.fast.trust.scan.entity.ScanMaster;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * nuclei 프로세스별 자원 사용량 (/proc/&lt;pid&gt;/stat, status, io 주기 샘플링)
+ * - CPU 시간(user + system), 최대 RSS, 디스크 I/O(read_bytes / write_bytes), 실행 시간
+ * - nuclei 가 띄운 하위 프로세스(headless 브라우저 등)까지 합산
+ * - 스캔당 상한(scan.resources.max-*, 0 이면 제한 없음)을 넘으면 프로세스 트리를 종료하고 사유를 남긴다
+ * 값은 scan.resources.sample-interval-ms 간격의 마지막 샘플 기준 (그보다 짧게 끝난 프로세스는 실행 시간만)
+ * /proc 이 없는 환경(Linux 외)에서는 CPU 시간(ProcessHandle)과 실행 시간만 기록
+ */
+@Component
+@Slf4j
+public class NucleiResourceSampler {
+
+    // /proc/<pid>/stat 의 utime / stime 단위 (USER_HZ, Linux 에서 사실상 100 고정)
+    private static final long CLOCK_TICKS_PER_SECOND = 100;
+    private static final Path PROC = Paths.get("/proc");
+
+    @Value("${scan.resources.sample-interval-ms:1000}")
+    private long sampleIntervalMs;
+
+    @Value("${scan.resources.max-cpu-seconds:0}")
+    private long maxCpuSeconds;
+
+    @Value("${scan.resources.max-rss-mb:0}")
+    private long maxRssMb;
+
+    @Value("${scan.resources.max-io-mb:0}")
+    private long maxIoMb;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "nuclei-resource-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 프로세스가 시작된 직후 호출, 프로세스가 끝나면 close (마지막 샘플 후 중단)
+     */
+    public Sampling start(Process process) {
+        Sampling sampling = new Sampling(process);
+        sampling.task = scheduler.scheduleAtFixedRate(
+                sampling::sample, sampleIntervalMs, sampleIntervalMs, TimeUnit.MILLISECONDS);
+        return sampling;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 프로세스 하나의 누적 사용량 (종료된 하위 프로세스는 마지막으로 읽은 값 유지)
+     * /proc 읽기는 lock 밖에서 하고 결과 반영만 lock 안에서 (usage / close 를 부르는 가상 스레드가 고정되지 않도록)
+     */
+    public class Sampling implements AutoCloseable {
+        private final Process process;
+        private final long startedAt = System.nanoTime();
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<Long, long[]> perProcess = new HashMap<>();
+        private ScheduledFuture<?> task;
+        private long peakRssKb;
+        private long wallMillis;
+        private long fallbackCpuMillis;
+        private boolean closed;
+        private volatile String exceeded;
+
+        private Sampling(Process process) {
+            this.process = process;
+        }
+
+        /**
+         * 상한 초과로 종료했으면 그 사유
+         */
+        public Optional<String> exceeded() {
+            return Optional.ofNullable(exceeded);
+        }
+
+        public ResourceUsage usage() {
+            lock.lock();
+            try {
+                return currentUsage();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private ResourceUsage currentUsage() {
+            long cpuTicks = 0;
+            long readBytes = 0;
+            long writeBytes = 0;
+            for (long[] values : perProcess.values()) {
+                cpuTicks += values[0];
+                readBytes += values[1];
+                writeBytes += values[2];
+            }
+            long cpuMillis = cpuTicks * 1000 / CLOCK_TICKS_PER_SECOND;
+            if (perProcess.isEmpty()) {
+                // /proc 없음: 살아 있을 때 읽은 ProcessHandle CPU 시간
+                cpuMillis = fallbackCpuMillis;
+            }
+            long wall = !closed && process.isAlive()
+                    ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt)
+                    : wallMillis;
+            return new ResourceUsage(cpuMillis, peakRssKb, readBytes, writeBytes, wall);
+        }
+
+        private void sample() {
+            if (!process.isAlive()) {
+                return;
+            }
+
+            if (!Files.isDirectory(PROC)) {
+                Optional<Long> cpu = process.info().totalCpuDuration().map(Duration::toMillis);
+                update(() -> cpu.ifPresent(value -> fallbackCpuMillis = value));
+                return;
+            }
+
+            long rssKb = 0;
+            Map<Long, long[]> sampled = new HashMap<>();
+            List<ProcessHandle> tree = new ArrayList<>();
+            tree.add(process.toHandle());
+            process.descendants().forEach(tree::add);
+            for (ProcessHandle handle : tree) {
+                long pid = handle.pid();
+                try {
+                    long cpuTicks = cpuTicks(pid);
+                    long[] io = ioBytes(pid);
+                    rssKb += rssKb(pid);
+                    sampled.put(pid, io != null ? new long[]{cpuTicks, io[0], io[1]} : new long[]{cpuTicks});
+                } catch (IOException | RuntimeException e) {
+                    // 샘플 도중 종료된 프로세스
+                    log.trace("Failed to sample /proc/{}: {}", pid, e.getMessage());
+                }
+            }
+            long sampledRssKb = rssKb;
+            update(() -> {
+                sampled.forEach((pid, values) -> {
+                    long[] current = perProcess.computeIfAbsent(pid, key -> new long[3]);
+                    // io 를 읽지 못한 경우 (values 길이 1) 이전 값 유지
+                    System.arraycopy(values, 0, current, 0, values.length);
+                });
+                peakRssKb = Math.max(peakRssKb, sampledRssKb);
+            });
+        }
+
+        /**
+         * 샘플 결과 반영 후 상한 확인 (확인 / 프로세스 종료는 lock 밖에서)
+         */
+        private void update(Runnable apply) {
+            ResourceUsage usage;
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                apply.run();
+                wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+                usage = currentUsage();
+            } finally {
+                lock.unlock();
+            }
+            check(usage);
+        }
+
+        private void check(ResourceUsage usage) {
+            if (exceeded != null) {
+                return;
+            }
+            String reason = null;
+            if (maxCpuSeconds > 0 && usage.cpuMillis() > maxCpuSeconds * 1000) {
+                reason = "CPU time " + usage.cpuMillis() / 1000 + "s exceeded limit " + maxCpuSeconds + "s";
+            } else if (maxRssMb > 0 && usage.peakRssKb() > maxRssMb * 1024) {
+                reason = "RSS " + usage.peakRssKb() / 1024 + "MB exceeded limit " + maxRssMb + "MB";
+            } else if (maxIoMb > 0 && usage.readBytes() + usage.writeBytes() > maxIoMb * 1024 * 1024) {
+                reason = "I/O " + (usage.readBytes() + usage.writeBytes()) / (1024 * 1024)
+                        + "MB exceeded limit " + maxIoMb + "MB";
+            }
+            if (reason != null) {
+                exceeded = "Resource limit exceeded: " + reason;
+                log.warn("Nuclei process (pid={}) {}, destroying", process.pid(), exceeded);
+                ScanCancellationRegistry.destroyTree(process);
+            }
+        }
+
+        /**
+         * 샘플링 중단, 실행 시간은 처음 close 한 시점까지 (여러 번 호출해도 됨)
+         */
+        @Override
+        public void close() {
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                if (task != null) {
+                    task.cancel(false);
+                }
+                wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * @param cpuMillis  user + system CPU 시간
+     * @param peakRssKb  샘플 중 가장 컸던 RSS 합계 (하위 프로세스 포함)
+     * @param readBytes  저장장치에서 읽은 바이트 (/proc/&lt;pid&gt;/io read_bytes)
+     * @param writeBytes 저장장치에 쓴 바이트 (write_bytes)
+     * @param wallMillis 프로세스 실행 시간
+     */
+    public record ResourceUsage(long cpuMillis, long peakRssKb, long readBytes, long writeBytes, long wallMillis) {
+
+        /**
+         * 배치(-l) 실행이면 같은 프로세스 값이 모든 대상에 기록된다
+         */
+        public void applyTo(ScanMaster scanMaster, int lineCount, int findingCount) {
+            scanMaster.recordResources(cpuMillis, peakRssKb, readBytes, writeBytes, wallMillis,
+                    lineCount, findingCount);
+        }
+    }
+
+    private static long cpuTicks(long pid) throws IOException {
+        String stat = Files.readString(PROC.resolve(pid + "/stat"));
+        // comm 에 공백 / 괄호가 있을 수 있어 마지막 ')' 뒤부터 (state 가 3번째 필드)
+        String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+        // utime = 14번째, stime = 15번째 필드
+        return Long.parseLong(fields[11]) + Long.parseLong(fields[12]);
+    }
+
+    private static long rssKb(long pid) throws IOException {
+        for (String line : Files.readAllLines(PROC.resolve(pid + "/status"))) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.substring(6).trim().split("\\s+")[0]);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return {read_bytes, write_bytes}, 권한 등으로 읽을 수 없으면 null
+     */
+    private static long[] ioBytes(long pid) {
+        try {
+            long[] io = new long[2];
+            for (String line : Files.readAllLines(PROC.resolve(pid + "/io"))) {
+                if (line.startsWith("read_bytes:")) {
+                    io[0] = Long.parseLong(line.substring(11).trim());
+                } else if (line.startsWith("write_bytes:")) {
+                    io[1] = Long.parseLong(line.substring(12).trim());
+                }
+            }
+            return io;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.fast.trust.scan.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 로컬 nuclei 템플릿 디렉터리 조회 (증분 재스캔용)
+ * nuclei -update-templates 는 바뀐 파일만 다시 쓰므로 수정 시각으로 추가 / 변경된 템플릿을 찾는다
+ */
+@Component
+@Slf4j
+public class NucleiTemplateIndex {
+
+    private static final Pattern ID_LINE = Pattern.compile("^id:\\s*['\"]?([^'\"\\s#]+)");
+
+    @Value("${nuclei.templates-dir:${user.home}/nuclei-templates}")
+    private String templatesDir;
+
+    /**
+     * since 이후 추가 / 변경된 템플릿 ID
+     * @return 템플릿 디렉터리를 읽을 수 없으면 empty (호출 쪽에서 전체 스캔)
+     */
+    public Optional<List<String>> changedSince(LocalDateTime since) {
+        Path root = Paths.get(templatesDir);
+        if (!Files.isDirectory(root)) {
+            log.warn("Nuclei templates directory not found: {}", root);
+            return Optional.empty();
+        }
+
+        long sinceMillis = since.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        Set<String> ids = new LinkedHashSet<>();
+        try (Stream<Path> files = Files.walk(root)) {
+            List<Path> changed = files
+                    .filter(Files::isRegularFile)
+                    .filter(NucleiTemplateIndex::isTemplateFile)
+                    .filter(file -> lastModified(file) > sinceMillis)
+                    .toList();
+            for (Path file : changed) {
+                readId(file).ifPresent(ids::add);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to read nuclei templates directory {}: {}", root, e.getMessage());
+            return Optional.empty();
+        }
+        return Optional.of(new ArrayList<>(ids));
+    }
+
+    private static boolean isTemplateFile(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(".yaml") || name.endsWith(".yml");
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return Long.MAX_VALUE; // 알 수 없으면 변경된 것으로 본다
+        }
+    }
+
+    /**
+     * 템플릿의 최상위 id (워크플로 / 설정 파일 등 id 가 없는 yaml 은 제외)
+     */
+    private static Optional<String> readId(Path file) {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher matcher = ID_LINE.matcher(line);
+                if (matcher.find()) {
+                    String id = matcher.group(1);
+                    return ScanProfiles.isTemplateId(id) ? Optional.of(id) : Optional.empty();
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Failed to read template {}: {}", file, e.getMessage());
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,245 @@
+package com.fast.trust.scan.service;
+
+import com.fast.trust.scan.entity.ScanDetail;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 스캔별 append-only 원본 저장소 (scan.raw-store.dir/&lt;scanId&gt;.seg)
+ * - nuclei 원본 결과(JSON)와 AI 원본 응답을 레코드마다 따로 deflate 압축해 파일 끝에 붙인다
+ * - ScanDetail 에는 offset / length 만 저장, 원본 조회 시 해당 구간만 mmap 해서 읽는다
+ * 파일은 스캔 보관 기간(ScanRetentionService)이 지나면 스캔 행과 함께 삭제
+ * 한 인스턴스가 파일을 쓰는 것을 전제로 한다 (같은 스캔의 append 는 락으로 직렬화, 가상 스레드 고정을 피하려고 ReentrantLock)
+ */
+@Component
+@Slf4j
+public class RawSegmentStore {
+
+    private static final Pattern SCAN_ID = Pattern.compile("[A-Za-z0-9-]+");
+    private static final int LOCK_STRIPES = 64;
+
+    private final Path root;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public RawSegmentStore(@Value("${scan.raw-store.dir:data/raw}") String dir) {
+        this.root = Paths.get(dir);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * 저장 전 ScanDetail 의 nuclei 원본(fullResult)을 세그먼트에 쓰고 rawOffset / rawLength 설정
+     * 실패한 스캔의 행은 rawOffset 이 null 로 남는다 (ScanDetailWriter 가 원본을 행에 보관)
+     */
+    public void appendFindings(List<ScanDetail> details) {
+        Map<String, List<ScanDetail>> byScan = new LinkedHashMap<>();
+        for (ScanDetail detail : details) {
+            if (detail.getFullResult() != null && detail.getRawOffset() == null) {
+                byScan.computeIfAbsent(detail.getScanId(), key -> new ArrayList<>()).add(detail);
+            }
+        }
+
+        for (Map.Entry<String, List<ScanDetail>> entry : byScan.entrySet()) {
+            try {
+                List<byte[]> records = new ArrayList<>();
+                for (ScanDetail detail : entry.getValue()) {
+                    records.add(compress(objectMapper.writeValueAsBytes(detail.getFullResult())));
+                }
+                long offset = append(entry.getKey(), records);
+                for (int i = 0; i < records.size(); i++) {
+                    ScanDetail detail = entry.getValue().get(i);
+                    detail.setRawOffset(offset);
+                    detail.setRawLength(records.get(i).length);
+                    offset += records.get(i).length;
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to append {} raw results for scan {}: {}",
+                        entry.getValue().size(), entry.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * AI 원본 응답을 세그먼트에 쓰고 aiRawOffset / aiRawLength 설정
+     */
+    public void appendAiResponse(ScanDetail detail, String rawResponse) {
+        if (rawResponse == null) {
+            return;
+        }
+        try {
+            byte[] record = compress(rawResponse.getBytes(StandardCharsets.UTF_8));
+            detail.setAiRawOffset(append(detail.getScanId(), List.of(record)));
+            detail.setAiRawLength(record.length);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to append raw AI response for scanDetail {}: {}", detail.getId(), e.getMessage());
+        }
+    }
+
+    public Optional<Map<String, Object>> readFinding(ScanDetail detail) throws IOException {
+        if (detail.getRawOffset() == null || detail.getRawLength() == null) {
+            return Optional.empty();
+        }
+        byte[] json = read(detail.getScanId(), detail.getRawOffset(), detail.getRawLength());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> result = objectMapper.readValue(json, Map.class);
+        return Optional.of(result);
+    }
+
+    public Optional<String> readAiResponse(ScanDetail detail) throws IOException {
+        if (detail.getAiRawOffset() == null || detail.getAiRawLength() == null) {
+            return Optional.empty();
+        }
+        byte[] raw = read(detail.getScanId(), detail.getAiRawOffset(), detail.getAiRawLength());
+        return Optional.of(new String(raw, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 스캔의 세그먼트 파일 삭제 (없으면 무시)
+     */
+    public void delete(String scanId) {
+        ReentrantLock lock = locks[Math.floorMod(scanId.hashCode(), LOCK_STRIPES)];
+        lock.lock();
+        try {
+            Files.deleteIfExists(segment(scanId));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to delete raw segment of scan {}: {}", scanId, e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 마지막 기록이 cutoff 이전인 세그먼트 삭제 (스캔 행이 이미 없는 파일 포함)
+     * @return 삭제한 파일 수
+     */
+    public int deleteOlderThan(Instant cutoff) {
+        if (!Files.isDirectory(root)) {
+            return 0;
+        }
+        List<String> expired = new ArrayList<>();
+        try (Stream<Path> files = Files.list(root)) {
+            files.filter(file -> file.getFileName().toString().endsWith(".seg"))
+                    .forEach(file -> {
+                        try {
+                            String scanId = file.getFileName().toString().replaceFirst("\\.seg$", "");
+                            if (SCAN_ID.matcher(scanId).matches()
+                                    && Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                                expired.add(scanId);
+                            }
+                        } catch (IOException e) {
+                            log.debug("Failed to stat raw segment {}: {}", file, e.getMessage());
+                        }
+                    });
+        } catch (IOException e) {
+            log.warn("Failed to list raw segments in {}: {}", root, e.getMessage());
+            return 0;
+        }
+        expired.forEach(this::delete);
+        return expired.size();
+    }
+
+    /**
+     * @return 첫 레코드의 offset (레코드는 이어서 기록된다)
+     */
+    private long append(String scanId, List<byte[]> records) throws IOException {
+        Path segment = segment(scanId);
+        ReentrantLock lock = locks[Math.floorMod(scanId.hashCode(), LOCK_STRIPES)];
+        lock.lock();
+        try {
+            Files.createDirectories(root);
+            try (FileChannel channel = FileChannel.open(segment,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                long offset = channel.size();
+                ByteBuffer[] buffers = records.stream().map(ByteBuffer::wrap).toArray(ByteBuffer[]::new);
+                long remaining = records.stream().mapToLong(record -> record.length).sum();
+                while (remaining > 0) {
+                    remaining -= channel.write(buffers);
+                }
+                return offset;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private byte[] read(String scanId, long offset, int length) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment(scanId), StandardOpenOption.READ)) {
+            if (offset + length > channel.size()) {
+                throw new IOException("Raw record out of range: scan=" + scanId + ", offset=" + offset);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+            return decompress(mapped);
+        }
+    }
+
+    private Path segment(String scanId) {
+        if (scanId == null || !SCAN_ID.matcher(scanId).matches()) {
+            throw new IllegalArgumentException("Invalid scanId: " + scanId);
+        }
+        return root.resolve(scanId + ".seg");
+    }
+
+    private static byte[] compress(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 2));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] decompress(ByteBuffer data) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.remaining() * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int read = inflater.inflate(buffer);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Truncated raw record");
+                }
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt raw record", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
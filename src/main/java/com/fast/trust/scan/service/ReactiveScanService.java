@@ -0,0 +1,101 @@
+package com.fast.trust.scan.service;
+
+import com.fast.trust.scan.dto.SSEDto;
+import com.fast.trust.scan.dto.SSE_TYPE;
+import com.fast.trust.scan.entity.ScanMaster;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 리액티브 스캔 스트림 (Flux&lt;ServerSentEvent&lt;SSEDto&gt;&gt;)
+ * 실행은 다른 진입점과 같은 ScanPipeline (슬롯 / 자원 배정 / 저장 / 취소 / 자원 기록 공통), 이 클래스는 Flux 로 변환만 한다
+ * - 발견(FIND)은 버리지 않고, 진행률은 클라이언트가 느리면 최신 값만 (FluxScanSink)
+ * - 발견 버퍼(scan.reactive.buffer-size)가 차면 클라이언트가 읽을 때까지 nuclei 출력 읽기도 멈춘다
+ * - 구독을 취소(클라이언트 연결 종료)하거나 scan.reactive.stall-timeout-seconds 동안 읽지 않으면 스캔 취소
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveScanService {
+
+    private final ScanPipeline scanPipeline;
+    private final ScanProfiles scanProfiles;
+    private final WebhookScanSink webhookScanSink;
+    private final ScanCancellationRegistry cancellationRegistry;
+
+    @Value("${scan.reactive.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${scan.reactive.stall-timeout-seconds:60}")
+    private long stallTimeoutSeconds;
+
+    /**
+     * 대기열이 가득 차 있으면 호출 시점에 ScanQueueFullException (429)
+     */
+    public Flux<ServerSentEvent<SSEDto>> scan(String url, String mode, String templates) {
+        String normalizedUrl = UrlCanonicalizer.canonicalize(url);
+        ScanOptions options = scanProfiles.resolve(mode, templates);
+        String scanId = UUID.randomUUID().toString();
+
+        FluxScanSink sink = new FluxScanSink(bufferSize, Duration.ofSeconds(stallTimeoutSeconds));
+        ScanPipeline.Job job = ScanPipeline.Job.single(ScanMetrics.Mode.REACTIVE,
+                new ScanMaster(scanId, normalizedUrl, options.key()), options, false);
+        CompletableFuture<ScanPipeline.Result> result = scanPipeline.submit(
+                ScanScheduler.Priority.INTERACTIVE, job, ScanSink.of(sink, webhookScanSink), sink::onQueuePosition);
+        // 발견 이벤트까지 모두 나간 뒤 끝난다 (저장 버퍼 close 후 결과 완료)
+        result.whenComplete((value, ex) -> sink.complete());
+
+        return sink.asFlux()
+                .concatWith(Mono.fromFuture(result)
+                        .map(this::endEvent)
+                        .onErrorResume(e -> Mono.just(errorEvent(scanId, e))))
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL || signal == SignalType.ON_ERROR) {
+                        log.info("Reactive scan {} subscriber {}", scanId,
+                                signal == SignalType.CANCEL ? "cancelled" : "stalled");
+                        cancellationRegistry.cancel(scanId);
+                    }
+                });
+    }
+
+    private ServerSentEvent<SSEDto> endEvent(ScanPipeline.Result result) {
+        ScanPipeline.TargetResult target = result.single();
+        if (result.cancelled()) {
+            SSEDto sseDto = new SSEDto();
+            sseDto.setType(SSE_TYPE.CANCELLED.name());
+            sseDto.setScanId(target.scanMaster().getId());
+            return ServerSentEvent.builder(sseDto).event("cancelled").build();
+        }
+        if (result.failed()) {
+            return errorEvent(target.scanMaster().getId(), result.error());
+        }
+
+        SSEDto sseDto = new SSEDto();
+        sseDto.setType(SSE_TYPE.END.name());
+        sseDto.setScanId(target.scanMaster().getId());
+        sseDto.setScore(target.score().score());
+        sseDto.setGrade(target.score().grade());
+        if (result.timedOut()) {
+            sseDto.setDescription(target.scanMaster().getErrorMessage());
+        }
+        return ServerSentEvent.builder(sseDto).event("complete").build();
+    }
+
+    private ServerSentEvent<SSEDto> errorEvent(String scanId, Throwable e) {
+        SSEDto sseDto = new SSEDto();
+        sseDto.setType(SSE_TYPE.ERROR.name());
+        sseDto.setScanId(scanId);
+        sseDto.setDescription(e.getMessage());
+        return ServerSentEvent.builder(sseDto).event("error").build();
+    }
+}
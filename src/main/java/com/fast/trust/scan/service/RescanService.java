@@ -0,0 +1,190 @@
+package com.fast.trust.scan.service;
+
+import com.fast.trust.scan.entity.ScanDetail;
+import com.fast.trust.scan.entity.ScanMaster;
+import com.fast.trust.scan.repository.ScanDetailRepository;
+import com.fast.trust.scan.repository.ScanMasterRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 이전 결과 기반 재스캔
+ * - 같은 대상 / 같은 프로필의 마지막 완료 스캔을 기준으로,
+ *   그때 결과가 나온 템플릿 + 그 뒤 추가 / 변경된 템플릿만 먼저 실행 (INCREMENTAL)
+ * - 전체 스캔(FULL)은 scan.rescan.full-sweep-cron 일정이 지났을 때만 (또는 요청에서 full=true)
+ * - 결과는 기준 스캔과 비교한 new / resolved / unchanged 로 돌려준다
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RescanService {
+
+    public static final String FULL = "FULL";
+    public static final String INCREMENTAL = "INCREMENTAL";
+
+    // 기본: 매주 일요일 03:00 이후 첫 재스캔은 전체 스캔
+    @Value("${scan.rescan.full-sweep-cron:0 0 3 * * SUN}")
+    private String fullSweepCron;
+
+    // 증분 대상 템플릿이 이보다 많으면 전체 스캔
+    @Value("${scan.rescan.max-incremental-templates:500}")
+    private int maxIncrementalTemplates;
+
+    private final ScanMasterRepository scanMasterRepository;
+    private final ScanDetailRepository scanDetailRepository;
+    private final ScanPipeline scanPipeline;
+    private final WebhookScanSink webhookScanSink;
+    private final ScanProfiles scanProfiles;
+    private final NucleiTemplateIndex nucleiTemplateIndex;
+
+    /**
+     * 스캔이 끝날 때까지 기다리지 않고 future 를 돌려준다 (대기열이 가득 차면 호출 시점에 ScanQueueFullException)
+     * @param full true 면 일정과 관계없이 전체 스캔
+     */
+    public CompletableFuture<Map<String, Object>> rescan(String url, String mode, boolean full) {
+        String normalizedUrl = UrlCanonicalizer.canonicalize(url);
+        ScanOptions profile = scanProfiles.resolve(mode, null);
+
+        Optional<ScanMaster> baseline = scanMasterRepository.findFirstByTargetUrlAndScanProfileAndStatusOrderByCompletedAtDesc(
+                normalizedUrl, profile.key(), "COMPLETED");
+        List<ScanDetail> baselineDetails = baseline
+                .map(scanMaster -> scanDetailRepository.findByScanId(scanMaster.getId()))
+                .orElse(List.of());
+
+        Optional<ScanOptions> incremental = full || baseline.isEmpty() || fullSweepDue(normalizedUrl, profile)
+                ? Optional.empty()
+                : incrementalOptions(baseline.get(), profile);
+
+        ScanOptions options = incremental.orElse(profile);
+        String scanType = incremental.isPresent() ? INCREMENTAL : FULL;
+
+        ScanMaster scanMaster = new ScanMaster(UUID.randomUUID().toString(), normalizedUrl, profile.key());
+        scanMaster.setScanType(scanType);
+        baseline.ifPresent(previous -> scanMaster.setBaselineScanId(previous.getId()));
+
+        log.info("Rescan ({}) for {} against {}", scanType, normalizedUrl,
+                baseline.map(ScanMaster::getId).orElse("none"));
+
+        CollectingScanSink collector = new CollectingScanSink();
+        ScanPipeline.Job job = ScanPipeline.Job.single(ScanMetrics.Mode.BATCH, scanMaster, options, false);
+        return scanPipeline.submit(
+                ScanScheduler.Priority.BATCH,
+                job,
+                ScanSink.of(collector, webhookScanSink),
+                position -> log.info("Rescan queued for {}: position {}", normalizedUrl, position)
+        ).thenApply(result -> toResponse(scanMaster, result, baselineDetails, collector.getFindings()));
+    }
+
+    private Map<String, Object> toResponse(ScanMaster scanMaster, ScanPipeline.Result result,
+                                           List<ScanDetail> baselineDetails, List<ScanDetail> findings) {
+        Map<String, Object> response = new HashMap<>();
+        if (result.failed()) {
+            response.put("status", result.cancelled() ? "CANCELLED" : "ERROR");
+            response.put("message", result.error().getMessage());
+            return response;
+        }
+
+        ScanPipeline.TargetResult target = result.single();
+        response.put("status", "DONE");
+        response.put("scanId", scanMaster.getId());
+        response.put("url", scanMaster.getTargetUrl());
+        response.put("scanType", scanMaster.getScanType());
+        response.put("baselineScanId", scanMaster.getBaselineScanId());
+        response.put("score", target.score().score());
+        response.put("grade", target.score().grade());
+        response.put("totalFindings", target.findingCount());
+        response.putAll(diff(baselineDetails, findings));
+        return response;
+    }
+
+    /**
+     * 마지막 전체 스캔 뒤로 전체 스캔 일정이 지났는지
+     */
+    private boolean fullSweepDue(String normalizedUrl, ScanOptions profile) {
+        List<ScanMaster> lastFull = scanMasterRepository.findLatestFullScans(
+                normalizedUrl, profile.key(), PageRequest.of(0, 1));
+        if (lastFull.isEmpty() || lastFull.get(0).getCompletedAt() == null) {
+            return true;
+        }
+        LocalDateTime next = CronExpression.parse(fullSweepCron).next(lastFull.get(0).getCompletedAt());
+        return next == null || !next.isAfter(LocalDateTime.now());
+    }
+
+    /**
+     * 기준 스캔에서 결과가 나온 템플릿 + 그 뒤 추가 / 변경된 템플릿
+     * 템플릿 디렉터리를 읽을 수 없거나 대상이 너무 많으면 empty (전체 스캔)
+     */
+    private Optional<ScanOptions> incrementalOptions(ScanMaster baseline, ScanOptions profile) {
+        Optional<List<String>> changed = nucleiTemplateIndex.changedSince(
+                baseline.getCompletedAt() != null ? baseline.getCompletedAt() : baseline.getCreatedAt());
+        if (changed.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Set<String> templateIds = new TreeSet<>();
+        for (String templateId : scanDetailRepository.findDistinctTemplateIds(baseline.getId())) {
+            if (ScanProfiles.isTemplateId(templateId)) {
+                templateIds.add(templateId);
+            }
+        }
+        templateIds.addAll(changed.get());
+
+        if (templateIds.isEmpty() || templateIds.size() > maxIncrementalTemplates) {
+            log.info("Incremental rescan not applicable ({} templates), running full scan", templateIds.size());
+            return Optional.empty();
+        }
+
+        // 프로필 조건에 템플릿 ID 를 더하되, 기준 스캔 조회가 이어지도록 key 는 프로필 그대로
+        ScanOptions narrowed = scanProfiles.resolve(profile.key(), String.join(",", templateIds));
+        return Optional.of(new ScanOptions(profile.key(), narrowed.args(), narrowed.maxDuration()));
+    }
+
+    /**
+     * 같은 template / 위치 / matcher 결과를 같은 것으로 본다 (추출값은 버전 문자열 등이 바뀔 수 있어 제외)
+     */
+    static Map<String, Object> diff(List<ScanDetail> baseline, List<ScanDetail> current) {
+        Map<String, ScanDetail> previous = new LinkedHashMap<>();
+        for (ScanDetail detail : baseline) {
+            previous.putIfAbsent(diffKey(detail), detail);
+        }
+
+        List<Map<String, Object>> added = new ArrayList<>();
+        List<Map<String, Object>> unchanged = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (ScanDetail detail : current) {
+            String key = diffKey(detail);
+            if (!seen.add(key)) {
+                continue;
+            }
+            (previous.containsKey(key) ? unchanged : added).add(CollectingScanSink.toMcpFinding(detail));
+        }
+
+        List<Map<String, Object>> resolved = new ArrayList<>();
+        for (Map.Entry<String, ScanDetail> entry : previous.entrySet()) {
+            if (!seen.contains(entry.getKey())) {
+                resolved.add(CollectingScanSink.toMcpFinding(entry.getValue()));
+            }
+        }
+
+        Map<String, Object> diff = new HashMap<>();
+        diff.put("new", added);
+        diff.put("resolved", resolved);
+        diff.put("unchanged", unchanged);
+        diff.put("newCount", added.size());
+        diff.put("resolvedCount", resolved.size());
+        diff.put("unchangedCount", unchanged.size());
+        return diff;
+    }
+
+    private static String diffKey(ScanDetail detail) {
+        return detail.getTemplateId() + '\u0000' + detail.getMatchedAt() + '\u0000' + detail.getMatcherName();
+    }
+}
@@ -0,0 +1,397 @@
+package com.fast.trust.scan.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 스캔 하나의 SSE 이벤트를 여러 구독자에게 전달
+ * 스캔 루프는 일반 SseEmitter 처럼 send / complete 만 호출하면 된다
+ * - 모든 이벤트에 1 부터 증가하는 id 부여, 최근 bufferSize 개는 링 버퍼에 보관
+ * - 새 구독자 / 재연결(Last-Event-ID) 구독자에게는 버퍼의 이후 이벤트를 먼저 재전송
+ * - 구독자마다 전송 대기열(subscriberQueueCapacity)을 두고 sendExecutor 에서 전송 → send 는 소켓 I/O 를 기다리지 않는다
+ * - 전송 실패 / 대기열이 가득 찬(뒤처진) 구독자만 제외하고 스캔은 계속 진행 (scan.sse.send.failures)
+ * - 구독자가 모두 떠난 뒤 유예 시간 안에 아무도 돌아오지 않으면 onAbandoned (스캔 취소)
+ * 상태는 lock 으로 보호하되 lock 을 잡은 채로 전송하지 않는다
+ */
+@Slf4j
+public class ScanBroadcast extends SseEmitter {
+
+    private final ScanEventHub hub;
+    private final String key;
+    private final String scanId;
+    private final int bufferSize;
+    private final int subscriberQueueCapacity;
+    private final long abandonGraceMillis;
+    private final Executor sendExecutor;
+    private final ScanMetrics.Stage metrics;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<BufferedEvent> buffer = new ArrayDeque<>();
+    private final List<Subscriber> subscribers = new ArrayList<>();
+    private long lastEventId;
+    private boolean finished;
+    private long finishedAt;
+    private Runnable onAbandoned;
+
+    ScanBroadcast(ScanEventHub hub, String key, String scanId, int bufferSize, int subscriberQueueCapacity,
+                  long abandonGraceMillis, Executor sendExecutor, ScanMetrics.Stage metrics) {
+        this.hub = hub;
+        this.key = key;
+        this.scanId = scanId;
+        this.bufferSize = bufferSize;
+        this.subscriberQueueCapacity = subscriberQueueCapacity;
+        this.abandonGraceMillis = abandonGraceMillis;
+        this.sendExecutor = sendExecutor;
+        this.metrics = metrics;
+    }
+
+    public String getScanId() {
+        return scanId;
+    }
+
+    /**
+     * 진행 중일 때만 합류
+     * @param afterEventId 이 id 이후 이벤트부터 재전송 (처음부터는 0)
+     * @return 이미 끝난 스캔이면 false
+     */
+    boolean join(SseEmitter subscriber, long afterEventId) {
+        lock.lock();
+        try {
+            if (finished) {
+                return false;
+            }
+            add(subscriber, afterEventId);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 재연결 구독 (끝난 스캔이면 버퍼만 재전송하고 종료)
+     */
+    void resume(SseEmitter subscriber, long afterEventId) {
+        lock.lock();
+        try {
+            Subscriber added = add(subscriber, afterEventId);
+            if (finished) {
+                subscribers.remove(added);
+                added.finish(null);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 모든 구독자가 연결을 끊었을 때 실행 (진행 중일 때만)
+     * 등록 전에 이미 모두 떠났으면 그 시점부터 유예 시간을 다시 잰다
+     */
+    public void onAbandoned(Runnable action) {
+        lock.lock();
+        try {
+            this.onAbandoned = action;
+            checkAbandoned();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getSubscriberCount() {
+        lock.lock();
+        try {
+            return subscribers.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean isExpired(long retainMillis) {
+        lock.lock();
+        try {
+            return finished && System.currentTimeMillis() - finishedAt > retainMillis;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void send(SseEventBuilder builder) {
+        lock.lock();
+        try {
+            long id = ++lastEventId;
+            Set<DataWithMediaType> items = builder.id(Long.toString(id)).build();
+
+            buffer.addLast(new BufferedEvent(id, items));
+            if (buffer.size() > bufferSize) {
+                buffer.removeFirst();
+            }
+
+            boolean dropped = false;
+            for (Subscriber subscriber : new ArrayList<>(subscribers)) {
+                if (!subscriber.offer(items)) {
+                    // 전송이 대기열 크기만큼 뒤처진 구독자는 끊는다 (Last-Event-ID 로 재연결 가능)
+                    log.debug("SSE subscriber of scan {} fell behind, disconnecting", scanId);
+                    metrics.sendFailed();
+                    subscribers.remove(subscriber);
+                    subscriber.finish(new IOException("SSE subscriber fell behind"));
+                    dropped = true;
+                }
+            }
+            if (dropped) {
+                checkAbandoned();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void complete() {
+        finish(null);
+    }
+
+    @Override
+    public void completeWithError(Throwable ex) {
+        finish(ex);
+    }
+
+    private void finish(Throwable ex) {
+        lock.lock();
+        try {
+            finished = true;
+            finishedAt = System.currentTimeMillis();
+            hub.release(key, this);
+            subscribers.forEach(subscriber -> subscriber.finish(ex));
+            subscribers.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 구독자 등록 + 버퍼의 afterEventId 이후 이벤트를 전송 대기열에 넣는다 (lock 안에서 호출)
+     */
+    private Subscriber add(SseEmitter emitter, long afterEventId) {
+        Subscriber subscriber = new Subscriber(emitter);
+
+        BufferedEvent oldest = buffer.peekFirst();
+        if (oldest != null && afterEventId < oldest.id() - 1) {
+            // 링 버퍼에서 밀려난 이벤트는 복구할 수 없음을 알린다
+            subscriber.replay(SseEmitter.event()
+                    .name("warning")
+                    .data(Map.of(
+                            "type", "replay_gap",
+                            "missedFrom", afterEventId + 1,
+                            "missedTo", oldest.id() - 1
+                    ))
+                    .build());
+        }
+        for (BufferedEvent event : buffer) {
+            if (event.id() > afterEventId) {
+                subscriber.replay(event.items());
+            }
+        }
+
+        subscribers.add(subscriber);
+        // 클라이언트 연결 종료 / 타임아웃 / 오류 시 구독 해제
+        emitter.onCompletion(() -> leave(subscriber));
+        emitter.onTimeout(() -> leave(subscriber));
+        emitter.onError(ex -> leave(subscriber));
+        return subscriber;
+    }
+
+    private void leave(Subscriber subscriber) {
+        lock.lock();
+        try {
+            subscriber.close();
+            if (subscribers.remove(subscriber)) {
+                checkAbandoned();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 구독자가 없으면 유예 시간 뒤 다시 확인 (그사이 Last-Event-ID 로 재연결하면 계속 진행, lock 안에서 호출)
+     */
+    private void checkAbandoned() {
+        if (finished || !subscribers.isEmpty() || onAbandoned == null) {
+            return;
+        }
+        CompletableFuture.delayedExecutor(abandonGraceMillis, TimeUnit.MILLISECONDS).execute(() -> {
+            Runnable action;
+            lock.lock();
+            try {
+                if (finished || !subscribers.isEmpty()) {
+                    return;
+                }
+                action = onAbandoned;
+            } finally {
+                lock.unlock();
+            }
+            log.info("All subscribers of scan {} disconnected, cancelling", scanId);
+            action.run();
+        });
+    }
+
+    /**
+     * 구독자 하나의 전송 대기열
+     * 한 번에 하나의 전송 작업만 sendExecutor 에서 대기열을 비운다 (이벤트 순서 유지)
+     */
+    private class Subscriber {
+        private final SseEmitter emitter;
+        private final ReentrantLock queueLock = new ReentrantLock();
+        private final Deque<Set<DataWithMediaType>> queue = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+        private boolean finishing;
+        private Throwable finishError;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * @return 대기열이 가득 차 받을 수 없으면 false
+         */
+        boolean offer(Set<DataWithMediaType> items) {
+            queueLock.lock();
+            try {
+                if (closed || finishing) {
+                    return true;
+                }
+                if (queue.size() >= subscriberQueueCapacity) {
+                    return false;
+                }
+                queue.addLast(items);
+                scheduleDrain();
+                return true;
+            } finally {
+                queueLock.unlock();
+            }
+        }
+
+        /**
+         * 재전송 이벤트는 대기열 크기와 관계없이 넣는다 (버퍼 크기로 이미 제한됨)
+         */
+        void replay(Set<DataWithMediaType> items) {
+            queueLock.lock();
+            try {
+                queue.addLast(items);
+                scheduleDrain();
+            } finally {
+                queueLock.unlock();
+            }
+        }
+
+        /**
+         * 남은 이벤트를 보낸 뒤 종료 (ex 가 있으면 오류 종료, 뒤처져 끊는 경우는 남은 이벤트를 버림)
+         */
+        void finish(Throwable ex) {
+            queueLock.lock();
+            try {
+                if (closed || finishing) {
+                    return;
+                }
+                finishing = true;
+                finishError = ex;
+                if (ex instanceof IOException) {
+                    queue.clear();
+                }
+                scheduleDrain();
+            } finally {
+                queueLock.unlock();
+            }
+        }
+
+        /**
+         * 연결이 이미 끊김: 남은 이벤트는 버린다
+         */
+        void close() {
+            queueLock.lock();
+            try {
+                closed = true;
+                queue.clear();
+            } finally {
+                queueLock.unlock();
+            }
+        }
+
+        private void scheduleDrain() {
+            if (draining) {
+                return;
+            }
+            draining = true;
+            try {
+                sendExecutor.execute(this::drain);
+            } catch (RuntimeException e) {
+                draining = false;
+                log.warn("Failed to schedule SSE send for scan {}: {}", scanId, e.getMessage());
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Set<DataWithMediaType> items;
+                boolean complete = false;
+                Throwable error = null;
+                queueLock.lock();
+                try {
+                    items = closed ? null : queue.pollFirst();
+                    if (items == null) {
+                        draining = false;
+                        if (finishing && !closed) {
+                            closed = true;
+                            complete = true;
+                            error = finishError;
+                        } else {
+                            return;
+                        }
+                    }
+                } finally {
+                    queueLock.unlock();
+                }
+
+                if (complete) {
+                    if (error != null) {
+                        emitter.completeWithError(error);
+                    } else {
+                        emitter.complete();
+                    }
+                    return;
+                }
+                if (!deliver(items)) {
+                    leave(this);
+                    return;
+                }
+            }
+        }
+
+        private boolean deliver(Set<DataWithMediaType> items) {
+            try {
+                emitter.send(items);
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping SSE subscriber of scan {}: {}", scanId, e.getMessage());
+                metrics.sendFailed();
+                return false;
+            }
+        }
+    }
+
+    private record BufferedEvent(long id, Set<DataWithMediaType> items) {
+    }
+}
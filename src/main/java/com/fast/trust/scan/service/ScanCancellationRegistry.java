@@ -0,0 +1,136 @@
+package com.fast.trust.scan.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 대기 / 실행 중인 스캔의 취소 핸들 (scanId 기준)
+ * 등록 / 해제는 한 번에 (배치의 scanId 들이 서로 다른 핸들에 섞이지 않도록), 조회 / 취소는 잠금 없이
+ * 취소되면 등록된 취소 동작(대기열 제거, AI 작업 중단 등)을 실행하고 nuclei 프로세스 트리를 종료한다
+ */
+@Component
+@Slf4j
+public class ScanCancellationRegistry {
+
+    private final Map<String, Handle> handles = new ConcurrentHashMap<>();
+
+    /**
+     * 대상 scanId 들의 핸들 (같은 scanId 들로 이미 등록되어 있으면 그 핸들)
+     * 일부 scanId 만 다른 핸들에 등록되어 있으면 아무것도 등록하지 않고 IllegalStateException
+     */
+    public synchronized Handle register(List<String> scanIds) {
+        Handle existing = handles.get(scanIds.get(0));
+        if (existing != null && existing.scanIds.equals(scanIds)) {
+            return existing;
+        }
+        for (String scanId : scanIds) {
+            if (handles.containsKey(scanId)) {
+                throw new IllegalStateException("Scan already registered: " + scanId);
+            }
+        }
+        Handle created = new Handle(scanIds);
+        scanIds.forEach(scanId -> handles.put(scanId, created));
+        return created;
+    }
+
+    public Optional<Handle> find(String scanId) {
+        return Optional.ofNullable(handles.get(scanId));
+    }
+
+    /**
+     * @return 대기 / 실행 중이던 스캔이면 true
+     */
+    public boolean cancel(String scanId) {
+        Handle handle = handles.get(scanId);
+        return handle != null && handle.cancel();
+    }
+
+    public synchronized void unregister(Handle handle) {
+        for (String scanId : handle.scanIds) {
+            handles.remove(scanId, handle);
+        }
+    }
+
+    /**
+     * nuclei 와 nuclei 가 띄운 하위 프로세스(headless 브라우저 등)까지 종료
+     */
+    public static void destroyTree(Process process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+
+    /**
+     * 스캔 작업 하나의 취소 상태
+     */
+    public static class Handle {
+        private final List<String> scanIds;
+        private final AtomicBoolean claimed = new AtomicBoolean(false);
+        private final List<Runnable> onCancel = new CopyOnWriteArrayList<>();
+        private volatile boolean cancelled;
+        private Process process;
+
+        private Handle(List<String> scanIds) {
+            this.scanIds = List.copyOf(scanIds);
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * 실행 시작 또는 대기 중 취소 처리 중 먼저 호출한 쪽만 true (둘 중 하나만 진행)
+         */
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        /**
+         * 취소 시 실행 (이미 취소되었으면 바로 실행, 경합 시 두 번 실행될 수 있어 멱등이어야 한다)
+         */
+        public void onCancel(Runnable action) {
+            onCancel.add(action);
+            if (cancelled) {
+                run(action);
+            }
+        }
+
+        synchronized void attach(Process process) {
+            this.process = process;
+            if (cancelled) {
+                destroyTree(process);
+            }
+        }
+
+        public boolean cancel() {
+            Process running;
+            synchronized (this) {
+                if (cancelled) {
+                    return false;
+                }
+                cancelled = true;
+                running = process;
+            }
+            log.info("Cancelling scan {}", scanIds);
+            onCancel.forEach(this::run);
+            if (running != null && running.isAlive()) {
+                destroyTree(running);
+            }
+            return true;
+        }
+
+        private void run(Runnable action) {
+            try {
+                action.run();
+            } catch (Exception e) {
+                log.warn("Scan cancel action failed for {}: {}", scanIds, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.fast.trust.scan.service;
+
+import com.fast.trust.scan.entity.ScanDetail;
+import com.fast.trust.scan.repository.ScanDetailRepository;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * ScanDetail write-behind 버퍼 생성 / 주기 flush
+ * 건수(scan.persist.batch-size) 또는 시간(scan.persist.flush-interval-ms) 기준으로 saveAll → JDBC 배치 insert
+ * nuclei 원본 결과는 RawSegmentStore 에 기록
+ * - 저장 / onPersisted 콜백은 스캔(버퍼)마다 순서대로 scanPersistExecutor 에서 실행 → 느린 스캔이 다른 스캔을 막지 않는다
+ * - 주기 flush 스레드는 배치를 넘기기만 하고 I/O 는 하지 않는다
+ */
+@Component
+@Slf4j
+public class ScanDetailWriter {
+
+    // 저장 대기 배치가 이보다 많으면 add 하는 스캔 스레드가 기다린다 (DB 가 느릴 때 메모리에 쌓이지 않도록)
+    private static final int MAX_PENDING_BATCHES = 2;
+
+    private final ScanDetailRepository scanDetailRepository;
+    private final RawSegmentStore rawSegmentStore;
+    private final Executor persistExecutor;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final Set<Buffer> buffers = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "scan-detail-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ScanDetailWriter(
+            ScanDetailRepository scanDetailRepository,
+            RawSegmentStore rawSegmentStore,
+            @Qualifier("scanPersistExecutor") Executor persistExecutor,
+            @Value("${scan.persist.batch-size:50}") int batchSize,
+            @Value("${scan.persist.flush-interval-ms:500}") long flushIntervalMs
+    ) {
+        this.scanDetailRepository = scanDetailRepository;
+        this.rawSegmentStore = rawSegmentStore;
+        this.persistExecutor = persistExecutor;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        flusher.scheduleWithFixedDelay(this::flushDue, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public Buffer open() {
+        return open(null);
+    }
+
+    /**
+     * @param saveTimer 배치 저장 지연 기록용 (없으면 null)
+     */
+    public Buffer open(Timer saveTimer) {
+        Buffer buffer = new Buffer(saveTimer);
+        buffers.add(buffer);
+        return buffer;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        buffers.forEach(Buffer::close);
+    }
+
+    private void flushDue() {
+        for (Buffer buffer : buffers) {
+            try {
+                buffer.flushIfDue();
+            } catch (Exception e) {
+                log.error("Scheduled ScanDetail flush failed", e);
+            }
+        }
+    }
+
+    /**
+     * 스캔 하나의 write-behind 버퍼
+     * onPersisted 콜백은 ID 가 부여된 뒤 추가된 순서대로 호출된다
+     */
+    public class Buffer implements AutoCloseable {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final List<ScanDetail> pending = new ArrayList<>();
+        private final List<Consumer<ScanDetail>> callbacks = new ArrayList<>();
+        private final AtomicInteger pendingBatches = new AtomicInteger();
+        private final Timer saveTimer;
+        private long lastFlushAt = System.currentTimeMillis();
+        // 이 버퍼의 마지막 저장 작업 (다음 배치는 그 뒤에 이어서 실행)
+        private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+
+        private Buffer(Timer saveTimer) {
+            this.saveTimer = saveTimer;
+        }
+
+        public void add(ScanDetail detail, Consumer<ScanDetail> onPersisted) {
+            CompletableFuture<Void> backlog = null;
+            lock.lock();
+            try {
+                pending.add(detail);
+                callbacks.add(onPersisted != null ? onPersisted : d -> {});
+                if (pending.size() >= batchSize) {
+                    enqueue();
+                    if (pendingBatches.get() > MAX_PENDING_BATCHES) {
+                        backlog = tail;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (backlog != null) {
+                await(backlog);
+            }
+        }
+
+        public void add(ScanDetail detail) {
+            add(detail, null);
+        }
+
+        /**
+         * 남은 항목을 저장하고 이 버퍼의 저장 / 콜백이 모두 끝날 때까지 대기
+         */
+        public void flush() {
+            CompletableFuture<Void> last;
+            lock.lock();
+            try {
+                enqueue();
+                last = tail;
+            } finally {
+                lock.unlock();
+            }
+            await(last);
+        }
+
+        private void flushIfDue() {
+            lock.lock();
+            try {
+                if (!pending.isEmpty() && System.currentTimeMillis() - lastFlushAt >= flushIntervalMs) {
+                    enqueue();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * 남은 항목을 flush 하고 주기 flush 대상에서 제외
+         */
+        @Override
+        public void close() {
+            buffers.remove(this);
+            flush();
+        }
+
+        /**
+         * 쌓인 항목을 배치 하나로 떼어 저장 작업 뒤에 잇는다 (lock 안에서 호출)
+         */
+        private void enqueue() {
+            lastFlushAt = System.currentTimeMillis();
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            List<ScanDetail> batch = new ArrayList<>(pending);
+            List<Consumer<ScanDetail>> batchCallbacks = new ArrayList<>(callbacks);
+            pending.clear();
+            callbacks.clear();
+
+            pendingBatches.incrementAndGet();
+            // 앞 배치가 실패해도 다음 배치는 실행
+            tail = tail.exceptionally(ex -> null).thenRunAsync(() -> {
+                try {
+                    persist(batch, batchCallbacks);
+                } finally {
+                    pendingBatches.decrementAndGet();
+                }
+            }, persistExecutor);
+        }
+
+        private void persist(List<ScanDetail> batch, List<Consumer<ScanDetail>> batchCallbacks) {
+            long startedAt = System.nanoTime();
+            Set<ScanDetail> saved = Collections.newSetFromMap(new IdentityHashMap<>());
+            saved.addAll(saveBatch(batch));
+            if (saveTimer != null) {
+                saveTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            }
+
+            for (int i = 0; i < batch.size(); i++) {
+                ScanDetail detail = batch.get(i);
+                if (!saved.contains(detail)) {
+                    continue;
+                }
+                try {
+                    batchCallbacks.get(i).accept(detail);
+                } catch (Exception e) {
+                    log.warn("ScanDetail persisted callback failed: {}", e.getMessage());
+                }
+            }
+        }
+
+        private void await(CompletableFuture<Void> future) {
+            try {
+                future.join();
+            } catch (CompletionException | CancellationException e) {
+                log.error("ScanDetail persist task failed: {}", e.getMessage());
+            }
+        }
+
+        private List<ScanDetail> saveBatch(List<ScanDetail> batch) {
+            // 원본 결과는 세그먼트 파일에 한 번에 append, 행에는 위치만
+            appendRaw(batch);
+            try {
+                scanDetailRepository.saveAll(batch);
+                log.debug("Flushed {} ScanDetail rows", batch.size());
+                return batch;
+            } catch (Exception e) {
+                // 배치 실패 시 건별로 다시 저장해 문제 행만 제외
+                log.error("Batch insert of {} ScanDetail rows failed, retrying one by one: {}",
+                        batch.size(), e.getMessage());
+                List<ScanDetail> saved = new ArrayList<>();
+                for (ScanDetail detail : batch) {
+                    try {
+                        // 실패한 배치에서 시퀀스 ID 가 이미 부여되어 save 가 merge 로 가지 않도록 초기화
+                        detail.setId(null);
+                        scanDetailRepository.save(detail);
+                        saved.add(detail);
+                    } catch (Exception ex) {
+                        log.error("Failed to save ScanDetail: {}", ex.getMessage(), ex);
+                    }
+                }
+                return saved;
+            }
+        }
+
+        /**
+         * 세그먼트 기록에 실패한 행은 원본을 rawInline 으로 행에 남긴다 (배치는 그대로 저장)
+         */
+        private void appendRaw(List<ScanDetail> batch) {
+            try {
+                rawSegmentStore.appendFindings(batch);
+            } catch (RuntimeException e) {
+                log.error("Raw segment append of {} ScanDetail rows failed, keeping raw results inline: {}",
+                        batch.size(), e.getMessage());
+            }
+            for (ScanDetail detail : batch) {
+                if (detail.getFullResult() != null && detail.getRawOffset() == null) {
+                    detail.setRawInline(detail.getFullResult());
+                }
+            }
+        }
+    }
+}
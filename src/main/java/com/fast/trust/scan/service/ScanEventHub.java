@@ -0,0 +1,96 @@
+package com.fast.trust.scan.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * 스트리밍 스캔 이벤트 허브
+ * - 같은 대상(모드 + 정규화 URL)에 대한 동시 스캔을 하나로 합치는 single-flight
+ * - scanId 로 재구독(Last-Event-ID) 할 수 있도록 끝난 스캔도 scan.events.retain-seconds 동안 보관
+ * - 구독자별 전송은 sseSendExecutor 에서 (구독자당 대기열 scan.events.subscriber-queue-capacity)
+ */
+@Component
+public class ScanEventHub {
+
+    private final int bufferSize;
+    private final int subscriberQueueCapacity;
+    private final long retainMillis;
+    private final long abandonGraceMillis;
+    private final Executor sendExecutor;
+    private final Map<String, ScanBroadcast> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, ScanBroadcast> byScanId = new ConcurrentHashMap<>();
+
+    public ScanEventHub(
+            @Value("${scan.events.buffer-size:1000}") int bufferSize,
+            @Value("${scan.events.retain-seconds:300}") long retainSeconds,
+            @Value("${scan.events.subscriber-queue-capacity:1000}") int subscriberQueueCapacity,
+            @Value("${scan.events.abandon-grace-seconds:5}") long abandonGraceSeconds,
+            @Qualifier("sseSendExecutor") Executor sendExecutor
+    ) {
+        this.bufferSize = bufferSize;
+        this.subscriberQueueCapacity = subscriberQueueCapacity;
+        this.sendExecutor = sendExecutor;
+        this.retainMillis = retainSeconds * 1000;
+        this.abandonGraceMillis = abandonGraceSeconds * 1000;
+    }
+
+    /**
+     * 진행 중인 스캔이 있으면 구독자로 합류, 없으면 새 broadcast 를 만들어 owner 로 반환
+     * owner 만 실제 스캔을 시작해야 하며, scanId 는 broadcast 의 것을 사용한다
+     * @param metrics 구독자 전송 실패 집계용 (새 broadcast 를 만들 때만 사용)
+     */
+    public Attachment attach(String key, SseEmitter subscriber, long afterEventId, ScanMetrics.Stage metrics) {
+        purgeExpired();
+
+        while (true) {
+            ScanBroadcast existing = inFlight.get(key);
+            if (existing != null) {
+                if (existing.join(subscriber, afterEventId)) {
+                    return new Attachment(existing, false);
+                }
+                // 조회와 합류 사이에 끝난 스캔
+                inFlight.remove(key, existing);
+                continue;
+            }
+
+            ScanBroadcast created = new ScanBroadcast(this, key, UUID.randomUUID().toString(), bufferSize,
+                    subscriberQueueCapacity, abandonGraceMillis, sendExecutor, metrics);
+            if (inFlight.putIfAbsent(key, created) == null) {
+                byScanId.put(created.getScanId(), created);
+                created.join(subscriber, 0);
+                return new Attachment(created, true);
+            }
+        }
+    }
+
+    /**
+     * 진행 중이거나 최근 끝난 스캔의 broadcast
+     */
+    public Optional<ScanBroadcast> find(String scanId) {
+        purgeExpired();
+        return Optional.ofNullable(byScanId.get(scanId));
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    void release(String key, ScanBroadcast broadcast) {
+        inFlight.remove(key, broadcast);
+    }
+
+    private void purgeExpired() {
+        byScanId.values().removeIf(broadcast -> broadcast.isExpired(retainMillis));
+    }
+
+    public record Attachment(ScanBroadcast broadcast, boolean owner) {
+    }
+}
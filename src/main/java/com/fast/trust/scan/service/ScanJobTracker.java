@@ -0,0 +1,229 @@
+package com.fast.trust.scan.service;
+
+import com.fast.trust.scan.dto.ScanScoreResult;
+import com.fast.trust.scan.entity.ScanDetail;
+import com.fast.trust.scan.entity.ScanMaster;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 비동기 스캔(MCP start_scan) 진행 상태
+ * - scan_status 가 조회하는 진행률 / 최근 결과 / 실시간 점수를 메모리에 보관
+ * - 같은 대상이 진행 중이면 새로 시작하지 않고 그 작업을 돌려준다
+ * - 끝난 작업은 scan.jobs.retain-seconds 동안만 보관 (이후는 DB 로 조회)
+ */
+@Component
+@Slf4j
+public class ScanJobTracker {
+
+    private final int partialFindings;
+    private final long retainMillis;
+    private final long notifyIntervalMillis;
+    private final Map<String, TrackedScan> byScanId = new ConcurrentHashMap<>();
+    private final Map<String, TrackedScan> activeByUrl = new ConcurrentHashMap<>();
+
+    public ScanJobTracker(
+            @Value("${scan.jobs.partial-findings:20}") int partialFindings,
+            @Value("${scan.jobs.retain-seconds:600}") long retainSeconds,
+            @Value("${scan.jobs.notify-interval-ms:1000}") long notifyIntervalMillis
+    ) {
+        this.partialFindings = partialFindings;
+        this.retainMillis = retainSeconds * 1000;
+        this.notifyIntervalMillis = notifyIntervalMillis;
+    }
+
+    /**
+     * 같은 대상(정규화 URL + 프로필)의 진행 중 작업이 있으면 그 작업, 없으면 scanMaster 로 새 작업 등록
+     */
+    public Registration register(ScanMaster scanMaster) {
+        purgeExpired();
+
+        String key = scanMaster.getScanProfile() + ":" + scanMaster.getTargetUrl();
+        TrackedScan created = new TrackedScan(scanMaster.getId(), scanMaster.getTargetUrl(), key);
+        TrackedScan existing = activeByUrl.putIfAbsent(key, created);
+        if (existing != null) {
+            return new Registration(existing, false);
+        }
+        byScanId.put(created.scanId, created);
+        return new Registration(created, true);
+    }
+
+    public Optional<TrackedScan> find(String scanId) {
+        purgeExpired();
+        return Optional.ofNullable(byScanId.get(scanId));
+    }
+
+    private void purgeExpired() {
+        long now = System.currentTimeMillis();
+        byScanId.values().removeIf(scan -> scan.finishedAt > 0 && now - scan.finishedAt > retainMillis);
+    }
+
+    public record Registration(TrackedScan scan, boolean created) {
+    }
+
+    /**
+     * 작업 하나의 상태, 파이프라인 sink 로 갱신된다
+     */
+    public class TrackedScan implements ScanSink {
+        private final String scanId;
+        private final String targetUrl;
+        private final String key;
+        private final Deque<Map<String, Object>> recentFindings = new ArrayDeque<>();
+        private final List<Consumer<Map<String, Object>>> listeners = new CopyOnWriteArrayList<>();
+        private String status = "QUEUED";
+        private Integer queuePosition;
+        private String percent;
+        private ScanScoreResult score;
+        private int findingCount;
+        private String message;
+        private volatile long finishedAt;
+        private long lastNotifiedAt;
+
+        private TrackedScan(String scanId, String targetUrl, String key) {
+            this.scanId = scanId;
+            this.targetUrl = targetUrl;
+            this.key = key;
+        }
+
+        public String getScanId() {
+            return scanId;
+        }
+
+        /**
+         * 상태가 바뀔 때 호출 (진행 중 갱신은 scan.jobs.notify-interval-ms 간격으로 묶음)
+         */
+        public void addListener(Consumer<Map<String, Object>> listener) {
+            listeners.add(listener);
+        }
+
+        public void onQueuePosition(int position) {
+            synchronized (this) {
+                queuePosition = position;
+            }
+            notifyListeners(false);
+        }
+
+        @Override
+        public void onStart(ScanMaster scanMaster) {
+            synchronized (this) {
+                status = "RUNNING";
+                queuePosition = null;
+            }
+            notifyListeners(true);
+        }
+
+        @Override
+        public void onFinding(ScanDetail detail) {
+            synchronized (this) {
+                findingCount++;
+                recentFindings.addLast(CollectingScanSink.toMcpFinding(detail));
+                if (recentFindings.size() > partialFindings) {
+                    recentFindings.removeFirst();
+                }
+            }
+            notifyListeners(false);
+        }
+
+        @Override
+        public void onProgress(String percent, ScanScoreResult liveScore) {
+            synchronized (this) {
+                this.percent = percent;
+                this.score = liveScore;
+            }
+            notifyListeners(false);
+        }
+
+        @Override
+        public void onComplete(ScanPipeline.Result result) {
+            synchronized (this) {
+                status = result.timedOut() ? "TIMED_OUT" : "DONE";
+                percent = "100";
+                score = result.single().score();
+                findingCount = result.single().findingCount();
+            }
+            finish();
+        }
+
+        @Override
+        public void onError(ScanPipeline.Result result, Exception e) {
+            synchronized (this) {
+                status = "ERROR";
+                message = e.getMessage();
+            }
+            finish();
+        }
+
+        @Override
+        public void onCancel(ScanPipeline.Result result) {
+            synchronized (this) {
+                status = "CANCELLED";
+                queuePosition = null;
+            }
+            finish();
+        }
+
+        /**
+         * 대기열이 가득 차는 등 시작하지 못한 경우
+         */
+        public void fail(Exception e) {
+            onError(null, e);
+        }
+
+        public synchronized Map<String, Object> toStatus() {
+            Map<String, Object> response = new HashMap<>();
+            response.put("scanId", scanId);
+            response.put("url", targetUrl);
+            response.put("status", status);
+            response.put("queuePosition", queuePosition);
+            response.put("percent", percent);
+            response.put("totalFindings", findingCount);
+            response.put("score", score != null ? score.score() : null);
+            response.put("grade", score != null ? score.grade() : null);
+            response.put("recentFindings", new ArrayList<>(recentFindings));
+            if (message != null) {
+                response.put("message", message);
+            }
+            return response;
+        }
+
+        private void finish() {
+            finishedAt = System.currentTimeMillis();
+            activeByUrl.remove(key, this);
+            notifyListeners(true);
+        }
+
+        private void notifyListeners(boolean force) {
+            if (listeners.isEmpty()) {
+                return;
+            }
+            Map<String, Object> snapshot;
+            synchronized (this) {
+                long now = System.currentTimeMillis();
+                if (!force && now - lastNotifiedAt < notifyIntervalMillis) {
+                    return;
+                }
+                lastNotifiedAt = now;
+                snapshot = toStatus();
+            }
+            for (Consumer<Map<String, Object>> listener : listeners) {
+                try {
+                    listener.accept(snapshot);
+                } catch (Exception e) {
+                    log.debug("Failed to notify scan {} listener: {}", scanId, e.getMessage());
+                }
+            }
+        }
+    }
+}
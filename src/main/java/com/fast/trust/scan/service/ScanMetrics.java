@@ -0,0 +1,160 @@
+package com.fast.trust.scan.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 스캔 파이프라인 단계별 Micrometer 지표 (/actuator/prometheus)
+ * 모든 지표는 mode 태그(stream / streamAi / mcp / batch / reactive)로 구분한다
+ */
+@Component
+public class ScanMetrics {
+
+    public enum Mode {
+        STREAM("stream"),
+        STREAM_AI("streamAi"),
+        MCP("mcp"),
+        BATCH("batch"),
+        REACTIVE("reactive");
+
+        private final String tag;
+
+        Mode(String tag) {
+            this.tag = tag;
+        }
+
+        public String tag() {
+            return tag;
+        }
+    }
+
+    private final Map<Mode, Stage> stages = new EnumMap<>(Mode.class);
+
+    public ScanMetrics(MeterRegistry meterRegistry, ScanScheduler scanScheduler) {
+        Gauge.builder("scan.queue.depth", scanScheduler, ScanScheduler::getQueued)
+                .description("Scans waiting for a scheduler slot")
+                .register(meterRegistry);
+        Gauge.builder("scan.running", scanScheduler, ScanScheduler::getRunning)
+                .description("Scans holding a scheduler slot")
+                .register(meterRegistry);
+
+        for (Mode mode : Mode.values()) {
+            stages.put(mode, new Stage(meterRegistry, mode.tag()));
+        }
+    }
+
+    public Stage of(Mode mode) {
+        return stages.get(mode);
+    }
+
+    /**
+     * 모드 하나에 대한 지표 묶음
+     */
+    public static class Stage {
+        private final Timer processSpawn;
+        private final Timer firstOutput;
+        private final Counter linesParsed;
+        private final Counter parseFailures;
+        private final Timer detailSave;
+        private final Timer sseSend;
+        private final Counter sseSendFailures;
+        private final AtomicInteger activeProcesses = new AtomicInteger();
+
+        private Stage(MeterRegistry registry, String mode) {
+            this.processSpawn = Timer.builder("nuclei.process.spawn")
+                    .description("Time to start the nuclei process")
+                    .tag("mode", mode)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            this.firstOutput = Timer.builder("nuclei.first.output")
+                    .description("Time from process start to the first output line")
+                    .tag("mode", mode)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            this.linesParsed = Counter.builder("nuclei.lines.parsed")
+                    .description("nuclei output lines parsed")
+                    .tag("mode", mode)
+                    .register(registry);
+            this.parseFailures = Counter.builder("nuclei.parse.failures")
+                    .description("nuclei output lines that failed to parse")
+                    .tag("mode", mode)
+                    .register(registry);
+            this.detailSave = Timer.builder("scan.detail.save")
+                    .description("ScanDetail batch save latency")
+                    .tag("mode", mode)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            this.sseSend = Timer.builder("scan.sse.send")
+                    .description("SSE event send latency")
+                    .tag("mode", mode)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            this.sseSendFailures = Counter.builder("scan.sse.send.failures")
+                    .description("SSE events that could not be sent")
+                    .tag("mode", mode)
+                    .register(registry);
+            Gauge.builder("nuclei.processes.active", activeProcesses, AtomicInteger::get)
+                    .description("Running nuclei processes")
+                    .tag("mode", mode)
+                    .register(registry);
+        }
+
+        /**
+         * nuclei 프로세스 시작 (기동 시간 기록, 종료 시 활성 수 감소)
+         */
+        public Process start(ProcessBuilder processBuilder) throws IOException {
+            long startedAt = System.nanoTime();
+            Process process = processBuilder.start();
+            processSpawn.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+
+            activeProcesses.incrementAndGet();
+            process.onExit().thenRun(activeProcesses::decrementAndGet);
+            return process;
+        }
+
+        public void firstOutput(long spawnedAtNanos) {
+            firstOutput.record(System.nanoTime() - spawnedAtNanos, TimeUnit.NANOSECONDS);
+        }
+
+        public void lineParsed() {
+            linesParsed.increment();
+        }
+
+        public void parseFailed() {
+            parseFailures.increment();
+        }
+
+        public Timer detailSave() {
+            return detailSave;
+        }
+
+        /**
+         * 구독자에게 보내지 못한 이벤트 (전송 실패 / 뒤처져 끊은 구독자)
+         */
+        public void sendFailed() {
+            sseSendFailures.increment();
+        }
+
+        public void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) throws IOException {
+            long startedAt = System.nanoTime();
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                sseSendFailures.increment();
+                throw e;
+            } finally {
+                sseSend.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
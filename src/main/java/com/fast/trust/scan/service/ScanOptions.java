@@ -0,0 +1,13 @@
+package com.fast.trust.scan.service;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 프로필이 적용된 nuclei 실행 옵션
+ * @param key         결과 재사용 / single-flight 구분용 (프로필 이름 + 지정 템플릿)
+ * @param args        nuclei 에 추가할 인자
+ * @param maxDuration 프로세스 전체 제한 (null 이면 호출 쪽 기본값)
+ */
+public record ScanOptions(String key, List<String> args, Duration maxDuration) {
+}
@@ -0,0 +1,574 @@
+package com.fast.trust.scan.service;
+
+import com.fast.trust.ai.service.AiAnalysisPipeline;
+import com.fast.trust.scan.dto.NucleiFinding;
+import com.fast.trust.scan.dto.NucleiLine;
+import com.fast.trust.scan.dto.ScanScoreResult;
+import com.fast.trust.scan.entity.ScanDetail;
+import com.fast.trust.scan.entity.ScanMaster;
+import com.fast.trust.scan.repository.ScanMasterRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * nuclei 스캔 파이프라인 (stream / streamAll / reactive / mcp / batch / rescan 공통)
+ * spawn → parse → route → dedupe → persist → enrich(AI) → emit(ScanSink)
+ * 단계 순서는 고정이고 진입점마다 다른 것은 ScanSink 뿐이다
+ * - parse / route / dedupe: 스캔 스레드에서 출력 순서대로 (dedupe / 점수 상태가 스캔마다 하나라 병렬화하지 않는다)
+ * - persist: ScanDetailWriter 배치 저장 (scan.persist.batch-size / flush-interval-ms, scanPersistExecutor)
+ * - enrich: AiAnalysisPipeline 워커 (ai.pipeline.workers / queue-capacity)
+ * - dedupe: 같은 template / 위치 / matcher / 추출값 결과는 한 번만 (scan.pipeline.dedupe)
+ * - spawn: -c / -bulk-size / -rate-limit 은 NucleiGovernor 가 실행 중인 스캔 수에 맞춰 배정
+ * - resources: NucleiResourceSampler 로 프로세스 CPU / RSS / I/O / 실행 시간을 ScanMaster 에 기록
+ *   상한 초과 시 종료하고 그때까지의 결과 / 점수를 저장한 뒤 RESOURCE_LIMIT (남은 AI 작업은 취소, sink 에는 onError)
+ * - cancel: ScanCancellationRegistry 로 대기 / 실행 중 취소 (프로세스 트리 종료, 남은 AI 작업 중단, CANCELLED)
+ */
+@Component
+@Slf4j
+public class ScanPipeline {
+
+    @Value("${nuclei.path}")
+    private String nucleiPath;
+
+    @Value("${scan.pipeline.dedupe:true}")
+    private boolean dedupe;
+
+    @Value("${ai.pipeline.drain-timeout-seconds:120}")
+    private long aiDrainTimeoutSeconds;
+
+    private final ScanMasterRepository scanMasterRepository;
+    private final ScanDetailWriter scanDetailWriter;
+    private final NucleiOutputParser nucleiOutputParser;
+    private final AiAnalysisPipeline aiAnalysisPipeline;
+    private final ScanMetrics scanMetrics;
+    private final NucleiGovernor nucleiGovernor;
+    private final ScanScheduler scanScheduler;
+    private final ScanCancellationRegistry cancellations;
+    private final NucleiResourceSampler resourceSampler;
+
+    public ScanPipeline(
+            ScanMasterRepository scanMasterRepository,
+            ScanDetailWriter scanDetailWriter,
+            NucleiOutputParser nucleiOutputParser,
+            AiAnalysisPipeline aiAnalysisPipeline,
+            ScanMetrics scanMetrics,
+            NucleiGovernor nucleiGovernor,
+            ScanScheduler scanScheduler,
+            ScanCancellationRegistry cancellations,
+            NucleiResourceSampler resourceSampler
+    ) {
+        this.scanMasterRepository = scanMasterRepository;
+        this.scanDetailWriter = scanDetailWriter;
+        this.nucleiOutputParser = nucleiOutputParser;
+        this.aiAnalysisPipeline = aiAnalysisPipeline;
+        this.scanMetrics = scanMetrics;
+        this.nucleiGovernor = nucleiGovernor;
+        this.scanScheduler = scanScheduler;
+        this.cancellations = cancellations;
+        this.resourceSampler = resourceSampler;
+    }
+
+    /**
+     * 슬롯을 얻어 실행 (대기 중에도 scanId 로 취소 가능)
+     * 대기 중 취소되면 대기열에서 빠지고, ScanMaster 를 CANCELLED 로 저장한 뒤 sink.onCancel
+     * 핸들은 결과 future 가 끝날 때까지 등록해 두고, 실행 / 대기 중 취소 처리는 같은 핸들을 claim 한 쪽만 진행한다
+     */
+    public CompletableFuture<Result> submit(ScanScheduler.Priority priority, Job job, ScanSink sink,
+                                            IntConsumer onQueuePosition) {
+        ScanCancellationRegistry.Handle handle = cancellations.register(scanIds(job));
+        CompletableFuture<Result> future;
+        try {
+            future = scanScheduler.submit(priority, () -> run(job, sink, handle), onQueuePosition);
+        } catch (RuntimeException e) {
+            cancellations.unregister(handle);
+            throw e;
+        }
+        future.whenComplete((result, ex) -> cancellations.unregister(handle));
+
+        handle.onCancel(() -> {
+            if (handle.claim()) {
+                // 아직 시작 전: 결과를 먼저 정해 실행되지 않게 하고, 스케줄러가 대기열에서 빼거나 슬롯을 반납한다
+                future.complete(cancelQueued(job, sink));
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 스캔 실행 (scanExecutor 에서 끝날 때까지 블로킹)
+     * 실패해도 예외를 던지지 않고 대상 ScanMaster 를 실패 처리한 뒤 Result.error 로 돌려준다
+     * 취소되면 대상 ScanMaster 를 CANCELLED 로 저장하고 Result.cancelled()
+     */
+    private Result run(Job job, ScanSink sink, ScanCancellationRegistry.Handle handle) {
+        if (!handle.claim()) {
+            // 대기 중 취소되어 이미 처리됨 (future 도 이미 완료)
+            return cancelledResult(job.targets().stream()
+                    .map(scanMaster -> new TargetResult(scanMaster, null, 0)).toList(), 0, 0);
+        }
+        List<String> targetUrls = job.targets().stream().map(ScanMaster::getTargetUrl).toList();
+        try (NucleiGovernor.Allocation allocation = nucleiGovernor.allocate(targetUrls)) {
+            return run(job, sink, handle, allocation);
+        }
+    }
+
+    private Result run(Job job, ScanSink sink, ScanCancellationRegistry.Handle handle,
+                       NucleiGovernor.Allocation allocation) {
+        ScanMetrics.Stage metrics = scanMetrics.of(job.mode());
+
+        Map<String, Target> targets = new LinkedHashMap<>();
+        for (ScanMaster scanMaster : job.targets()) {
+            scanMaster.setNucleiFlags(allocation.flags());
+            scanMasterRepository.save(scanMaster);
+            targets.put(scanMaster.getId(), new Target(scanMaster));
+            sink.onStart(scanMaster);
+        }
+        Target single = targets.size() == 1 ? targets.values().iterator().next() : null;
+
+        Process process = null;
+        BufferedReader reader = null;
+        Path targetFile = null;
+        CompletableFuture<Void> watchdog = null;
+        NucleiResourceSampler.Sampling sampling = null;
+        ScanDetailWriter.Buffer detailBuffer = scanDetailWriter.open(metrics.detailSave());
+        List<CompletableFuture<Void>> aiFutures = Collections.synchronizedList(new ArrayList<>());
+        // 취소 / 자원 상한 초과 시 아직 시작하지 않은 AI 작업은 모델 호출 없이 끝낸다
+        AtomicBoolean aiStopped = new AtomicBoolean();
+        BooleanSupplier aiCancelled = () -> handle.isCancelled() || aiStopped.get();
+        AtomicBoolean timedOut = new AtomicBoolean();
+        handle.onCancel(() -> cancelAi(aiFutures));
+        int lineNumber = 0;
+        int findingCount = 0;
+
+        try {
+            List<String> command = new ArrayList<>(List.of(nucleiPath));
+            if (single != null) {
+                command.addAll(List.of("-u", single.scanMaster.getTargetUrl()));
+            } else {
+                targetFile = Files.createTempFile("nuclei-targets-", ".txt");
+                Files.write(targetFile, job.targets().stream().map(ScanMaster::getTargetUrl).toList(),
+                        StandardCharsets.UTF_8);
+                command.addAll(List.of("-l", targetFile.toString()));
+            }
+            command.addAll(job.options().args());
+            command.addAll(allocation.args());
+            command.addAll(List.of("-jsonl", "-stats", "-silent"));
+
+            ProcessBuilder processBuilder = new ProcessBuilder(command);
+            processBuilder.redirectErrorStream(true);
+            process = metrics.start(processBuilder);
+            handle.attach(process);
+            sampling = resourceSampler.start(process);
+            long spawnedAt = System.nanoTime();
+
+            // 출력을 읽는 중에도 전체 제한 시간(프로필 max-duration)을 넘기면 종료, 그때까지의 결과로 TIMED_OUT
+            Process started = process;
+            watchdog = CompletableFuture.runAsync(() -> {
+                if (started.isAlive()) {
+                    log.warn("Nuclei process exceeded {}s, destroying", job.timeout().toSeconds());
+                    timedOut.set(true);
+                    ScanCancellationRegistry.destroyTree(started);
+                }
+            }, CompletableFuture.delayedExecutor(job.timeout().toMillis(), TimeUnit.MILLISECONDS));
+
+            reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8)
+            );
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1) {
+                    metrics.firstOutput(spawnedAt);
+                }
+
+                String cleanLine = NucleiOutputParser.stripAnsi(line);
+                try {
+                    NucleiLine parsed = nucleiOutputParser.parse(cleanLine);
+                    metrics.lineParsed();
+
+                    if (parsed.kind() == NucleiLine.Kind.FINDING) {
+                        if (accept(job, targets, single, parsed.finding(), detailBuffer, aiFutures, aiCancelled, sink)) {
+                            findingCount++;
+                        }
+                    } else if (parsed.kind() == NucleiLine.Kind.PROGRESS) {
+                        sink.onProgress(parsed.percent(), single != null ? single.score.result() : null);
+                    } else if (parsed.kind() == NucleiLine.Kind.TEXT) {
+                        log.debug("Text line {}: {}", lineNumber, cleanLine);
+                    }
+                } catch (JsonProcessingException e) {
+                    metrics.parseFailed();
+                    log.warn("Failed to parse JSON at line {}: {}", lineNumber, cleanLine);
+                    sink.onParseWarning(lineNumber, cleanLine, "JSON parse failed: " + e.getMessage());
+                } catch (Exception e) {
+                    log.error("Error processing line {}: {}", lineNumber, cleanLine, e);
+                    sink.onLineError(lineNumber, cleanLine, e.getMessage());
+                }
+            }
+
+            if (handle.isCancelled()) {
+                recordResources(targets, sampling, lineNumber);
+                return cancelRunning(targets, detailBuffer, lineNumber, findingCount, sink);
+            }
+
+            // ✅ 타임아웃 포함 대기
+            boolean finished = process.waitFor(job.timeout().toSeconds(), TimeUnit.SECONDS);
+            if (!finished) {
+                log.warn("Nuclei process timeout, forcibly destroying");
+                timedOut.set(true);
+                ScanCancellationRegistry.destroyTree(process);
+            }
+            sampling.close();
+            Optional<String> exceeded = sampling.exceeded();
+
+            // 점수 계산 / 완료 전에 남은 ScanDetail 저장, AI 결과 전송
+            // 자원 상한 초과면 결과 저장만 마치고 남은 AI 작업은 기다리지 않는다
+            detailBuffer.close();
+            if (exceeded.isPresent()) {
+                aiStopped.set(true);
+                cancelAi(aiFutures);
+            } else {
+                awaitAiResults(aiFutures);
+            }
+
+            recordResources(targets, sampling, lineNumber);
+            List<TargetResult> results = new ArrayList<>();
+            for (Target target : targets.values()) {
+                ScanScoreResult score = target.score.result();
+                if (exceeded.isPresent()) {
+                    target.scanMaster.stopOnResourceLimit(exceeded.get());
+                } else if (timedOut.get()) {
+                    target.scanMaster.timeOut("Scan exceeded max duration " + job.timeout().toSeconds()
+                            + "s, results are partial");
+                } else {
+                    target.scanMaster.complete();
+                }
+                target.scanMaster.setScore(score.score());
+                target.scanMaster.setGrade(score.grade());
+                scanMasterRepository.save(target.scanMaster);
+                results.add(new TargetResult(target.scanMaster, score, target.findingCount));
+            }
+
+            if (exceeded.isPresent()) {
+                IllegalStateException error = new IllegalStateException(exceeded.get());
+                Result result = new Result(results, lineNumber, findingCount, error);
+                sink.onError(result, error);
+                log.warn("Scan stopped ({}): {}, targets={}, lines={}, findings={}",
+                        job.mode().tag(), exceeded.get(), targets.size(), lineNumber, findingCount);
+                return result;
+            }
+
+            Result result = new Result(results, lineNumber, findingCount, null);
+            sink.onComplete(result);
+
+            log.info("Scan {} ({}): targets={}, lines={}, findings={}", timedOut.get() ? "timed out" : "completed",
+                    job.mode().tag(), targets.size(), lineNumber, findingCount);
+            return result;
+
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt(); // ✅ 인터럽트 상태 복원
+            }
+            recordResources(targets, sampling, lineNumber);
+            if (handle.isCancelled()) {
+                // 프로세스 종료로 읽기가 끊긴 경우
+                return cancelRunning(targets, detailBuffer, lineNumber, findingCount, sink);
+            }
+            log.error("Error during scan ({}, {} targets)", job.mode().tag(), targets.size(), e);
+
+            List<TargetResult> results = new ArrayList<>();
+            for (Target target : targets.values()) {
+                target.scanMaster.fail(e.getMessage());
+                scanMasterRepository.save(target.scanMaster);
+                results.add(new TargetResult(target.scanMaster, null, target.findingCount));
+            }
+
+            Result result = new Result(results, lineNumber, findingCount, e);
+            sink.onError(result, e);
+            return result;
+
+        } finally {
+            if (watchdog != null) {
+                watchdog.cancel(false);
+            }
+            if (sampling != null) {
+                sampling.close();
+            }
+            detailBuffer.close();
+
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    log.warn("Failed to close reader", e);
+                }
+            }
+
+            if (process != null && process.isAlive()) {
+                log.warn("Process still alive, destroying forcibly");
+                ScanCancellationRegistry.destroyTree(process);
+            }
+
+            if (targetFile != null) {
+                try {
+                    Files.deleteIfExists(targetFile);
+                } catch (IOException e) {
+                    log.warn("Failed to delete target list file: {}", targetFile, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 프로세스 자원 사용량 / 출력 줄 수 / 대상별 결과 수 (저장은 호출 쪽에서 상태와 함께)
+     */
+    private static void recordResources(Map<String, Target> targets, NucleiResourceSampler.Sampling sampling,
+                                        int lineNumber) {
+        if (sampling == null) {
+            return;
+        }
+        sampling.close();
+        NucleiResourceSampler.ResourceUsage usage = sampling.usage();
+        for (Target target : targets.values()) {
+            usage.applyTo(target.scanMaster, lineNumber, target.findingCount);
+        }
+        log.info("Nuclei resources: cpu={}ms, peakRss={}KB, read={}B, write={}B, wall={}ms, lines={}",
+                usage.cpuMillis(), usage.peakRssKb(), usage.readBytes(), usage.writeBytes(),
+                usage.wallMillis(), lineNumber);
+    }
+
+    /**
+     * 실행 중 취소: 그때까지의 결과는 저장하고 남은 AI 결과는 기다리지 않는다
+     */
+    private Result cancelRunning(Map<String, Target> targets, ScanDetailWriter.Buffer detailBuffer,
+                                 int lineNumber, int findingCount, ScanSink sink) {
+        detailBuffer.close();
+
+        List<TargetResult> results = new ArrayList<>();
+        for (Target target : targets.values()) {
+            target.scanMaster.cancel();
+            scanMasterRepository.save(target.scanMaster);
+            results.add(new TargetResult(target.scanMaster, null, target.findingCount));
+        }
+
+        Result result = cancelledResult(results, lineNumber, findingCount);
+        sink.onCancel(result);
+        log.info("Scan cancelled: targets={}, lines={}, findings={}", targets.size(), lineNumber, findingCount);
+        return result;
+    }
+
+    private static void cancelAi(List<CompletableFuture<Void>> aiFutures) {
+        synchronized (aiFutures) {
+            aiFutures.forEach(future -> future.cancel(false));
+        }
+    }
+
+    /**
+     * 시작 전 취소: 대기 중이던 대상도 조회할 수 있도록 CANCELLED 로 저장
+     */
+    private Result cancelQueued(Job job, ScanSink sink) {
+        List<TargetResult> results = new ArrayList<>();
+        for (ScanMaster scanMaster : job.targets()) {
+            scanMaster.cancel();
+            scanMasterRepository.save(scanMaster);
+            results.add(new TargetResult(scanMaster, null, 0));
+        }
+
+        Result result = cancelledResult(results, 0, 0);
+        sink.onCancel(result);
+        log.info("Queued scan cancelled: {}", scanIds(job));
+        return result;
+    }
+
+    private static Result cancelledResult(List<TargetResult> results, int lineNumber, int findingCount) {
+        return new Result(results, lineNumber, findingCount, new CancellationException("Scan cancelled"));
+    }
+
+    private static List<String> scanIds(Job job) {
+        return job.targets().stream().map(ScanMaster::getId).toList();
+    }
+
+    /**
+     * route → dedupe → persist → enrich → emit (순서 고정, 동시성은 persist / enrich 실행기 설정으로 조절)
+     * @return 새 결과로 저장 대기열에 넣었으면 true
+     */
+    private boolean accept(Job job, Map<String, Target> targets, Target single, NucleiFinding finding,
+                           ScanDetailWriter.Buffer detailBuffer, List<CompletableFuture<Void>> aiFutures,
+                           BooleanSupplier aiCancelled, ScanSink sink) {
+        Target target = single;
+        if (target == null) {
+            ScanMaster scanMaster = job.router().apply(finding);
+            target = scanMaster != null ? targets.get(scanMaster.getId()) : null;
+            if (target == null) {
+                log.warn("Finding does not match any target: host={}, matched-at={}",
+                        finding.host(), finding.matchedAt());
+                return false;
+            }
+        }
+
+        if (dedupe && !target.seen.add(dedupeKey(finding))) {
+            log.debug("Duplicate finding skipped: {} at {}", finding.templateId(), finding.matchedAt());
+            return false;
+        }
+
+        ScanDetail detail = toScanDetail(target.scanMaster.getId(), finding);
+        target.score.add(detail.getSeverity(), detail.getTemplateId());
+        target.findingCount++;
+
+        // 배치 저장으로 ID 가 부여되면 emit, AI 분석은 별도 워커에서 완료되는 대로 emit
+        detailBuffer.add(detail, saved -> {
+            sink.onFinding(saved);
+            if (job.enrich() && !aiCancelled.getAsBoolean()) {
+                aiFutures.add(aiAnalysisPipeline.submit(saved, aiCancelled)
+                        .thenAccept(sink::onAiResult)
+                        .exceptionally(ex -> {
+                            log.warn("AI analysis failed for scanDetail {}: {}", saved.getId(), ex.getMessage());
+                            return null;
+                        }));
+            }
+        });
+
+        log.info("Finding detected: {} - {}", detail.getName(), detail.getSeverity());
+        return true;
+    }
+
+    private void awaitAiResults(List<CompletableFuture<Void>> aiFutures) throws InterruptedException {
+        if (aiFutures.isEmpty()) {
+            return;
+        }
+        try {
+            CompletableFuture.allOf(aiFutures.toArray(new CompletableFuture[0]))
+                    .get(aiDrainTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            log.warn("AI analysis did not finish within {}s, completing scan without remaining results",
+                    aiDrainTimeoutSeconds);
+        } catch (ExecutionException e) {
+            log.warn("AI analysis failed: {}", e.getMessage());
+        }
+    }
+
+    private static String dedupeKey(NucleiFinding finding) {
+        return finding.templateId() + '\u0000' + finding.matchedAt() + '\u0000' + matcherName(finding)
+                + '\u0000' + finding.extractedResults();
+    }
+
+    private static String matcherName(NucleiFinding finding) {
+        Object matcherName = finding.fullResult() != null ? finding.fullResult().get("matcher-name") : null;
+        return matcherName != null ? matcherName.toString() : null;
+    }
+
+    static ScanDetail toScanDetail(String scanId, NucleiFinding finding) {
+        return ScanDetail.builder()
+                .scanId(scanId)
+                .templateId(finding.templateId())
+                .name(finding.name())
+                .severity(finding.severity())
+                .matchedAt(finding.matchedAt())
+                .description(finding.description())
+                .tags(finding.tags())
+                .extractedResults(finding.extractedResults())
+                .fullResult(finding.fullResult())
+                .matcherName(matcherName(finding))
+                .highRiskInfo(
+                        finding.severity() != null &&
+                                List.of("critical", "high")
+                                        .contains(finding.severity().toLowerCase())
+                )
+                .aiAnalyzed(false)
+                .build();
+    }
+
+    /**
+     * 대상별 진행 상태
+     */
+    private static class Target {
+        private final ScanMaster scanMaster;
+        private final ScoreAccumulator score = new ScoreAccumulator();
+        private final Set<String> seen = new HashSet<>();
+        private int findingCount;
+
+        private Target(ScanMaster scanMaster) {
+            this.scanMaster = scanMaster;
+        }
+    }
+
+    /**
+     * @param targets 대상별 ScanMaster (아직 저장 전, 하나면 -u / 여러 개면 -l 로 실행)
+     * @param router  대상이 여러 개일 때 결과를 대상에 분배 (못 찾으면 null → 버림)
+     * @param options 스캔 프로필 (nuclei 인자)
+     * @param enrich  저장된 결과마다 AI 분석 후 onAiResult 전송
+     */
+    public record Job(
+            ScanMetrics.Mode mode,
+            List<ScanMaster> targets,
+            Function<NucleiFinding, ScanMaster> router,
+            ScanOptions options,
+            boolean enrich,
+            Duration timeout
+    ) {
+        private static final Duration DEFAULT_TIMEOUT = Duration.ofMinutes(5);
+
+        public static Job single(ScanMetrics.Mode mode, ScanMaster scanMaster, ScanOptions options, boolean enrich) {
+            return new Job(mode, List.of(scanMaster), finding -> scanMaster, options, enrich,
+                    options.maxDuration() != null ? options.maxDuration() : DEFAULT_TIMEOUT);
+        }
+
+        public static Job multi(ScanMetrics.Mode mode, List<ScanMaster> targets,
+                                Function<NucleiFinding, ScanMaster> router, ScanOptions options, Duration timeout) {
+            return new Job(mode, targets, router, options, false, timeout);
+        }
+    }
+
+    /**
+     * @param score 실패 / 취소된 스캔이면 null (자원 상한 초과는 그때까지의 점수)
+     */
+    public record TargetResult(ScanMaster scanMaster, ScanScoreResult score, int findingCount) {
+    }
+
+    /**
+     * @param error 실패 원인 (성공이면 null, 취소면 CancellationException)
+     */
+    public record Result(List<TargetResult> targets, int lineCount, int findingCount, Exception error) {
+
+        public boolean failed() {
+            return error != null;
+        }
+
+        public boolean cancelled() {
+            return error instanceof CancellationException;
+        }
+
+        /**
+         * 제한 시간을 넘겨 부분 결과로 끝난 경우 (error 는 null, ScanMaster 는 TIMED_OUT)
+         */
+        public boolean timedOut() {
+            return targets.stream().anyMatch(target -> "TIMED_OUT".equals(target.scanMaster().getStatus()));
+        }
+
+        /**
+         * 단일 대상 작업의 결과
+         */
+        public TargetResult single() {
+            return targets.get(0);
+        }
+    }
+}
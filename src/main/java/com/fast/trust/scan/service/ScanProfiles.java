@@ -0,0 +1,136 @@
+package com.fast.trust.scan.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 스캔 프로필 (scan.profiles.&lt;name&gt;.*) → nuclei 옵션
+ * 요청의 mode 로 프로필을 고르고, templates 로 템플릿 ID 를 더 좁힐 수 있다
+ * 기본 프로필(full / critical / critical-fast)은 scan-profiles.properties
+ */
+@Component
+@ConfigurationProperties(prefix = "scan")
+@PropertySource("classpath:scan-profiles.properties")
+@Getter
+@Setter
+public class ScanProfiles {
+
+    // 템플릿 ID (와일드카드 허용), 경로 / 옵션 주입 방지
+    private static final Pattern TEMPLATE_ID = Pattern.compile("[A-Za-z0-9][A-Za-z0-9_.*-]*");
+
+    private String defaultProfile = "full";
+    private Map<String, Profile> profiles = new LinkedHashMap<>();
+
+    /**
+     * @param mode      프로필 이름 (없으면 scan.default-profile)
+     * @param templates 쉼표로 구분한 템플릿 ID (선택)
+     */
+    public ScanOptions resolve(String mode, String templates) {
+        String name = mode == null || mode.isBlank() ? defaultProfile : mode.trim().toLowerCase();
+        Profile profile = profiles.get(name);
+        if (profile == null) {
+            throw new IllegalArgumentException("존재하지 않는 scan mode: " + mode + " (" + profiles.keySet() + ")");
+        }
+
+        List<String> args = profile.toArgs();
+        String key = name;
+
+        List<String> templateIds = parseTemplateIds(templates);
+        if (!templateIds.isEmpty()) {
+            args.add("-id");
+            args.add(String.join(",", templateIds));
+            key = name + ":" + String.join(",", templateIds.stream().sorted().toList());
+        }
+
+        Duration maxDuration = profile.getMaxDurationSeconds() != null
+                ? Duration.ofSeconds(profile.getMaxDurationSeconds())
+                : null;
+        return new ScanOptions(key, List.copyOf(args), maxDuration);
+    }
+
+    public ScanOptions defaults() {
+        return resolve(null, null);
+    }
+
+    static boolean isTemplateId(String id) {
+        return id != null && TEMPLATE_ID.matcher(id).matches();
+    }
+
+    private List<String> parseTemplateIds(String templates) {
+        if (templates == null || templates.isBlank()) {
+            return List.of();
+        }
+        List<String> ids = Arrays.stream(templates.split(","))
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .distinct()
+                .toList();
+        for (String id : ids) {
+            if (!isTemplateId(id)) {
+                throw new IllegalArgumentException("Invalid template id: " + id);
+            }
+        }
+        return ids;
+    }
+
+    @Getter
+    @Setter
+    public static class Profile {
+        // -severity
+        private List<String> severity = new ArrayList<>();
+        // -tags
+        private List<String> tags = new ArrayList<>();
+        // -exclude-tags
+        private List<String> excludeTags = new ArrayList<>();
+        // -t (템플릿 / 디렉터리 경로)
+        private List<String> templates = new ArrayList<>();
+        // -exclude-templates
+        private List<String> excludeTemplates = new ArrayList<>();
+        // -id
+        private List<String> templateIds = new ArrayList<>();
+        // -timeout (요청당 초)
+        private Integer timeout;
+        // -retries
+        private Integer retries;
+        // nuclei 프로세스 전체 제한 (없으면 기본 5분)
+        private Long maxDurationSeconds;
+
+        private List<String> toArgs() {
+            List<String> args = new ArrayList<>();
+            addList(args, "-severity", severity);
+            addList(args, "-tags", tags);
+            addList(args, "-exclude-tags", excludeTags);
+            addList(args, "-t", templates);
+            addList(args, "-exclude-templates", excludeTemplates);
+            addList(args, "-id", templateIds);
+            if (timeout != null) {
+                args.add("-timeout");
+                args.add(String.valueOf(timeout));
+            }
+            if (retries != null) {
+                args.add("-retries");
+                args.add(String.valueOf(retries));
+            }
+            return args;
+        }
+
+        private static void addList(List<String> args, String flag, List<String> values) {
+            List<String> nonBlank = values.stream().map(String::trim).filter(v -> !v.isEmpty()).toList();
+            if (!nonBlank.isEmpty()) {
+                args.add(flag);
+                args.add(String.join(",", nonBlank));
+            }
+        }
+    }
+}
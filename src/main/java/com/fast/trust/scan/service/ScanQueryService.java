@@ -0,0 +1,199 @@
+package com.fast.trust.scan.service;
+
+import com.fast.trust.scan.dto.AffectedTarget;
+import com.fast.trust.scan.dto.FindingItem;
+import com.fast.trust.scan.dto.KeysetPage;
+import com.fast.trust.scan.dto.ScanHistoryItem;
+import com.fast.trust.scan.entity.ScanDetail;
+import com.fast.trust.scan.repository.ScanDetailRepository;
+import com.fast.trust.scan.repository.ScanMasterRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 스캔 이력 / 결과 조회 (읽기 전용 DTO 프로젝션, keyset 페이지)
+ * - 이력: created_at, id 역순 / 결과: id 역순
+ * - 다음 페이지는 응답의 nextCursor 를 그대로 전달 (OFFSET 없이 인덱스에서 이어 읽음)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ScanQueryService {
+
+    @Value("${scan.query.max-page-size:200}")
+    private int maxPageSize;
+
+    private final ScanMasterRepository scanMasterRepository;
+    private final ScanDetailRepository scanDetailRepository;
+    private final RawSegmentStore rawSegmentStore;
+    private final ObjectMapper objectMapper;
+
+    public KeysetPage<ScanHistoryItem> history(String url, String status, LocalDateTime from, LocalDateTime to,
+                                               String cursor, int size) {
+        int pageSize = pageSize(size);
+        LocalDateTime cursorCreatedAt = null;
+        String cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = decodeCursor(cursor).split("\\|", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            try {
+                cursorCreatedAt = LocalDateTime.parse(parts[0]);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            cursorId = parts[1];
+        }
+
+        List<ScanHistoryItem> items = scanMasterRepository.findHistory(
+                targetUrl(url), blankToNull(status), from, to, cursorCreatedAt, cursorId,
+                PageRequest.of(0, pageSize));
+
+        String nextCursor = null;
+        if (items.size() == pageSize) {
+            ScanHistoryItem last = items.get(items.size() - 1);
+            nextCursor = encodeCursor(last.createdAt() + "|" + last.scanId());
+        }
+        return new KeysetPage<>(items, nextCursor);
+    }
+
+    public KeysetPage<FindingItem> findings(String scanId, String url, String severity, String templateId,
+                                            Boolean aiAnalyzed, LocalDateTime from, LocalDateTime to,
+                                            String cursor, int size) {
+        int pageSize = pageSize(size);
+        Long cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                cursorId = Long.parseLong(decodeCursor(cursor));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+
+        List<FindingItem> items = scanDetailRepository.searchFindings(
+                blankToNull(scanId),
+                targetUrl(url),
+                severity != null && !severity.isBlank() ? severity.trim().toLowerCase(Locale.ROOT) : null,
+                blankToNull(templateId),
+                aiAnalyzed, from, to, cursorId,
+                PageRequest.of(0, pageSize));
+
+        String nextCursor = items.size() == pageSize
+                ? encodeCursor(String.valueOf(items.get(items.size() - 1).id()))
+                : null;
+        return new KeysetPage<>(items, nextCursor);
+    }
+
+    /**
+     * 템플릿 결과가 남아 있는 대상 (대상 / 프로필별 가장 최근 완료 스캔 기준)
+     */
+    public List<AffectedTarget> affectedTargets(String templateId) {
+        if (templateId == null || templateId.isBlank()) {
+            throw new IllegalArgumentException("templateId cannot be empty");
+        }
+        return scanDetailRepository.findAffectedTargets(templateId.trim());
+    }
+
+    /**
+     * 결과 하나의 원본 (nuclei JSON / AI 원본 응답, 세그먼트 파일에서 읽음)
+     */
+    public Map<String, Object> raw(Long scanDetailId) {
+        ScanDetail scanDetail = scanDetailRepository.findById(scanDetailId)
+                .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 scanDetailId: " + scanDetailId));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("scanDetailId", scanDetail.getId());
+        response.put("scanId", scanDetail.getScanId());
+        Map<String, Object> result;
+        String aiRawResponse;
+        try {
+            result = rawSegmentStore.readFinding(scanDetail).orElse(null);
+            aiRawResponse = rawSegmentStore.readAiResponse(scanDetail).orElse(null);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read raw result of scanDetail " + scanDetailId, e);
+        }
+
+        // 세그먼트 기록에 실패한 행은 행에 보관한 원본
+        if (result == null && scanDetail.getRawInline() != null) {
+            result = scanDetail.getRawInline();
+        }
+
+        // 세그먼트 저장 이전 행은 이전 컬럼(full_result / ai_raw_response / ai_result)에서 읽는다
+        if (scanDetail.getRawOffset() == null) {
+            Optional<ScanDetailRepository.LegacyRaw> legacy = legacyRaw(scanDetailId);
+            if (legacy.isPresent()) {
+                if (result == null && legacy.get().getFullResult() != null) {
+                    result = parseLegacyResult(scanDetailId, legacy.get().getFullResult());
+                }
+                if (aiRawResponse == null) {
+                    aiRawResponse = legacy.get().getAiRawResponse();
+                }
+            }
+        }
+
+        response.put("result", result);
+        response.put("aiRawResponse", aiRawResponse);
+        return response;
+    }
+
+    private Optional<ScanDetailRepository.LegacyRaw> legacyRaw(Long scanDetailId) {
+        try {
+            return scanDetailRepository.findLegacyRaw(scanDetailId);
+        } catch (DataAccessException e) {
+            // 이전 컬럼이 없는 DB (처음부터 세그먼트 저장)
+            log.debug("No legacy raw columns for scanDetail {}: {}", scanDetailId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Map<String, Object> parseLegacyResult(Long scanDetailId, String json) {
+        try {
+            return objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {});
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read legacy raw result of scanDetail " + scanDetailId, e);
+        }
+    }
+
+    private int pageSize(int size) {
+        return Math.max(1, Math.min(size, maxPageSize));
+    }
+
+    // 저장된 대상 URL 은 정규화된 값이므로 조회 조건도 정규화
+    private static String targetUrl(String url) {
+        return url != null && !url.isBlank() ? UrlCanonicalizer.canonicalize(url) : null;
+    }
+
+    private static String blankToNull(String value) {
+        return value != null && !value.isBlank() ? value.trim() : null;
+    }
+
+    private static String encodeCursor(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
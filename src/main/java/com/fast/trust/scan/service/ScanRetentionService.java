@@ -0,0 +1,63 @@
+package com.fast.trust.scan.service;
+
+import com.fast.trust.scan.repository.ScanDetailRepository;
+import com.fast.trust.scan.repository.ScanMasterRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * 스캔 보관 기간 정리 (scan.retention.days, 0 이면 정리하지 않음)
+ * - created_at 이 보관 기간을 지난 스캔의 ScanDetail / ScanMaster 행과 원본 세그먼트 파일을 함께 삭제
+ * - 마지막 기록이 보관 기간을 지난 세그먼트 파일은 스캔 행이 없어도 삭제
+ * scan.retention.cron 일정으로 실행 (기본 매일 04:30)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ScanRetentionService {
+
+    @Value("${scan.retention.days:0}")
+    private int retentionDays;
+
+    // 한 번에 삭제할 스캔 수
+    @Value("${scan.retention.batch-size:100}")
+    private int batchSize;
+
+    private final ScanMasterRepository scanMasterRepository;
+    private final ScanDetailRepository scanDetailRepository;
+    private final RawSegmentStore rawSegmentStore;
+
+    @Scheduled(cron = "${scan.retention.cron:0 30 4 * * *}")
+    public void purgeExpired() {
+        if (retentionDays <= 0) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+
+        int scans = 0;
+        while (true) {
+            List<String> scanIds = scanMasterRepository.findIdsCreatedBefore(cutoff, PageRequest.of(0, batchSize));
+            if (scanIds.isEmpty()) {
+                break;
+            }
+            // 결과 → 스캔 → 파일 순서 (중간에 실패하면 다음 실행에서 이어서 정리)
+            scanDetailRepository.deleteByScanIdIn(scanIds);
+            scanMasterRepository.deleteAllByIdInBatch(scanIds);
+            scanIds.forEach(rawSegmentStore::delete);
+            scans += scanIds.size();
+        }
+
+        int orphans = rawSegmentStore.deleteOlderThan(cutoff.atZone(ZoneId.systemDefault()).toInstant());
+        if (scans > 0 || orphans > 0) {
+            log.info("Purged {} scans and {} raw segments older than {} days", scans, orphans, retentionDays);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.fast.trust.scan.service;
+
+import com.fast.trust.common.exception.ScanQueueFullException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * nuclei 프로세스 동시 실행 수를 제한하는 스캔 스케줄러
+ * - 실행 슬롯이 없으면 우선순위 대기열에 적재 (INTERACTIVE > BATCH)
+ * - 대기열이 가득 차면 즉시 ScanQueueFullException (429)
+ */
+@Component
+@Slf4j
+public class ScanScheduler {
+
+    public enum Priority {
+        // SSE 실시간 스캔
+        INTERACTIVE,
+        // MCP / 배치 스캔
+        BATCH
+    }
+
+    @Value("${scan.scheduler.max-concurrent:4}")
+    private int maxConcurrent;
+
+    @Value("${scan.scheduler.queue-capacity:50}")
+    private int queueCapacity;
+
+    @Value("${scan.scheduler.retry-after-seconds:30}")
+    private long retryAfterSeconds;
+
+    private final Executor scanExecutor;
+    private final PriorityQueue<PendingSlot> queue = new PriorityQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private int running;
+
+    public ScanScheduler(@Qualifier("scanExecutor") Executor scanExecutor) {
+        this.scanExecutor = scanExecutor;
+    }
+
+    /**
+     * 실행 슬롯 요청
+     * 즉시 할당되지 않으면 대기열 순번이 바뀔 때마다 onQueuePosition 으로 알린다 (1부터 시작)
+     */
+    public CompletableFuture<ScanSlot> acquire(Priority priority, IntConsumer onQueuePosition) {
+        PendingSlot pending;
+        synchronized (this) {
+            if (running < maxConcurrent && queue.isEmpty()) {
+                running++;
+                return CompletableFuture.completedFuture(new ScanSlot());
+            }
+            if (queue.size() >= queueCapacity) {
+                log.warn("Scan queue is full: running={}, queued={}", running, queue.size());
+                throw new ScanQueueFullException(retryAfterSeconds);
+            }
+            pending = new PendingSlot(priority, sequence.incrementAndGet(), onQueuePosition);
+            queue.add(pending);
+        }
+        // 대기 중 취소(future.cancel)되면 대기열에서 제거
+        pending.future.whenComplete((slot, ex) -> {
+            if (ex != null) {
+                withdraw(pending);
+            }
+        });
+        notifyPositions();
+        return pending.future;
+    }
+
+    /**
+     * 슬롯을 얻은 뒤 scanExecutor 에서 작업을 실행하고 끝나면 슬롯을 반납
+     * 시작 전에 결과 future 가 취소 / 완료되면 대기열에서 빼거나, 이미 받은 슬롯을 바로 반납한다
+     */
+    public <T> CompletableFuture<T> submit(Priority priority, Supplier<T> task, IntConsumer onQueuePosition) {
+        CompletableFuture<ScanSlot> slot = acquire(priority, onQueuePosition);
+        CompletableFuture<T> result = slot.thenApplyAsync(granted -> {
+            try {
+                return task.get();
+            } finally {
+                granted.release();
+            }
+        }, scanExecutor);
+        result.whenComplete((value, ex) -> {
+            // release 는 멱등이라 정상 종료 후 다시 호출되어도 무방
+            if (!slot.cancel(false)) {
+                slot.thenAccept(ScanSlot::release);
+            }
+        });
+        return result;
+    }
+
+    public CompletableFuture<Void> execute(Priority priority, Runnable task, IntConsumer onQueuePosition) {
+        return submit(priority, () -> {
+            task.run();
+            return null;
+        }, onQueuePosition);
+    }
+
+    public synchronized int getRunning() {
+        return running;
+    }
+
+    public synchronized int getQueued() {
+        return queue.size();
+    }
+
+    private void release() {
+        List<PendingSlot> granted = new ArrayList<>();
+        synchronized (this) {
+            running--;
+            while (running < maxConcurrent && !queue.isEmpty()) {
+                running++;
+                granted.add(queue.poll());
+            }
+        }
+        // 락 밖에서 완료시켜 후속 콜백이 스케줄러를 잡고 있지 않도록 한다
+        for (PendingSlot pending : granted) {
+            ScanSlot slot = new ScanSlot();
+            if (!pending.future.complete(slot)) {
+                // 할당 직전에 취소된 요청이면 바로 반납
+                slot.release();
+            }
+        }
+        if (!granted.isEmpty()) {
+            notifyPositions();
+        }
+    }
+
+    private void withdraw(PendingSlot pending) {
+        boolean removed;
+        synchronized (this) {
+            removed = queue.remove(pending);
+        }
+        if (removed) {
+            notifyPositions();
+        }
+    }
+
+    private void notifyPositions() {
+        List<PendingSlot> ordered;
+        synchronized (this) {
+            ordered = new ArrayList<>(queue);
+        }
+        Collections.sort(ordered);
+
+        for (int i = 0; i < ordered.size(); i++) {
+            PendingSlot pending = ordered.get(i);
+            int position = i + 1;
+            if (pending.lastPosition == position) {
+                continue;
+            }
+            pending.lastPosition = position;
+            try {
+                pending.onQueuePosition.accept(position);
+            } catch (Exception e) {
+                log.debug("Failed to notify queue position: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 할당된 실행 슬롯, release 는 여러 번 호출해도 한 번만 반납된다
+     */
+    public class ScanSlot {
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                ScanScheduler.this.release();
+            }
+        }
+    }
+
+    private static class PendingSlot implements Comparable<PendingSlot> {
+        private final Priority priority;
+        private final long sequence;
+        private final IntConsumer onQueuePosition;
+        private final CompletableFuture<ScanSlot> future = new CompletableFuture<>();
+        private volatile int lastPosition;
+
+        private PendingSlot(Priority priority, long sequence, IntConsumer onQueuePosition) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.onQueuePosition = onQueuePosition != null ? onQueuePosition : position -> {};
+        }
+
+        @Override
+        public int compareTo(PendingSlot o) {
+            int byPriority = priority.compareTo(o.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, o.sequence);
+        }
+    }
+}
@@ -1,29 +1,34 @@
 package com.fast.trust.scan.service;
 
-import com.fast.trust.ai.dto.AiRstDto;
 import com.fast.trust.ai.service.AiService;
+import com.fast.trust.scan.dto.NucleiFinding;
 import com.fast.trust.scan.dto.SSEDto;
 import com.fast.trust.scan.dto.SSE_TYPE;
 import com.fast.trust.scan.dto.ScanScoreResult;
+import com.fast.trust.scan.dto.SeverityCount;
+import com.fast.trust.scan.dto.TemplateCount;
 import com.fast.trust.scan.entity.ScanDetail;
 import com.fast.trust.scan.entity.ScanMaster;
 import com.fast.trust.scan.repository.ScanDetailRepository;
 import com.fast.trust.scan.repository.ScanMasterRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -35,243 +40,116 @@ public class ScanService {
     @Value("${nuclei.path}")
     private String nucleiPath;
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    @Value("${scan.batch.max-targets:1000}")
+    private int batchMaxTargets;
+
+    @Value("${scan.batch.timeout-minutes:120}")
+    private long batchTimeoutMinutes;
+
+    // 같은 대상의 완료 결과를 재사용하는 시간 (0 이면 항상 새로 스캔)
+    @Value("${scan.reuse.ttl-minutes:10}")
+    private long reuseTtlMinutes;
+
+    @Value("${scan.jobs.result-max-page-size:100}")
+    private int resultMaxPageSize;
+
     private final ScanMasterRepository scanMasterRepository;
     private final ScanDetailRepository scanDetailRepository;
-    private final AiService aiService;
+    private final ScanPipeline scanPipeline;
+    private final WebhookScanSink webhookScanSink;
+    private final ScanMetrics scanMetrics;
+    private final ScanEventHub scanEventHub;
+    private final ScanJobTracker scanJobTracker;
+    private final ScanProfiles scanProfiles;
+    private final ScanCancellationRegistry scanCancellationRegistry;
 
-    private static final Set<String> HIGH_RISK_INFO_TEMPLATES = Set.of(
-            "ssl-expired",
-            "tls-deprecated",
-            "missing-security-headers",
-            "eol-software"
-    );
+    // mcpAll single-flight (정규화 URL → 진행 중인 결과)
+    private final Map<String, CompletableFuture<Map<String, Object>>> mcpInFlight = new ConcurrentHashMap<>();
 
     /**
      * SSE를 통한 실시간 스캔
      */
-    public void scanUrlWithStream(String url, SseEmitter emitter) {
-        String normalizedUrl = normalizeUrl(url);
-
-        CompletableFuture.runAsync(() -> {
-            Process process = null; // ✅ try-finally에서 정리하기 위해
-            BufferedReader reader = null;
-            String scanId = UUID.randomUUID().toString();
+    public void scanUrlWithStream(String url, String mode, String templates, String lastEventId,
+                                  SseEmitter subscriber) {
+        startStream(url, scanProfiles.resolve(mode, templates), lastEventId, subscriber, false);
+    }
 
-            ScanMaster scanMaster = new ScanMaster(scanId, normalizedUrl);
-            scanMasterRepository.save(scanMaster);
+    /**
+     * SSE 실시간 스캔 + 결과별 AI 분석
+     */
+    public void scanUrlWithStreamAi(String url, String mode, String templates, String lastEventId,
+                                    SseEmitter subscriber) {
+        startStream(url, scanProfiles.resolve(mode, templates), lastEventId, subscriber, true);
+    }
 
-            try {
-                SSEDto sseDto = new SSEDto();
-                sseDto.setType(SSE_TYPE.START.name());
-                sseDto.setScanId(scanId);
-                emitter.send(SseEmitter.event()
-                        .name("init")
-                        .data(sseDto));
-
-                ProcessBuilder processBuilder = new ProcessBuilder(
-                        nucleiPath,
-                        "-u", normalizedUrl,
-                        "-jsonl",
-                        "-stats",
-                        "-silent"
-                );
-
-                processBuilder.redirectErrorStream(true);
-                process = processBuilder.start();
-
-                reader = new BufferedReader(
-                        new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8)
-                );
-
-                String line;
-                int lineNumber = 0;
-                List<Map<String, Object>> findings = new ArrayList<>();
-
-                while ((line = reader.readLine()) != null) {
-                    lineNumber++;
-
-                    String cleanLine = line.replaceAll("\u001b\\[[0-9;]*m", "");
-                    try {
-                        // JSON 라인 파싱
-                        if (cleanLine.trim().startsWith("{")) {
-                            Map<String, Object> jsonData = objectMapper.readValue(cleanLine, Map.class);
-
-                            jsonData = filterLongFields(jsonData);
-
-                            // 진행 상황 데이터 생성
-                            Map<String, Object> progressData = new HashMap<>();
-                            progressData.put("lineNumber", lineNumber);
-                            progressData.put("timestamp", System.currentTimeMillis());
-                            progressData.put("data", jsonData);
-                            sseDto = new SSEDto();
-                            // 취약점 발견 시
-                            if (jsonData.containsKey("info")) {
-                                findings.add(jsonData);
-                                try {
-                                    sseDto.setType(SSE_TYPE.FIND.name());
-                                    ScanDetail detail = toScanDetail(scanId, jsonData);
-                                    scanDetailRepository.save(detail);
-                                    sseDto.setScanDetailId(String.valueOf(detail.getId()));
-                                    sseDto.setName(detail.getName());
-                                    sseDto.setSeverity(detail.getSeverity());
-                                    sseDto.setDescription(detail.getDescription());
-                                    sseDto.setAiAnalyzed(false);
-                                    log.info("Finding detected: {} - {}",
-                                            detail.getName(),
-                                            detail.getSeverity());
-                                } catch (Exception e) {
-                                    log.error("Failed to save ScanDetail: {}", e.getMessage(), e);
-                                }
-                                progressData.put("type", "finding");
-                                progressData.put("totalFindings", findings.size());
-                            } else if (jsonData.containsKey("stats")) {
-                                // 통계 정보
-                                progressData.put("type", "stats");
-                                sseDto.setType(SSE_TYPE.PROGRESS.name());
-                                sseDto.setPercent((String)jsonData.get("percent"));
-                            } else {
-                                progressData.put("type", "info");
-                                sseDto.setType(SSE_TYPE.PROGRESS.name());
-                                sseDto.setPercent((String)jsonData.get("percent"));
-                            }
-
-                            // SSE로 전송
-                            emitter.send(SseEmitter.event()
-                                    .name("progress")
-                                    .data(sseDto));
-
-                            log.debug("Line {}: {}", lineNumber, cleanLine); // ✅ debug 레벨로 변경
-
-                        } else if (!cleanLine.trim().isEmpty()) { // ✅ 빈 줄 무시
-                            // 일반 텍스트 출력
-                            Map<String, Object> textData = new HashMap<>();
-                            textData.put("lineNumber", lineNumber);
-                            textData.put("type", "text");
-                            textData.put("message", cleanLine);
-                            textData.put("timestamp", System.currentTimeMillis());
-
-/*                            emitter.send(SseEmitter.event()
-                                    .name("progress")
-                                    .data(textData));*/
-
-                            log.debug("Text line {}: {}", lineNumber, cleanLine);
-                        }
-                    } catch (JsonProcessingException e) {
-                        log.warn("Failed to parse JSON at line {}: {}", lineNumber, cleanLine);
-
-                        Map<String, Object> errorData = new HashMap<>();
-                        errorData.put("lineNumber", lineNumber);
-                        errorData.put("type", "parse_error");
-                        errorData.put("message", "JSON parse failed: " + e.getMessage());
-                        errorData.put("rawLine", cleanLine);
-
-                        emitter.send(SseEmitter.event()
-                                .name("warning")
-                                .data(errorData));
-
-                    } catch (Exception e) {
-                        log.error("Error processing line {}: {}", lineNumber, cleanLine, e);
-
-                        // 에러 정보 전송
-                        Map<String, Object> errorData = new HashMap<>();
-                        errorData.put("lineNumber", lineNumber);
-                        errorData.put("type", "error");
-                        errorData.put("message", e.getMessage());
-                        errorData.put("rawLine", cleanLine);
-
-                        emitter.send(SseEmitter.event()
-                                .name("error")
-                                .data(errorData));
-                    }
-                }
+    private void startStream(String url, ScanOptions options, String lastEventId, SseEmitter subscriber,
+                             boolean withAi) {
+        String normalizedUrl = normalizeUrl(url);
+        ScanMetrics.Mode mode = withAi ? ScanMetrics.Mode.STREAM_AI : ScanMetrics.Mode.STREAM;
+        ScanMetrics.Stage metrics = scanMetrics.of(mode);
 
-                // ✅ 타임아웃 포함 대기
-                boolean finished = process.waitFor(300, TimeUnit.SECONDS); // 5분
+        // TTL 안의 완료 결과가 있으면 nuclei 실행 없이 그대로 전송
+        if (replayRecentScan(normalizedUrl, options, subscriber, metrics, withAi)) {
+            return;
+        }
 
-                if (!finished) {
-                    log.warn("Nuclei process timeout, forcibly destroying");
-                    process.destroyForcibly();
-                }
+        // 같은 대상 스캔이 진행 중이면 합류만 한다
+        ScanEventHub.Attachment attachment = scanEventHub.attach(mode.tag() + ":" + options.key() + ":" + normalizedUrl, subscriber,
+                parseLastEventId(lastEventId), metrics);
+        if (!attachment.owner()) {
+            log.info("Joined in-flight {} scan for {}", mode.tag(), normalizedUrl);
+            return;
+        }
+        ScanBroadcast emitter = attachment.broadcast();
+        SseScanSink sseSink = new SseScanSink(metrics, emitter);
+        ScanPipeline.Job job = ScanPipeline.Job.single(mode,
+                new ScanMaster(emitter.getScanId(), normalizedUrl, options.key()), options, withAi);
 
-                int exitCode = process.exitValue();
-                scanMaster.complete();
-
-                List<ScanDetail> details = scanDetailRepository.findByScanId(scanId);
-                ScanScoreResult score = calculateScore(details);
-                scanMaster.setScore(score.score());
-                scanMaster.setGrade(score.grade());
-                scanMasterRepository.save(scanMaster);
-
-                // 완료 메시지 전송
-                Map<String, Object> completionData = new HashMap<>();
-                completionData.put("type", "complete");
-                completionData.put("exitCode", exitCode);
-                completionData.put("totalLines", lineNumber);
-                completionData.put("totalFindings", findings.size());
-                completionData.put("findings", findings);
-                completionData.put("timestamp", System.currentTimeMillis());
-                completionData.put("url", normalizedUrl); // ✅ URL 추가
-
-                sseDto = new SSEDto();
-                sseDto.setType(SSE_TYPE.END.name());
-                sseDto.setGrade(score.grade());
-                sseDto.setScore(score.score());
-
-                emitter.send(SseEmitter.event()
-                        .name("complete")
-                        .data(sseDto));
+        try {
+            scanPipeline.submit(ScanScheduler.Priority.INTERACTIVE, job, ScanSink.of(sseSink, webhookScanSink),
+                    sseSink::onQueuePosition);
+            // 합류한 구독자까지 모두 연결을 끊으면 nuclei 도 중단
+            // (취소 핸들이 submit 에서 등록되므로 그 뒤에 연결, submit 사이에 끊긴 경우는 onAbandoned 가 다시 확인)
+            emitter.onAbandoned(() -> scanCancellationRegistry.cancel(emitter.getScanId()));
+        } catch (RuntimeException e) {
+            // 대기열 가득 참 등으로 시작하지 못하면 합류한 구독자도 정리
+            emitter.completeWithError(e);
+            throw e;
+        }
+    }
 
-                emitter.complete();
+    /**
+     * 스캔 이벤트 구독 / 재연결 (Last-Event-ID 이후 이벤트부터)
+     * 진행 중이거나 최근 끝난 스캔은 이벤트 버퍼에서, 그보다 오래된 완료 스캔은 DB 에서 재전송
+     */
+    public void subscribeEvents(String scanId, String lastEventId, SseEmitter emitter) {
+        Optional<ScanBroadcast> broadcast = scanEventHub.find(scanId);
+        if (broadcast.isPresent()) {
+            broadcast.get().resume(emitter, parseLastEventId(lastEventId));
+            return;
+        }
 
-                log.info("Scan completed for {}: Exit code: {}, Total lines: {}, Findings: {}",
-                        normalizedUrl, exitCode, lineNumber, findings.size());
-
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt(); // ✅ 인터럽트 상태 복원
-                log.error("Scan interrupted for {}", normalizedUrl, e);
-
-                try {
-                    emitter.send(SseEmitter.event()
-                            .name("error")
-                            .data(Map.of(
-                                    "type", "interrupted",
-                                    "message", "Scan was interrupted"
-                            )));
-                } catch (IOException ignored) {}
-                emitter.completeWithError(e);
+        ScanMaster scanMaster = scanMasterRepository.findById(scanId)
+                .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 scanId: " + scanId));
+        ScanMetrics.Stage metrics = scanMetrics.of(ScanMetrics.Mode.STREAM);
 
-            } catch (Exception e) {
-                log.error("Error during scan for {}", normalizedUrl, e);
-                scanMaster.fail(e.getMessage());
-                scanMasterRepository.save(scanMaster);
-
-                try {
-                    emitter.send(SseEmitter.event()
-                            .name("error")
-                            .data(Map.of(
-                                    "type", "fatal",
-                                    "message", e.getMessage(),
-                                    "url", normalizedUrl
-                            )));
-                } catch (IOException ignored) {}
+        if (!"COMPLETED".equals(scanMaster.getStatus())) {
+            try {
+                metrics.send(emitter, SseEmitter.event()
+                        .name("error")
+                        .data(Map.of(
+                                "type", "unavailable",
+                                "status", String.valueOf(scanMaster.getStatus()),
+                                "message", "Scan events are no longer available"
+                        )));
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
                 emitter.completeWithError(e);
-
-            } finally {
-                if (reader != null) {
-                    try {
-                        reader.close();
-                    } catch (IOException e) {
-                        log.warn("Failed to close reader", e);
-                    }
-                }
-
-                if (process != null && process.isAlive()) {
-                    log.warn("Process still alive, destroying forcibly");
-                    process.destroyForcibly();
-                }
             }
-        });
+            return;
+        }
+
+        replayScan(scanMaster, scanDetailRepository.findByScanId(scanId), emitter, metrics, true);
     }
 
     /**
@@ -299,7 +177,7 @@ public class ScanService {
         String fullOutput = output.toString();
 
         // ANSI 색상 코드 제거
-        String cleanOutput = fullOutput.replaceAll("\u001b\\[[0-9;]*m", "");
+        String cleanOutput = NucleiOutputParser.stripAnsi(fullOutput);
 
         // "v3.7.0" 형태의 버전만 추출
         Pattern pattern = Pattern.compile("v[0-9]+\\.[0-9]+\\.[0-9]+");
@@ -313,436 +191,443 @@ public class ScanService {
     }
 
     /**
-     * URL 형식 검증 및 보정
+     * 재사용 가능한 최근 완료 스캔 (같은 프로필, scan.reuse.ttl-minutes 이내)
+     * 제한 시간 / 자원 상한으로 중단된 부분 결과(TIMED_OUT / RESOURCE_LIMIT)는 재사용하지 않는다
      */
-    private String normalizeUrl(String url) {
-        if (url == null || url.trim().isEmpty()) {
-            throw new IllegalArgumentException("URL cannot be empty");
+    private Optional<ScanMaster> findReusableScan(String normalizedUrl, ScanOptions options) {
+        if (reuseTtlMinutes <= 0) {
+            return Optional.empty();
         }
+        return scanMasterRepository.findFirstByTargetUrlAndScanProfileAndStatusAndCompletedAtAfterOrderByCompletedAtDesc(
+                normalizedUrl, options.key(), "COMPLETED", LocalDateTime.now().minusMinutes(reuseTtlMinutes));
+    }
 
-        url = url.trim();
+    /**
+     * 최근 완료 결과 재사용 (AI 스트림은 모든 결과에 AI 분석이 저장된 경우에만)
+     */
+    private boolean replayRecentScan(String normalizedUrl, ScanOptions options, SseEmitter emitter,
+                                     ScanMetrics.Stage metrics, boolean withAi) {
+        Optional<ScanMaster> recent = findReusableScan(normalizedUrl, options);
+        if (recent.isEmpty()) {
+            return false;
+        }
 
-        // http:// 또는 https://가 없으면 추가
-        if (!url.startsWith("http://") && !url.startsWith("https://")) {
-            url = "https://" + url;
+        ScanMaster scanMaster = recent.get();
+        List<ScanDetail> details = scanDetailRepository.findByScanId(scanMaster.getId());
+        if (withAi && details.stream().anyMatch(detail -> !detail.isAiAnalyzed())) {
+            return false;
         }
 
-        return url;
+        log.info("Reusing scan {} for {} ({} findings)", scanMaster.getId(), normalizedUrl, details.size());
+        replayScan(scanMaster, details, emitter, metrics, withAi);
+        return true;
     }
 
-    private Map<String, Object> filterLongFields(Map<String, Object> data) {
-        Map<String, Object> filtered = new HashMap<>(data);
-
-/*        List<String> fieldsToRemove = Arrays.asList(
-                "response",      // HTML 전체
-                "request",       // 요청 전체
-                "curl-command"   // curl 명령어
-        );*/
+    /**
+     * 저장된 스캔 결과를 SSE 로 재전송 (START → FIND (→ AI) → END)
+     */
+    private void replayScan(ScanMaster scanMaster, List<ScanDetail> details, SseEmitter emitter,
+                            ScanMetrics.Stage metrics, boolean withAi) {
+        try {
+            SSEDto start = new SSEDto();
+            start.setType(SSE_TYPE.START.name());
+            start.setScanId(scanMaster.getId());
+            start.setReused(true);
+            metrics.send(emitter, SseEmitter.event()
+                    .name("init")
+                    .data(start));
+
+            SseScanSink sseSink = new SseScanSink(metrics, emitter);
+            for (ScanDetail detail : details) {
+                sseSink.onFinding(detail);
+                if (withAi && detail.isAiAnalyzed()) {
+                    sseSink.onAiResult(AiService.toAiSseDto(detail));
+                }
+            }
 
-        List<String> fieldsToRemove = Arrays.asList(
-                "response",      // HTML 전체
-                "request"       // 요청 전체
-        );
+            SSEDto end = new SSEDto();
+            end.setType(SSE_TYPE.END.name());
+            end.setScanId(scanMaster.getId());
+            end.setScore(scanMaster.getScore());
+            end.setGrade(scanMaster.getGrade());
+            end.setReused(true);
+            metrics.send(emitter, SseEmitter.event()
+                    .name("complete")
+                    .data(end));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Failed to replay scan {}: {}", scanMaster.getId(), e.getMessage());
+            emitter.completeWithError(e);
+        }
+    }
 
-        for (String field : fieldsToRemove) {
-            if (filtered.containsKey(field)) {
-                String value = String.valueOf(filtered.get(field));
-                log.debug("Removed field '{}' with length: {}", field, value.length());
-                filtered.remove(field);
-            }
+    private long parseLastEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return 0;
         }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
 
-        // extracted-results는 10개로 제한
-        if (filtered.containsKey("extracted-results")) {
-            Object extractedResults = filtered.get("extracted-results");
-            if (extractedResults instanceof List) {
-                List<?> list = (List<?>) extractedResults;
-                if (list.size() > 10) {
-                    filtered.put("extracted-results", list.subList(0, 10));
-                    filtered.put("extracted-results-count", list.size());
-                    log.debug("Truncated extracted-results from {} to 10", list.size());
-                }
-            }
+    private Map<String, Object> toMcpResponse(ScanMaster scanMaster, List<ScanDetail> details) {
+        List<Map<String, Object>> findings = new ArrayList<>();
+        for (ScanDetail detail : details) {
+            findings.add(CollectingScanSink.toMcpFinding(detail));
         }
 
-        return filtered;
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "DONE");
+        response.put("scanId", scanMaster.getId());
+        response.put("url", scanMaster.getTargetUrl());
+        response.put("totalFindings", details.size());
+        response.put("grade", scanMaster.getGrade());
+        response.put("score", scanMaster.getScore());
+        response.put("results", findings);
+        response.put("reused", true);
+        return response;
     }
 
-    private ScanDetail toScanDetail(String scanId, Map<String, Object> jsonData) {
-        Map<String, Object> info = (Map<String, Object>) jsonData.get("info");
-
-        return ScanDetail.builder()
-                .scanId(scanId)
-                .templateId((String) jsonData.get("template-id"))
-                .name(info != null ? (String) info.get("name") : null)
-                .severity(info != null ? (String) info.get("severity") : null)
-                .matchedAt((String) jsonData.get("matched-at"))
-                .description(info != null ? (String) info.get("description") : null)
-                .tags((List<String>) info.get("tags"))
-                .extractedResults((List<String>) jsonData.get("extracted-results"))
-                .fullResult(jsonData)
-                .highRiskInfo(
-                        info != null &&
-                                List.of("critical", "high")
-                                        .contains(String.valueOf(info.get("severity")).toLowerCase())
-                )
-                .aiAnalyzed(false)
-                .build();
+    /**
+     * URL 형식 검증 및 정규화 (같은 대상은 같은 문자열)
+     */
+    private String normalizeUrl(String url) {
+        return UrlCanonicalizer.canonicalize(url);
     }
 
-    public ScanScoreResult calculateScore(List<ScanDetail> scanDetailList) {
+    public static ScanScoreResult calculateScore(List<ScanDetail> scanDetailList) {
+        ScoreAccumulator scoreAccumulator = new ScoreAccumulator();
+        for (ScanDetail v : scanDetailList) {
+            scoreAccumulator.add(v.getSeverity(), v.getTemplateId());
+        }
+        return scoreAccumulator.result();
+    }
 
-        int score = 100;
+    /**
+     * 과거 스캔 점수 재계산 (DB 집계만 사용, 엔티티를 읽지 않음)
+     */
+    public ScanScoreResult recalculateScore(String scanId) {
+        ScanMaster scanMaster = scanMasterRepository.findById(scanId)
+                .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 scanId: " + scanId));
 
-        Map<String, Integer> severityCounts = new HashMap<>();
-        severityCounts.put("critical", 0);
-        severityCounts.put("high", 0);
-        severityCounts.put("medium", 0);
-        severityCounts.put("low", 0);
-        severityCounts.put("info", 0);
+        ScoreAccumulator scoreAccumulator = new ScoreAccumulator();
+        for (SeverityCount severityCount : scanDetailRepository.countBySeverity(scanId)) {
+            scoreAccumulator.addCount(severityCount.severity(), severityCount.count());
+        }
+        for (TemplateCount templateCount : scanDetailRepository.countInfoByTemplate(scanId)) {
+            if (ScoreAccumulator.isHighRiskInfoTemplate(templateCount.templateId())) {
+                scoreAccumulator.addHighRiskInfo(templateCount.count());
+            }
+        }
 
-        for (ScanDetail v : scanDetailList) {
-            String severity = Optional.ofNullable(v.getSeverity())
-                    .orElse("info")
-                    .toLowerCase();
+        ScanScoreResult score = scoreAccumulator.result();
+        scanMaster.setScore(score.score());
+        scanMaster.setGrade(score.grade());
+        scanMasterRepository.save(scanMaster);
+        return score;
+    }
 
-            severityCounts.computeIfPresent(severity, (k, val) -> val + 1);
+    public Map<String, Object> mcpAll(String url, String mode) {
 
-            // High-risk INFO
-            if ("info".equals(severity)) {
-                String templateId = Optional.ofNullable(v.getTemplateId())
-                        .orElse("")
-                        .toLowerCase();
+        String normalizedUrl = normalizeUrl(url);
+        ScanOptions options = scanProfiles.resolve(mode, null);
 
-                if (HIGH_RISK_INFO_TEMPLATES.stream().anyMatch(templateId::contains)) {
-                    score -= 1;
-                }
-            }
+        // TTL 안의 완료 결과 재사용
+        Optional<ScanMaster> recent = findReusableScan(normalizedUrl, options);
+        if (recent.isPresent()) {
+            log.info("Reusing scan {} for {}", recent.get().getId(), normalizedUrl);
+            return toMcpResponse(recent.get(), scanDetailRepository.findByScanId(recent.get().getId()));
         }
 
-        score -= Math.min(severityCounts.get("critical") * 25, 50);
-        score -= Math.min(severityCounts.get("high") * 15, 30);
-        score -= Math.min(severityCounts.get("medium") * 5, 15);
-        score -= Math.min(severityCounts.get("low") * 2, 6);
-
-        score = Math.max(score, 0);
+        // 같은 대상 스캔이 진행 중이면 그 결과를 기다린다
+        CompletableFuture<Map<String, Object>> created = new CompletableFuture<>();
+        String flightKey = options.key() + ":" + normalizedUrl;
+        CompletableFuture<Map<String, Object>> inFlight = mcpInFlight.putIfAbsent(flightKey, created);
+        if (inFlight != null) {
+            log.info("Joined in-flight MCP scan for {}", normalizedUrl);
+            return inFlight.join();
+        }
 
-        return new ScanScoreResult(score, grade(score));
+        try {
+            Map<String, Object> response = runMcpScan(normalizedUrl, options);
+            created.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            mcpInFlight.remove(flightKey, created);
+        }
     }
 
-    private String grade(int score) {
-        if (score >= 90) return "A";
-        if (score >= 80) return "B+";
-        if (score >= 70) return "B";
-        if (score >= 60) return "B-";
-        if (score >= 50) return "C";
-        if (score >= 40) return "D";
-        return "F";
+    private Map<String, Object> runMcpScan(String normalizedUrl, ScanOptions options) {
+        // 재사용 / 조회가 가능하도록 결과도 저장
+        CollectingScanSink collector = new CollectingScanSink();
+        ScanPipeline.Job job = ScanPipeline.Job.single(ScanMetrics.Mode.MCP,
+                new ScanMaster(UUID.randomUUID().toString(), normalizedUrl, options.key()), options, false);
+        ScanPipeline.Result result = scanPipeline.submit(
+                ScanScheduler.Priority.BATCH,
+                job,
+                ScanSink.of(collector, webhookScanSink),
+                position -> log.info("MCP scan queued for {}: position {}", normalizedUrl, position)
+        ).join();
+        return collector.toResponse(result);
     }
 
-    public void scanUrlWithStreamAi(String url, SseEmitter emitter) {
+    /**
+     * 비동기 스캔 시작 (MCP start_scan), scanId 를 바로 돌려준다
+     * TTL 안의 완료 결과가 있으면 그 scanId, 같은 대상이 진행 중이면 그 작업의 scanId
+     * @param onUpdate 진행 상태가 바뀔 때마다 호출 (없으면 null)
+     */
+    public Map<String, Object> startScan(String url, String mode, Consumer<Map<String, Object>> onUpdate) {
         String normalizedUrl = normalizeUrl(url);
+        ScanOptions options = scanProfiles.resolve(mode, null);
+
+        Optional<ScanMaster> recent = findReusableScan(normalizedUrl, options);
+        if (recent.isPresent()) {
+            log.info("Reusing scan {} for {}", recent.get().getId(), normalizedUrl);
+            Map<String, Object> response = toStatus(recent.get());
+            response.put("reused", true);
+            return response;
+        }
 
-        CompletableFuture.runAsync(() -> {
-            Process process = null; // ✅ try-finally에서 정리하기 위해
-            BufferedReader reader = null;
-            String scanId = UUID.randomUUID().toString();
-
-            ScanMaster scanMaster = new ScanMaster(scanId, normalizedUrl);
-            scanMasterRepository.save(scanMaster);
+        ScanMaster scanMaster = new ScanMaster(UUID.randomUUID().toString(), normalizedUrl, options.key());
+        ScanJobTracker.Registration registration = scanJobTracker.register(scanMaster);
+        ScanJobTracker.TrackedScan tracked = registration.scan();
+        if (onUpdate != null) {
+            tracked.addListener(onUpdate);
+        }
 
+        if (registration.created()) {
+            ScanPipeline.Job job = ScanPipeline.Job.single(ScanMetrics.Mode.MCP, scanMaster, options, false);
             try {
-                SSEDto sseDto = new SSEDto();
-                sseDto.setType(SSE_TYPE.START.name());
-                sseDto.setScanId(scanId);
-                emitter.send(SseEmitter.event()
-                        .name("init")
-                        .data(sseDto));
-
-                ProcessBuilder processBuilder = new ProcessBuilder(
-                        nucleiPath,
-                        "-u", normalizedUrl,
-                        "-jsonl",
-                        "-stats",
-                        "-silent"
-                );
-
-                processBuilder.redirectErrorStream(true);
-                process = processBuilder.start();
-
-                reader = new BufferedReader(
-                        new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8)
-                );
-
-                String line;
-                int lineNumber = 0;
-                List<Map<String, Object>> findings = new ArrayList<>();
-
-                while ((line = reader.readLine()) != null) {
-                    lineNumber++;
-
-                    String cleanLine = line.replaceAll("\u001b\\[[0-9;]*m", "");
-                    try {
-                        // JSON 라인 파싱
-                        if (cleanLine.trim().startsWith("{")) {
-                            Map<String, Object> jsonData = objectMapper.readValue(cleanLine, Map.class);
-
-                            jsonData = filterLongFields(jsonData);
-
-                            // 진행 상황 데이터 생성
-                            Map<String, Object> progressData = new HashMap<>();
-                            progressData.put("lineNumber", lineNumber);
-                            progressData.put("timestamp", System.currentTimeMillis());
-                            progressData.put("data", jsonData);
-                            sseDto = new SSEDto();
-                            // 취약점 발견 시
-                            if (jsonData.containsKey("info")) {
-                                findings.add(jsonData);
-                                try {
-                                    ScanDetail detail = toScanDetail(scanId, jsonData);
-                                    scanDetailRepository.save(detail);
-                                    AiRstDto result = aiService.analyze(detail);
-                                    sseDto = aiService.saveResult(detail, result);
-                                    sseDto.setType(SSE_TYPE.FIND.name());
-                                    log.info("Finding detected: {} - {}",
-                                            detail.getName(),
-                                            detail.getSeverity());
-                                } catch (Exception e) {
-                                    log.error("Failed to save ScanDetail: {}", e.getMessage(), e);
-                                }
-                                progressData.put("type", "finding");
-                                progressData.put("totalFindings", findings.size());
-                            } else if (jsonData.containsKey("stats")) {
-                                // 통계 정보
-                                progressData.put("type", "stats");
-                                sseDto.setType(SSE_TYPE.PROGRESS.name());
-                                sseDto.setPercent((String)jsonData.get("percent"));
-                            } else {
-                                progressData.put("type", "info");
-                                sseDto.setType(SSE_TYPE.PROGRESS.name());
-                                sseDto.setPercent((String)jsonData.get("percent"));
-                            }
-
-                            // SSE로 전송
-                            emitter.send(SseEmitter.event()
-                                    .name("progress")
-                                    .data(sseDto));
-
-                            log.debug("Line {}: {}", lineNumber, cleanLine); // ✅ debug 레벨로 변경
-
-                        } else if (!cleanLine.trim().isEmpty()) { // ✅ 빈 줄 무시
-                            // 일반 텍스트 출력
-                            Map<String, Object> textData = new HashMap<>();
-                            textData.put("lineNumber", lineNumber);
-                            textData.put("type", "text");
-                            textData.put("message", cleanLine);
-                            textData.put("timestamp", System.currentTimeMillis());
-
-/*                            emitter.send(SseEmitter.event()
-                                    .name("progress")
-                                    .data(textData));*/
-
-                            log.debug("Text line {}: {}", lineNumber, cleanLine);
-                        }
-                    } catch (JsonProcessingException e) {
-                        log.warn("Failed to parse JSON at line {}: {}", lineNumber, cleanLine);
-
-                        Map<String, Object> errorData = new HashMap<>();
-                        errorData.put("lineNumber", lineNumber);
-                        errorData.put("type", "parse_error");
-                        errorData.put("message", "JSON parse failed: " + e.getMessage());
-                        errorData.put("rawLine", cleanLine);
-
-                        emitter.send(SseEmitter.event()
-                                .name("warning")
-                                .data(errorData));
-
-                    } catch (Exception e) {
-                        log.error("Error processing line {}: {}", lineNumber, cleanLine, e);
-
-                        // 에러 정보 전송
-                        Map<String, Object> errorData = new HashMap<>();
-                        errorData.put("lineNumber", lineNumber);
-                        errorData.put("type", "error");
-                        errorData.put("message", e.getMessage());
-                        errorData.put("rawLine", cleanLine);
-
-                        emitter.send(SseEmitter.event()
-                                .name("error")
-                                .data(errorData));
-                    }
-                }
+                scanPipeline.submit(ScanScheduler.Priority.BATCH, job, ScanSink.of(tracked, webhookScanSink),
+                        tracked::onQueuePosition);
+            } catch (RuntimeException e) {
+                tracked.fail(e);
+                throw e;
+            }
+        } else {
+            log.info("Joined in-flight async scan {} for {}", tracked.getScanId(), normalizedUrl);
+        }
 
-                // ✅ 타임아웃 포함 대기
-                boolean finished = process.waitFor(300, TimeUnit.SECONDS); // 5분
+        return tracked.toStatus();
+    }
 
-                if (!finished) {
-                    log.warn("Nuclei process timeout, forcibly destroying");
-                    process.destroyForcibly();
-                }
+    /**
+     * 대기 / 실행 중인 스캔 취소 (DELETE /api/scan/{scanId}, MCP cancel_scan)
+     * nuclei 프로세스 트리 종료, 남은 AI 분석 중단, 슬롯 반납 후 CANCELLED
+     * 이미 끝난 스캔이면 cancelled=false 와 현재 상태
+     */
+    public Map<String, Object> cancelScan(String scanId) {
+        if (scanCancellationRegistry.cancel(scanId)) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("scanId", scanId);
+            response.put("status", "CANCELLED");
+            response.put("cancelled", true);
+            return response;
+        }
 
-                int exitCode = process.exitValue();
-                scanMaster.complete();
-
-                List<ScanDetail> details = scanDetailRepository.findByScanId(scanId);
-                ScanScoreResult score = calculateScore(details);
-                scanMaster.setScore(score.score());
-                scanMaster.setGrade(score.grade());
-                scanMasterRepository.save(scanMaster);
-
-                // 완료 메시지 전송
-                Map<String, Object> completionData = new HashMap<>();
-                completionData.put("type", "complete");
-                completionData.put("exitCode", exitCode);
-                completionData.put("totalLines", lineNumber);
-                completionData.put("totalFindings", findings.size());
-                completionData.put("findings", findings);
-                completionData.put("timestamp", System.currentTimeMillis());
-                completionData.put("url", normalizedUrl); // ✅ URL 추가
-
-                sseDto = new SSEDto();
-                sseDto.setType(SSE_TYPE.END.name());
-                sseDto.setGrade(score.grade());
-                sseDto.setScore(score.score());
-
-                emitter.send(SseEmitter.event()
-                        .name("complete")
-                        .data(sseDto));
+        Map<String, Object> response = scanStatus(scanId);
+        response.put("cancelled", false);
+        return response;
+    }
 
-                emitter.complete();
+    /**
+     * 진행 상태 (MCP scan_status)
+     * 진행 중이거나 최근 끝난 작업은 메모리에서, 그 외에는 DB 에서 조회
+     */
+    public Map<String, Object> scanStatus(String scanId) {
+        Optional<ScanJobTracker.TrackedScan> tracked = scanJobTracker.find(scanId);
+        if (tracked.isPresent()) {
+            return tracked.get().toStatus();
+        }
 
-                log.info("Scan completed for {}: Exit code: {}, Total lines: {}, Findings: {}",
-                        normalizedUrl, exitCode, lineNumber, findings.size());
-
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt(); // ✅ 인터럽트 상태 복원
-                log.error("Scan interrupted for {}", normalizedUrl, e);
-
-                try {
-                    emitter.send(SseEmitter.event()
-                            .name("error")
-                            .data(Map.of(
-                                    "type", "interrupted",
-                                    "message", "Scan was interrupted"
-                            )));
-                } catch (IOException ignored) {}
-                emitter.completeWithError(e);
+        ScanMaster scanMaster = scanMasterRepository.findById(scanId)
+                .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 scanId: " + scanId));
+        return toStatus(scanMaster);
+    }
 
-            } catch (Exception e) {
-                log.error("Error during scan for {}", normalizedUrl, e);
-                scanMaster.fail(e.getMessage());
-                scanMasterRepository.save(scanMaster);
-
-                try {
-                    emitter.send(SseEmitter.event()
-                            .name("error")
-                            .data(Map.of(
-                                    "type", "fatal",
-                                    "message", e.getMessage(),
-                                    "url", normalizedUrl
-                            )));
-                } catch (IOException ignored) {}
-                emitter.completeWithError(e);
+    /**
+     * 완료된 스캔 결과 페이지 (MCP scan_result, page 는 0부터)
+     */
+    public Map<String, Object> scanResult(String scanId, int page, int size) {
+        ScanMaster scanMaster = scanMasterRepository.findById(scanId)
+                .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 scanId: " + scanId));
+        if (!"COMPLETED".equals(scanMaster.getStatus())) {
+            return scanStatus(scanId);
+        }
 
-            } finally {
-                if (reader != null) {
-                    try {
-                        reader.close();
-                    } catch (IOException e) {
-                        log.warn("Failed to close reader", e);
-                    }
-                }
+        int pageSize = Math.max(1, Math.min(size, resultMaxPageSize));
+        Page<ScanDetail> details = scanDetailRepository.findByScanIdOrderByIdAsc(
+                scanId, PageRequest.of(Math.max(0, page), pageSize));
 
-                if (process != null && process.isAlive()) {
-                    log.warn("Process still alive, destroying forcibly");
-                    process.destroyForcibly();
-                }
-            }
+        List<Map<String, Object>> findings = new ArrayList<>();
+        for (ScanDetail detail : details) {
+            findings.add(CollectingScanSink.toMcpFinding(detail));
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "DONE");
+        response.put("scanId", scanId);
+        response.put("url", scanMaster.getTargetUrl());
+        response.put("score", scanMaster.getScore());
+        response.put("grade", scanMaster.getGrade());
+        response.put("totalFindings", details.getTotalElements());
+        response.put("page", details.getNumber());
+        response.put("size", details.getSize());
+        response.put("totalPages", details.getTotalPages());
+        response.put("hasNext", details.hasNext());
+        response.put("results", findings);
+        return response;
+    }
+
+    private Map<String, Object> toStatus(ScanMaster scanMaster) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("scanId", scanMaster.getId());
+        response.put("url", scanMaster.getTargetUrl());
+        response.put("status", switch (String.valueOf(scanMaster.getStatus())) {
+            case "COMPLETED" -> "DONE";
+            case "ERROR" -> "ERROR";
+            case "TIMED_OUT" -> "TIMED_OUT";
+            case "RESOURCE_LIMIT" -> "RESOURCE_LIMIT";
+            case "CANCELLED" -> "CANCELLED";
+            default -> "RUNNING";
         });
+        response.put("totalFindings", scanDetailRepository.countByScanId(scanMaster.getId()));
+        response.put("score", scanMaster.getScore());
+        response.put("grade", scanMaster.getGrade());
+        if (scanMaster.getErrorMessage() != null) {
+            response.put("message", scanMaster.getErrorMessage());
+        }
+        return response;
     }
 
-    public Map<String, Object> mcpAll(String url) {
+    /**
+     * 여러 대상을 한 번의 nuclei -l 실행으로 스캔
+     * 템플릿 로딩은 한 번만 하고, 결과는 host / matched-at 기준으로 대상별 ScanMaster 에 나눠 저장
+     * 스캔이 끝날 때까지 기다리지 않고 future 를 돌려준다 (대기열이 가득 차면 호출 시점에 ScanQueueFullException)
+     */
+    public CompletableFuture<Map<String, Object>> scanBatch(List<String> urls, String mode, String templates) {
+        if (urls == null || urls.isEmpty()) {
+            throw new IllegalArgumentException("targetUrls cannot be empty");
+        }
+        ScanOptions options = scanProfiles.resolve(mode, templates);
 
-        String normalizedUrl = normalizeUrl(url);
+        List<String> targets = urls.stream()
+                .map(this::normalizeUrl)
+                .distinct()
+                .toList();
 
-        Map<String, Object> response = new HashMap<>();
-        List<Map<String, Object>> findings = new ArrayList<>();
+        if (targets.size() > batchMaxTargets) {
+            throw new IllegalArgumentException("Too many targets: " + targets.size() + " (max " + batchMaxTargets + ")");
+        }
 
-        Process process = null;
-        BufferedReader reader = null;
-        String scanId = UUID.randomUUID().toString();
+        return runBatchScan(targets, options);
+    }
 
-        ScanMaster scanMaster = new ScanMaster(scanId, normalizedUrl);
-        scanMasterRepository.save(scanMaster);
+    private CompletableFuture<Map<String, Object>> runBatchScan(List<String> targets, ScanOptions options) {
+        // 대상 URL / host 기준 조회용
+        Map<String, ScanMaster> mastersByUrl = new LinkedHashMap<>();
+        Map<String, ScanMaster> mastersByHost = new HashMap<>();
 
-        int findingCount = 0;
+        for (String target : targets) {
+            ScanMaster scanMaster = new ScanMaster(UUID.randomUUID().toString(), target, options.key());
+            mastersByUrl.put(target, scanMaster);
+            mastersByHost.putIfAbsent(hostKey(target), scanMaster);
+        }
 
-        try {
-            ProcessBuilder processBuilder = new ProcessBuilder(
-                    nucleiPath,
-                    "-u", normalizedUrl,
-                    "-jsonl",
-                    "-stats",
-                    "-silent"
-            );
-            processBuilder.redirectErrorStream(true);
-            process = processBuilder.start();
+        ScanPipeline.Job job = ScanPipeline.Job.multi(
+                ScanMetrics.Mode.BATCH,
+                new ArrayList<>(mastersByUrl.values()),
+                finding -> resolveBatchTarget(finding, mastersByUrl, mastersByHost),
+                options,
+                Duration.ofMinutes(batchTimeoutMinutes)
+        );
+        return scanPipeline.submit(
+                ScanScheduler.Priority.BATCH,
+                job,
+                webhookScanSink,
+                position -> log.info("Batch scan queued ({} targets): position {}", targets.size(), position)
+        ).thenApply(result -> toBatchResponse(targets, result));
+    }
 
-            reader = new BufferedReader(
-                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8)
-            );
+    private Map<String, Object> toBatchResponse(List<String> targets, ScanPipeline.Result result) {
+        Map<String, Object> response = new HashMap<>();
+        if (result.failed()) {
+            response.put("status", result.cancelled() ? "CANCELLED" : "ERROR");
+            response.put("message", result.error().getMessage());
+            return response;
+        }
 
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String cleanLine = line.replaceAll("\u001b\\[[0-9;]*m", "");
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (ScanPipeline.TargetResult target : result.targets()) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("scanId", target.scanMaster().getId());
+            item.put("url", target.scanMaster().getTargetUrl());
+            item.put("totalFindings", target.findingCount());
+            item.put("score", target.score().score());
+            item.put("grade", target.score().grade());
+            results.add(item);
+        }
 
-                if (!cleanLine.startsWith("{")) continue;
+        response.put("status", "DONE");
+        response.put("totalTargets", targets.size());
+        response.put("totalLines", result.lineCount());
+        response.put("totalFindings", result.findingCount());
+        response.put("results", results);
+        return response;
+    }
 
-                Map<String, Object> json = objectMapper.readValue(cleanLine, Map.class);
-                json = filterLongFields(json);
+    /**
+     * nuclei 결과가 어느 대상에서 나왔는지 찾기
+     * host(입력값 그대로) → host 키 → matched-at 의 host 키 순서로 매칭
+     */
+    static ScanMaster resolveBatchTarget(NucleiFinding finding,
+                                         Map<String, ScanMaster> mastersByUrl,
+                                         Map<String, ScanMaster> mastersByHost) {
+        String host = finding.host();
+        if (host != null && !host.isBlank()) {
+            try {
+                ScanMaster byUrl = mastersByUrl.get(UrlCanonicalizer.canonicalize(host));
+                if (byUrl != null) return byUrl;
+            } catch (IllegalArgumentException e) {
+                log.debug("Unparsable batch host {}: {}", host, e.getMessage());
+            }
 
-                if (json.containsKey("info")) {
-                    findingCount++;
+            ScanMaster byHost = mastersByHost.get(hostKey(host));
+            if (byHost != null) return byHost;
+        }
 
-                    Map<String, Object> find = new HashMap<>();
-                    Map<?, ?> info = (Map<?, ?>) json.get("info");
+        String matchedAt = finding.matchedAt();
+        if (matchedAt != null && !matchedAt.isBlank()) {
+            return mastersByHost.get(hostKey(matchedAt));
+        }
 
-                    find.put("name", info.get("name"));
-                    find.put("severity", info.get("severity"));
-                    find.put("description", info.get("description"));
-                    find.put("matched", json.get("matched-at"));
+        return null;
+    }
 
-                    findings.add(find);
-                }
+    /**
+     * host[:port] 형태의 비교 키 (기본 포트는 생략)
+     */
+    static String hostKey(String value) {
+        try {
+            URI uri = URI.create(UrlCanonicalizer.canonicalize(value));
+            String host = uri.getHost();
+            if (host == null) {
+                return value.toLowerCase();
             }
 
-            process.waitFor(300, TimeUnit.SECONDS);
-
-            // 점수 계산
-            List<ScanDetail> details = scanDetailRepository.findByScanId(scanId);
-            ScanScoreResult score = calculateScore(details);
+            int port = uri.getPort();
+            boolean defaultPort = port == -1
+                    || ("https".equalsIgnoreCase(uri.getScheme()) && port == 443)
+                    || ("http".equalsIgnoreCase(uri.getScheme()) && port == 80);
 
-            response.put("status", "DONE");
-            response.put("scanId", scanId);
-            response.put("url", normalizedUrl);
-            response.put("totalFindings", findingCount);
-            response.put("grade", score.grade());
-            response.put("score", score.score());
-            response.put("results", findings);
-
-            scanMaster.complete();
-            scanMaster.setScore(score.score());
-            scanMaster.setGrade(score.grade());
-            scanMasterRepository.save(scanMaster);
-
-        } catch (Exception e) {
-            response.put("status", "ERROR");
-            response.put("message", e.getMessage());
-        } finally {
-            try { if (reader != null) reader.close(); } catch (IOException ignored) {}
-            if (process != null && process.isAlive()) process.destroyForcibly();
+            return defaultPort ? host.toLowerCase() : host.toLowerCase() + ":" + port;
+        } catch (IllegalArgumentException e) {
+            return value.toLowerCase();
         }
-
-        return response;
     }
 }
@@ -0,0 +1,143 @@
+package com.fast.trust.scan.service;
+
+import com.fast.trust.scan.dto.SSEDto;
+import com.fast.trust.scan.dto.ScanScoreResult;
+import com.fast.trust.scan.entity.ScanDetail;
+import com.fast.trust.scan.entity.ScanMaster;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 스캔 파이프라인(ScanPipeline)의 emit 단계 출력 대상 (SSE / MCP 수집 / webhook)
+ * 필요한 이벤트만 구현하면 된다
+ */
+public interface ScanSink {
+
+    /**
+     * 대상별 ScanMaster 저장 직후
+     */
+    default void onStart(ScanMaster scanMaster) {
+    }
+
+    /**
+     * 저장되어 ID 가 부여된 결과 (추가된 순서대로)
+     */
+    default void onFinding(ScanDetail detail) {
+    }
+
+    /**
+     * enrich 단계의 AI 분석 결과
+     */
+    default void onAiResult(SSEDto aiDto) {
+    }
+
+    /**
+     * nuclei -stats 진행률
+     * @param liveScore 지금까지의 점수 (대상이 여러 개인 작업이면 null)
+     */
+    default void onProgress(String percent, ScanScoreResult liveScore) {
+    }
+
+    /**
+     * JSON 파싱 실패 (해당 줄만 건너뜀)
+     */
+    default void onParseWarning(int lineNumber, String rawLine, String message) {
+    }
+
+    /**
+     * 한 줄 처리 중 오류 (해당 줄만 건너뜀)
+     */
+    default void onLineError(int lineNumber, String rawLine, String message) {
+    }
+
+    /**
+     * 모든 대상의 점수 저장 후
+     */
+    default void onComplete(ScanPipeline.Result result) {
+    }
+
+    /**
+     * 스캔 실패 (대상 ScanMaster 는 이미 실패 처리됨)
+     */
+    default void onError(ScanPipeline.Result result, Exception e) {
+    }
+
+    /**
+     * 스캔 취소 (대상 ScanMaster 는 이미 CANCELLED, 대기 중 취소면 onStart 없이 호출)
+     */
+    default void onCancel(ScanPipeline.Result result) {
+    }
+
+    static ScanSink of(ScanSink... sinks) {
+        return sinks.length == 1 ? sinks[0] : new Composite(List.of(sinks));
+    }
+
+    /**
+     * 여러 sink 로 전달, 한 sink 의 실패가 다른 sink 나 스캔을 막지 않는다
+     */
+    @Slf4j
+    final class Composite implements ScanSink {
+        private final List<ScanSink> sinks;
+
+        private Composite(List<ScanSink> sinks) {
+            this.sinks = sinks;
+        }
+
+        @Override
+        public void onStart(ScanMaster scanMaster) {
+            each(sink -> sink.onStart(scanMaster));
+        }
+
+        @Override
+        public void onFinding(ScanDetail detail) {
+            each(sink -> sink.onFinding(detail));
+        }
+
+        @Override
+        public void onAiResult(SSEDto aiDto) {
+            each(sink -> sink.onAiResult(aiDto));
+        }
+
+        @Override
+        public void onProgress(String percent, ScanScoreResult liveScore) {
+            each(sink -> sink.onProgress(percent, liveScore));
+        }
+
+        @Override
+        public void onParseWarning(int lineNumber, String rawLine, String message) {
+            each(sink -> sink.onParseWarning(lineNumber, rawLine, message));
+        }
+
+        @Override
+        public void onLineError(int lineNumber, String rawLine, String message) {
+            each(sink -> sink.onLineError(lineNumber, rawLine, message));
+        }
+
+        @Override
+        public void onComplete(ScanPipeline.Result result) {
+            each(sink -> sink.onComplete(result));
+        }
+
+        @Override
+        public void onError(ScanPipeline.Result result, Exception e) {
+            each(sink -> sink.onError(result, e));
+        }
+
+        @Override
+        public void onCancel(ScanPipeline.Result result) {
+            each(sink -> sink.onCancel(result));
+        }
+
+        private void each(Consumer<ScanSink> event) {
+            for (ScanSink sink : sinks) {
+                try {
+                    event.accept(sink);
+                } catch (Exception e) {
+                    log.warn("Scan sink {} failed: {}", sink.getClass().getSimpleName(), e.getMessage());
+                }
+            }
+        }
+    }
+}
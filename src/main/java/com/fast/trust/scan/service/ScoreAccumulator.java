@@ -0,0 +1,95 @@
+package com.fast.trust.scan.service;
+
+import com.fast.trust.scan.dto.ScanScoreResult;
+
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 스캔 점수 누적 계산기
+ * 취약점이 들어올 때마다 심각도별 건수만 누적하므로 중간 점수를 언제든 계산할 수 있다
+ */
+public class ScoreAccumulator {
+
+    public static final Set<String> HIGH_RISK_INFO_TEMPLATES = Set.of(
+            "ssl-expired",
+            "tls-deprecated",
+            "missing-security-headers",
+            "eol-software"
+    );
+
+    private long critical;
+    private long high;
+    private long medium;
+    private long low;
+    private long info;
+    private long highRiskInfo;
+
+    public synchronized void add(String severity, String templateId) {
+        String normalized = normalizeSeverity(severity);
+        addCount(normalized, 1);
+
+        // High-risk INFO
+        if ("info".equals(normalized) && isHighRiskInfoTemplate(templateId)) {
+            highRiskInfo++;
+        }
+    }
+
+    public synchronized void addCount(String severity, long count) {
+        switch (normalizeSeverity(severity)) {
+            case "critical" -> critical += count;
+            case "high" -> high += count;
+            case "medium" -> medium += count;
+            case "low" -> low += count;
+            case "info" -> info += count;
+            default -> {
+                // 알 수 없는 심각도는 점수에 반영하지 않는다
+            }
+        }
+    }
+
+    public synchronized void addHighRiskInfo(long count) {
+        highRiskInfo += count;
+    }
+
+    public synchronized long total() {
+        return critical + high + medium + low + info;
+    }
+
+    public synchronized ScanScoreResult result() {
+        long score = 100;
+
+        score -= highRiskInfo;
+        score -= Math.min(critical * 25, 50);
+        score -= Math.min(high * 15, 30);
+        score -= Math.min(medium * 5, 15);
+        score -= Math.min(low * 2, 6);
+
+        int finalScore = (int) Math.max(score, 0);
+        return new ScanScoreResult(finalScore, grade(finalScore));
+    }
+
+    public static boolean isHighRiskInfoTemplate(String templateId) {
+        String normalized = Optional.ofNullable(templateId)
+                .orElse("")
+                .toLowerCase();
+
+        return HIGH_RISK_INFO_TEMPLATES.stream().anyMatch(normalized::contains);
+    }
+
+    public static String grade(int score) {
+        if (score >= 90) return "A";
+        if (score >= 80) return "B+";
+        if (score >= 70) return "B";
+        if (score >= 60) return "B-";
+        if (score >= 50) return "C";
+        if (score >= 40) return "D";
+        return "F";
+    }
+
+    private static String normalizeSeverity(String severity) {
+        return Optional.ofNullable(severity)
+                .orElse("info")
+                .toLowerCase();
+    }
+}
@@ -0,0 +1,151 @@
+package com.fast.trust.scan.service;
+
+import com.fast.trust.scan.dto.SSEDto;
+import com.fast.trust.scan.dto.SSE_TYPE;
+import com.fast.trust.scan.dto.ScanScoreResult;
+import com.fast.trust.scan.entity.ScanDetail;
+import com.fast.trust.scan.entity.ScanMaster;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 스캔 이벤트를 SSE 로 전송 (init → queue / progress / FIND (→ AI) → complete)
+ * 전송 실패는 로그만 남기고 스캔은 계속 진행한다
+ */
+@Slf4j
+public class SseScanSink implements ScanSink {
+
+    private final ScanMetrics.Stage metrics;
+    private final SseEmitter emitter;
+
+    public SseScanSink(ScanMetrics.Stage metrics, SseEmitter emitter) {
+        this.metrics = metrics;
+        this.emitter = emitter;
+    }
+
+    /**
+     * 대기열 순번 (슬롯 대기 중)
+     */
+    public void onQueuePosition(int position) {
+        SSEDto sseDto = new SSEDto();
+        sseDto.setType(SSE_TYPE.QUEUE.name());
+        sseDto.setQueuePosition(position);
+        send("queue", sseDto);
+    }
+
+    @Override
+    public void onStart(ScanMaster scanMaster) {
+        SSEDto sseDto = new SSEDto();
+        sseDto.setType(SSE_TYPE.START.name());
+        sseDto.setScanId(scanMaster.getId());
+        send("init", sseDto);
+    }
+
+    @Override
+    public void onFinding(ScanDetail detail) {
+        SSEDto sseDto = new SSEDto();
+        sseDto.setType(SSE_TYPE.FIND.name());
+        sseDto.setScanId(detail.getScanId());
+        sseDto.setScanDetailId(String.valueOf(detail.getId()));
+        sseDto.setName(detail.getName());
+        sseDto.setSeverity(detail.getSeverity());
+        sseDto.setDescription(detail.getDescription());
+        sseDto.setAiAnalyzed(false);
+        send("progress", sseDto);
+    }
+
+    @Override
+    public void onAiResult(SSEDto aiDto) {
+        send("progress", aiDto);
+    }
+
+    @Override
+    public void onProgress(String percent, ScanScoreResult liveScore) {
+        // 통계 정보 + 실시간 점수
+        SSEDto sseDto = new SSEDto();
+        sseDto.setType(SSE_TYPE.PROGRESS.name());
+        sseDto.setPercent(percent);
+        if (liveScore != null) {
+            sseDto.setScore(liveScore.score());
+            sseDto.setGrade(liveScore.grade());
+        }
+        send("progress", sseDto);
+    }
+
+    @Override
+    public void onParseWarning(int lineNumber, String rawLine, String message) {
+        send("warning", lineError("parse_error", lineNumber, rawLine, message));
+    }
+
+    @Override
+    public void onLineError(int lineNumber, String rawLine, String message) {
+        send("error", lineError("error", lineNumber, rawLine, message));
+    }
+
+    @Override
+    public void onComplete(ScanPipeline.Result result) {
+        ScanPipeline.TargetResult target = result.single();
+
+        SSEDto sseDto = new SSEDto();
+        sseDto.setType(SSE_TYPE.END.name());
+        sseDto.setScanId(target.scanMaster().getId());
+        sseDto.setGrade(target.score().grade());
+        sseDto.setScore(target.score().score());
+        if (result.timedOut()) {
+            sseDto.setDescription(target.scanMaster().getErrorMessage());
+        }
+        send("complete", sseDto);
+
+        emitter.complete();
+    }
+
+    @Override
+    public void onError(ScanPipeline.Result result, Exception e) {
+        if (e instanceof InterruptedException) {
+            send("error", Map.of(
+                    "type", "interrupted",
+                    "message", "Scan was interrupted"
+            ));
+        } else {
+            Map<String, Object> errorData = new HashMap<>();
+            errorData.put("type", "fatal");
+            errorData.put("message", String.valueOf(e.getMessage()));
+            errorData.put("url", result.single().scanMaster().getTargetUrl());
+            send("error", errorData);
+        }
+        emitter.completeWithError(e);
+    }
+
+    @Override
+    public void onCancel(ScanPipeline.Result result) {
+        SSEDto sseDto = new SSEDto();
+        sseDto.setType(SSE_TYPE.CANCELLED.name());
+        sseDto.setScanId(result.single().scanMaster().getId());
+        send("cancelled", sseDto);
+
+        emitter.complete();
+    }
+
+    private Map<String, Object> lineError(String type, int lineNumber, String rawLine, String message) {
+        Map<String, Object> errorData = new HashMap<>();
+        errorData.put("lineNumber", lineNumber);
+        errorData.put("type", type);
+        errorData.put("message", message);
+        errorData.put("rawLine", rawLine);
+        return errorData;
+    }
+
+    private void send(String name, Object data) {
+        try {
+            metrics.send(emitter, SseEmitter.event()
+                    .name(name)
+                    .data(data));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Failed to send {} event: {}", name, e.getMessage());
+        }
+    }
+}
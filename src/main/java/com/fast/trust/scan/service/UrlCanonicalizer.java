@@ -0,0 +1,113 @@
+package com.fast.trust.scan.service;
+
+import java.net.IDN;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 스캔 대상 URL 정규화 (같은 대상은 같은 문자열이 되도록)
+ * - 스킴 없으면 https:// 추가, 스킴 / 호스트 소문자, IDN → punycode
+ * - 기본 포트(80 / 443) 제거, 루트 경로 "/" 제거, 경로의 . / .. 정리
+ * - fragment 제거 (query 는 대상 구분에 쓰이므로 유지)
+ * - 계정 정보(user:password@)가 있으면 거부 (target_url / 병합 키 / 이력 / 로그에 자격 증명이 남지 않도록)
+ */
+public final class UrlCanonicalizer {
+
+    private static final Pattern HAS_SCHEME = Pattern.compile("^[a-zA-Z][a-zA-Z0-9+.-]*://.*");
+
+    private UrlCanonicalizer() {
+    }
+
+    public static String canonicalize(String url) {
+        if (url == null || url.trim().isEmpty()) {
+            throw new IllegalArgumentException("URL cannot be empty");
+        }
+
+        String value = url.trim();
+        if (!HAS_SCHEME.matcher(value).matches()) {
+            value = "https://" + value;
+        }
+
+        URI uri;
+        try {
+            uri = new URI(asciiAuthority(value)).normalize();
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Invalid URL: " + url, e);
+        }
+
+        if (uri.getRawUserInfo() != null) {
+            // 메시지에도 URL 을 넣지 않는다
+            throw new IllegalArgumentException("URL must not contain credentials (user:password@)");
+        }
+
+        String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+        if (!"http".equals(scheme) && !"https".equals(scheme)) {
+            throw new IllegalArgumentException("Unsupported URL scheme: " + scheme);
+        }
+
+        String host = uri.getHost();
+        if (host == null || host.isEmpty()) {
+            throw new IllegalArgumentException("URL has no host: " + url);
+        }
+        host = canonicalHost(host);
+
+        int port = uri.getPort();
+        if (("https".equals(scheme) && port == 443) || ("http".equals(scheme) && port == 80)) {
+            port = -1;
+        }
+
+        String path = uri.getRawPath();
+        if (path == null || "/".equals(path)) {
+            path = "";
+        }
+
+        StringBuilder sb = new StringBuilder(value.length());
+        sb.append(scheme).append("://").append(host);
+        if (port != -1) {
+            sb.append(':').append(port);
+        }
+        sb.append(path);
+        if (uri.getRawQuery() != null) {
+            sb.append('?').append(uri.getRawQuery());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 비 ASCII 호스트는 URI 가 host 로 인식하지 못하므로 파싱 전에 punycode 로 변환
+     */
+    private static String asciiAuthority(String value) {
+        int start = value.indexOf("://") + 3;
+        int end = start;
+        while (end < value.length() && "/?#".indexOf(value.charAt(end)) < 0) {
+            end++;
+        }
+
+        String authority = value.substring(start, end);
+        if (authority.chars().allMatch(c -> c < 0x80)) {
+            return value;
+        }
+
+        int at = authority.lastIndexOf('@');
+        int colon = authority.indexOf(':', at + 1);
+        String host = authority.substring(at + 1, colon < 0 ? authority.length() : colon);
+        String ascii = authority.substring(0, at + 1)
+                + IDN.toASCII(host, IDN.ALLOW_UNASSIGNED)
+                + (colon < 0 ? "" : authority.substring(colon));
+
+        return value.substring(0, start) + ascii + value.substring(end);
+    }
+
+    private static String canonicalHost(String host) {
+        // IPv6 리터럴 ([::1]) 은 그대로
+        if (host.startsWith("[")) {
+            return host.toLowerCase(Locale.ROOT);
+        }
+        if (host.endsWith(".")) {
+            host = host.substring(0, host.length() - 1);
+        }
+        return IDN.toASCII(host, IDN.ALLOW_UNASSIGNED).toLowerCase(Locale.ROOT);
+    }
+}
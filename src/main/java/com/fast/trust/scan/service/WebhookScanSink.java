@@ -0,0 +1,109 @@
+package com.fast.trust.scan.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 스캔 완료 / 실패 / 취소를 webhook 으로 알리는 sink (scan.webhook.url 이 비어 있으면 비활성)
+ * 대상마다 한 번 POST, 응답은 기다리지 않는다
+ */
+@Component
+@Slf4j
+public class WebhookScanSink implements ScanSink {
+
+    private final String webhookUrl;
+    private final Duration timeout;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public WebhookScanSink(
+            @Value("${scan.webhook.url:}") String webhookUrl,
+            @Value("${scan.webhook.timeout-seconds:10}") long timeoutSeconds
+    ) {
+        this.webhookUrl = webhookUrl;
+        this.timeout = Duration.ofSeconds(timeoutSeconds);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return webhookUrl != null && !webhookUrl.isBlank();
+    }
+
+    @Override
+    public void onComplete(ScanPipeline.Result result) {
+        for (ScanPipeline.TargetResult target : result.targets()) {
+            Map<String, Object> payload = payload(target,
+                    "TIMED_OUT".equals(target.scanMaster().getStatus()) ? "TIMED_OUT" : "DONE");
+            payload.put("score", target.score().score());
+            payload.put("grade", target.score().grade());
+            post(payload);
+        }
+    }
+
+    @Override
+    public void onError(ScanPipeline.Result result, Exception e) {
+        for (ScanPipeline.TargetResult target : result.targets()) {
+            Map<String, Object> payload = payload(target, "ERROR");
+            payload.put("message", e.getMessage());
+            post(payload);
+        }
+    }
+
+    @Override
+    public void onCancel(ScanPipeline.Result result) {
+        for (ScanPipeline.TargetResult target : result.targets()) {
+            post(payload(target, "CANCELLED"));
+        }
+    }
+
+    private Map<String, Object> payload(ScanPipeline.TargetResult target, String status) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("status", status);
+        payload.put("scanId", target.scanMaster().getId());
+        payload.put("url", target.scanMaster().getTargetUrl());
+        payload.put("totalFindings", target.findingCount());
+        return payload;
+    }
+
+    private void post(Map<String, Object> payload) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        String body;
+        try {
+            body = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize webhook payload: {}", e.getMessage());
+            return;
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(webhookUrl))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, ex) -> {
+                    if (ex != null) {
+                        log.warn("Scan webhook failed for {}: {}", payload.get("scanId"), ex.getMessage());
+                    } else if (response.statusCode() >= 400) {
+                        log.warn("Scan webhook returned {} for {}", response.statusCode(), payload.get("scanId"));
+                    }
+                });
+    }
+}
@@ -3,13 +3,25 @@ package com.fast.trust.tool;
 import com.fast.trust.scan.service.ScanService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import io.modelcontextprotocol.spec.McpSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.McpToolUtils;
 import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.stereotype.Component;
 
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 @Component
+@Slf4j
 public class ScanTools {
+    private static final String MODE_DESCRIPTION =
+            "Scan profile: full (default), critical, or critical-fast (critical/high only, finishes in seconds)";
+
     private final ScanService scanService;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
@@ -17,9 +29,69 @@ public class ScanTools {
         this.scanService = scanService;
     }
 
-    @Tool(name = "scan_url")
-    public String scanUrl(String url) {
-        Map<String,Object> result = scanService.mcpAll(url);
+    /**
+     * MCP 동기 도구 호출은 Reactor boundedElastic 에서 실행된다
+     * (spring.threads.virtual.enabled=true 이면 가상 스레드, VirtualThreadsEnvironmentPostProcessor 참고)
+     */
+    @Tool(name = "scan_url", description = "Scan a URL and wait for the full result (can take several minutes). Prefer start_scan.")
+    public String scanUrl(@ToolParam(description = "Target URL") String url,
+                          @ToolParam(description = MODE_DESCRIPTION, required = false) String mode) {
+        return toJson(scanService.mcpAll(url, mode));
+    }
+
+    /**
+     * 스캔을 시작하고 scanId 를 바로 돌려준다
+     * 클라이언트 세션이 있으면 진행 상태를 MCP 로그 알림(logger "trust.scan")으로 계속 보낸다
+     * (진행 알림은 요청 단위 progressToken 에 묶여 start_scan 응답 후에는 보낼 수 없으므로 세션 단위 로그 알림 사용)
+     */
+    @Tool(name = "start_scan", description = "Start a vulnerability scan of a URL and return its scanId immediately. "
+            + "Poll scan_status for progress and fetch findings with scan_result.")
+    public String startScan(@ToolParam(description = "Target URL") String url,
+                            @ToolParam(description = MODE_DESCRIPTION, required = false) String mode,
+                            ToolContext toolContext) {
+        return toJson(scanService.startScan(url, mode, progressNotifier(toolContext)));
+    }
+
+    @Tool(name = "scan_status", description = "Get the status of a scan: QUEUED, RUNNING, DONE, ERROR or CANCELLED, "
+            + "with progress percent, live score and the most recent findings.")
+    public String scanStatus(@ToolParam(description = "scanId returned by start_scan") String scanId) {
+        return toJson(scanService.scanStatus(scanId));
+    }
+
+    @Tool(name = "cancel_scan", description = "Cancel a queued or running scan. Findings saved so far are kept.")
+    public String cancelScan(@ToolParam(description = "scanId returned by start_scan") String scanId) {
+        return toJson(scanService.cancelScan(scanId));
+    }
+
+    @Tool(name = "scan_result", description = "Get the findings of a finished scan, one page at a time.")
+    public String scanResult(@ToolParam(description = "scanId returned by start_scan") String scanId,
+                             @ToolParam(description = "Page number, starting at 0", required = false) Integer page,
+                             @ToolParam(description = "Page size (max 100)", required = false) Integer size) {
+        return toJson(scanService.scanResult(scanId, page != null ? page : 0, size != null ? size : 50));
+    }
+
+    private Consumer<Map<String, Object>> progressNotifier(ToolContext toolContext) {
+        Optional<McpSyncServerExchange> exchange = toolContext != null
+                ? McpToolUtils.getMcpExchange(toolContext)
+                : Optional.empty();
+        if (exchange.isEmpty()) {
+            return null;
+        }
+
+        return status -> {
+            try {
+                exchange.get().loggingNotification(McpSchema.LoggingMessageNotification.builder()
+                        .level(McpSchema.LoggingLevel.INFO)
+                        .logger("trust.scan")
+                        .data(toJson(status))
+                        .build());
+            } catch (Exception e) {
+                log.debug("Failed to send scan progress notification: {}", e.getMessage());
+            }
+        };
+    }
+
+    private String toJson(Map<String, Object> result) {
         try {
             return objectMapper.writeValueAsString(result);
         } catch (JsonProcessingException e) {
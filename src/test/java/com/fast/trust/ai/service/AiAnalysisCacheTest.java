@@ -0,0 +1,125 @@
+package com.fast.trust.ai.service;
+
+import com.fast.trust.ai.dto.AiRstDto;
+import com.fast.trust.ai.entity.AiCacheEntry;
+import com.fast.trust.ai.repository.AiCacheEntryRepository;
+import com.fast.trust.scan.entity.ScanDetail;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class AiAnalysisCacheTest {
+
+    private static final String PROMPT_VERSION = "v1";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AiCacheEntryRepository repository;
+    private AiAnalysisCache cache;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(AiCacheEntryRepository.class);
+        when(repository.findById(anyString())).thenReturn(Optional.empty());
+        cache = new AiAnalysisCache(repository, objectMapper, 24, 100, meterRegistry);
+    }
+
+    @Test
+    void fingerprintIgnoresLocationFormattingAndExtractedOrder() {
+        ScanDetail first = detail("https://a.example.com/.env", "Git Config", List.of("b", "a", "a"));
+        ScanDetail second = detail("https://b.example.com/.env", "  git   config ", List.of("A", "B"));
+
+        assertThat(cache.fingerprint(first, PROMPT_VERSION)).isEqualTo(cache.fingerprint(second, PROMPT_VERSION));
+    }
+
+    @Test
+    void fingerprintChangesWithPromptVersionAndExtractedValues() {
+        ScanDetail detail = detail("https://example.com", "Git Config", List.of("a"));
+        ScanDetail other = detail("https://example.com", "Git Config", List.of("b"));
+
+        assertThat(cache.fingerprint(detail, PROMPT_VERSION)).isNotEqualTo(cache.fingerprint(detail, "v2"));
+        assertThat(cache.fingerprint(detail, PROMPT_VERSION)).isNotEqualTo(cache.fingerprint(other, PROMPT_VERSION));
+    }
+
+    @Test
+    void putServesLaterLookupsFromMemory() {
+        ScanDetail detail = detail("https://example.com", "Git Config", List.of());
+        String fingerprint = cache.fingerprint(detail, PROMPT_VERSION);
+
+        cache.put(fingerprint, detail, PROMPT_VERSION, result());
+
+        assertThat(cache.get(fingerprint)).hasValueSatisfying(hit -> assertThat(hit.description()).isEqualTo("desc"));
+        verify(repository, never()).findById(anyString());
+        verify(repository).save(any(AiCacheEntry.class));
+        assertThat(requests("memory_hit")).isEqualTo(1);
+    }
+
+    @Test
+    void dbHitIsPromotedToMemory() {
+        Map<String, Object> json = objectMapper.convertValue(result(), new TypeReference<Map<String, Object>>() {});
+        when(repository.findById("fp")).thenReturn(Optional.of(new AiCacheEntry("fp", "git-config", "low", PROMPT_VERSION, json)));
+
+        assertThat(cache.get("fp")).isPresent();
+        assertThat(cache.get("fp")).isPresent();
+
+        verify(repository, times(1)).findById("fp");
+        assertThat(requests("db_hit")).isEqualTo(1);
+        assertThat(requests("memory_hit")).isEqualTo(1);
+    }
+
+    @Test
+    void expiredEntryIsAMiss() {
+        AiAnalysisCache expiring = new AiAnalysisCache(repository, objectMapper, 0, 100, new SimpleMeterRegistry());
+        ScanDetail detail = detail("https://example.com", "Git Config", List.of());
+        String fingerprint = expiring.fingerprint(detail, PROMPT_VERSION);
+
+        expiring.put(fingerprint, detail, PROMPT_VERSION, result());
+
+        assertThat(expiring.get(fingerprint)).isEmpty();
+        assertThat(expiring.stats()).containsEntry("misses", 1L).containsEntry("memorySize", 0);
+    }
+
+    @Test
+    void memoryIsBoundedByLeastRecentlyUsed() {
+        AiAnalysisCache small = new AiAnalysisCache(repository, objectMapper, 24, 2, new SimpleMeterRegistry());
+        ScanDetail detail = detail("https://example.com", "Git Config", List.of());
+
+        small.put("a", detail, PROMPT_VERSION, result());
+        small.put("b", detail, PROMPT_VERSION, result());
+        small.get("a");
+        small.put("c", detail, PROMPT_VERSION, result());
+
+        assertThat(small.get("a")).isPresent();
+        assertThat(small.get("b")).isEmpty();
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("ai.cache.requests").tag("result", result).functionCounter().count();
+    }
+
+    private static ScanDetail detail(String matchedAt, String name, List<String> extracted) {
+        return ScanDetail.builder()
+                .templateId("git-config")
+                .name(name)
+                .severity("low")
+                .matchedAt(matchedAt)
+                .extractedResults(extracted)
+                .build();
+    }
+
+    private static AiRstDto result() {
+        return new AiRstDto(1L, "desc", "impact", "exposure", "", "", List.of("step"), "simple",
+                List.of(), AiResponseParser.AI_MODEL, 1.0, LocalDateTime.now(), "{}", "MODEL");
+    }
+}
@@ -0,0 +1,70 @@
+package com.fast.trust.ai.service;
+
+import com.fast.trust.scan.entity.ScanDetail;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class AiServicePackingTest {
+
+    private AiService aiService;
+
+    @BeforeEach
+    void setUp() {
+        aiService = new AiService(mock(ChatClient.Builder.class), null, new ObjectMapper(), null,
+                Runnable::run, new SimpleMeterRegistry(), null);
+        ReflectionTestUtils.setField(aiService, "analyzeScanPackSize", 2);
+        ReflectionTestUtils.setField(aiService, "analyzeScanPackMaxChars", 10);
+    }
+
+    @Test
+    void smallFindingsArePackedUpToPackSize() {
+        List<List<ScanDetail>> units = aiService.planUnits(List.of(
+                detail(1L, "info", null), detail(2L, "low", null), detail(3L, "INFO", List.of("short"))));
+
+        assertThat(units).extracting(this::ids).containsExactly(List.of(1L, 2L), List.of(3L));
+    }
+
+    @Test
+    void severeOrLargeFindingsAreAnalyzedAlone() {
+        List<List<ScanDetail>> units = aiService.planUnits(List.of(
+                detail(1L, "high", null),
+                detail(2L, "info", List.of("0123456789", "x")),
+                detail(3L, "info", null),
+                detail(4L, null, null)));
+
+        // severity 가 없으면 info 로 본다
+        assertThat(units).extracting(this::ids).containsExactly(List.of(1L), List.of(2L), List.of(3L, 4L));
+    }
+
+    @Test
+    void packSizeOneDisablesPacking() {
+        ReflectionTestUtils.setField(aiService, "analyzeScanPackSize", 1);
+
+        List<List<ScanDetail>> units = aiService.planUnits(List.of(detail(1L, "info", null), detail(2L, "low", null)));
+
+        assertThat(units).extracting(this::ids).containsExactly(List.of(1L), List.of(2L));
+    }
+
+    private List<Long> ids(List<ScanDetail> unit) {
+        return unit.stream().map(ScanDetail::getId).toList();
+    }
+
+    private static ScanDetail detail(long id, String severity, List<String> extractedResults) {
+        return ScanDetail.builder()
+                .id(id)
+                .scanId("scan-1")
+                .name("finding-" + id)
+                .severity(severity)
+                .extractedResults(extractedResults)
+                .build();
+    }
+}
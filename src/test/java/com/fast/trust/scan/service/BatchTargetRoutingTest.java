@@ -0,0 +1,62 @@
+package com.fast.trust.scan.service;
+
+import com.fast.trust.scan.dto.NucleiFinding;
+import com.fast.trust.scan.entity.ScanMaster;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchTargetRoutingTest {
+
+    private final Map<String, ScanMaster> mastersByUrl = new LinkedHashMap<>();
+    private final Map<String, ScanMaster> mastersByHost = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        // ScanService.runBatchScan 과 같은 방식으로 조회 맵 구성
+        for (String target : List.of("https://a.example.com", "https://a.example.com:8443",
+                "https://b.example.com/app")) {
+            ScanMaster scanMaster = new ScanMaster(target, target);
+            mastersByUrl.put(target, scanMaster);
+            mastersByHost.putIfAbsent(ScanService.hostKey(target), scanMaster);
+        }
+    }
+
+    @Test
+    void routesByExactInputFirst() {
+        assertThat(route("https://b.example.com/app", null)).isEqualTo("https://b.example.com/app");
+        assertThat(route("a.example.com:8443", null)).isEqualTo("https://a.example.com:8443");
+    }
+
+    @Test
+    void fallsBackToHostAndPortOfHost() {
+        assertThat(route("https://B.example.com/other", null)).isEqualTo("https://b.example.com/app");
+        // 기본 포트는 같은 대상으로 본다
+        assertThat(route("https://a.example.com:443/login", null)).isEqualTo("https://a.example.com");
+    }
+
+    @Test
+    void fallsBackToMatchedAtWhenHostIsMissing() {
+        assertThat(route(null, "https://a.example.com:8443/.env")).isEqualTo("https://a.example.com:8443");
+        assertThat(route(" ", "http://a.example.com/.git/config")).isEqualTo("https://a.example.com");
+    }
+
+    @Test
+    void unknownTargetIsNotRouted() {
+        assertThat(route("https://c.example.com", "https://c.example.com/.env")).isNull();
+        assertThat(route(null, null)).isNull();
+    }
+
+    private String route(String host, String matchedAt) {
+        NucleiFinding finding = new NucleiFinding("tpl", "name", "low", null, matchedAt, host,
+                List.of(), List.of(), 0, Map.of());
+        ScanMaster scanMaster = ScanService.resolveBatchTarget(finding, mastersByUrl, mastersByHost);
+        return scanMaster == null ? null : scanMaster.getTargetUrl();
+    }
+}
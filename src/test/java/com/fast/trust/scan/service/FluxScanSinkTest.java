@@ -0,0 +1,89 @@
+package com.fast.trust.scan.service;
+
+import com.fast.trust.scan.entity.ScanDetail;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FluxScanSinkTest {
+
+    @Test
+    void findingEmitWaitsUntilSubscriberRequests() {
+        FluxScanSink sink = new FluxScanSink(2, Duration.ofSeconds(10));
+        AtomicReference<CompletableFuture<Void>> fourth = new AtomicReference<>();
+
+        StepVerifier.create(sink.asFlux(), 0)
+                .then(() -> {
+                    // merge 가 미리 받아 두는 1건 + 버퍼 2건
+                    sink.onFinding(finding(1L));
+                    sink.onFinding(finding(2L));
+                    sink.onFinding(finding(3L));
+                })
+                .then(() -> {
+                    // 버퍼가 찼으므로 다음 emit 은 구독자가 읽을 때까지 기다린다
+                    fourth.set(CompletableFuture.runAsync(() -> sink.onFinding(finding(4L))));
+                    sleep(200);
+                    assertThat(fourth.get()).isNotDone();
+                })
+                .thenRequest(1)
+                .expectNextMatches(event -> "1".equals(event.data().getScanDetailId()))
+                .then(() -> fourth.get().orTimeout(5, TimeUnit.SECONDS).join())
+                .thenRequest(3)
+                .expectNextCount(3)
+                .then(sink::complete)
+                .verifyComplete();
+    }
+
+    @Test
+    void stalledSubscriberErrorsTheStream() {
+        FluxScanSink sink = new FluxScanSink(1, Duration.ofMillis(100));
+
+        StepVerifier.create(sink.asFlux(), 0)
+                .then(() -> {
+                    sink.onFinding(finding(1L));
+                    sink.onFinding(finding(2L));
+                    sink.onFinding(finding(3L));
+                })
+                .expectError(IllegalStateException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void cancelledSubscriptionReleasesWaitingEmit() {
+        FluxScanSink sink = new FluxScanSink(1, Duration.ofSeconds(30));
+
+        StepVerifier.create(sink.asFlux(), 0)
+                .then(() -> {
+                    sink.onFinding(finding(1L));
+                    sink.onFinding(finding(2L));
+                })
+                .thenCancel()
+                .verify();
+
+        CompletableFuture<Void> emit = CompletableFuture.runAsync(() -> sink.onFinding(finding(3L)));
+        assertThat(emit.orTimeout(5, TimeUnit.SECONDS)).succeedsWithin(Duration.ofSeconds(5));
+    }
+
+    private static ScanDetail finding(long id) {
+        return ScanDetail.builder()
+                .id(id)
+                .scanId("scan-1")
+                .name("finding-" + id)
+                .severity("low")
+                .build();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.fast.trust.scan.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NucleiGovernorTest {
+
+    private NucleiGovernor governor;
+
+    @BeforeEach
+    void setUp() {
+        governor = new NucleiGovernor();
+        ReflectionTestUtils.setField(governor, "enabled", true);
+        ReflectionTestUtils.setField(governor, "rateLimitTotal", 600);
+        // 코어 수 / load 와 관계없이 동시 실행 수가 상한(25)에 걸리도록
+        ReflectionTestUtils.setField(governor, "concurrencyPerCore", 1000);
+        ReflectionTestUtils.setField(governor, "hostRateLimit", 50);
+        ReflectionTestUtils.setField(governor, "minRateLimit", 5);
+    }
+
+    @Test
+    void disabledGovernorAddsNoArguments() {
+        ReflectionTestUtils.setField(governor, "enabled", false);
+
+        NucleiGovernor.Allocation allocation = governor.allocate(List.of("https://example.com"));
+
+        assertThat(allocation.args()).isEmpty();
+        assertThat(allocation.flags()).isEmpty();
+        assertThat(governor.getActive()).isZero();
+    }
+
+    @Test
+    void singleHostIsLimitedToHostRate() {
+        NucleiGovernor.Allocation allocation = governor.allocate(List.of("https://example.com/a"));
+
+        assertThat(arg(allocation, "-bulk-size")).isEqualTo(1);
+        assertThat(arg(allocation, "-rate-limit")).isEqualTo(50);
+        assertThat(governor.getActive()).isEqualTo(1);
+    }
+
+    @Test
+    void hostRateIsMultipliedByHostsScannedTogether() {
+        NucleiGovernor.Allocation allocation = governor.allocate(List.of(
+                "https://a.example.com", "https://b.example.com", "https://c.example.com"));
+
+        assertThat(arg(allocation, "-bulk-size")).isEqualTo(3);
+        assertThat(arg(allocation, "-rate-limit")).isEqualTo(150);
+    }
+
+    @Test
+    void secondProcessOnSameHostGetsOnlyWhatIsLeft() {
+        governor.allocate(List.of("https://example.com/a"));
+
+        // 첫 프로세스가 host 예산 50 을 모두 예약했으므로 하한만 받는다
+        NucleiGovernor.Allocation second = governor.allocate(List.of("https://EXAMPLE.com/b"));
+
+        assertThat(arg(second, "-rate-limit")).isEqualTo(5);
+    }
+
+    @Test
+    void totalRateIsSharedByRunningProcesses() {
+        ReflectionTestUtils.setField(governor, "rateLimitTotal", 200);
+        ReflectionTestUtils.setField(governor, "hostRateLimit", 1000);
+
+        NucleiGovernor.Allocation first = governor.allocate(List.of("https://a.example.com"));
+        NucleiGovernor.Allocation second = governor.allocate(List.of("https://b.example.com"));
+
+        // 첫 프로세스는 상한 150, 두 번째는 남은 50
+        assertThat(arg(first, "-rate-limit")).isEqualTo(150);
+        assertThat(arg(second, "-rate-limit")).isEqualTo(50);
+    }
+
+    @Test
+    void closeReturnsReservedBudgetOnce() {
+        NucleiGovernor.Allocation first = governor.allocate(List.of("https://example.com"));
+        first.close();
+        first.close();
+
+        assertThat(governor.getActive()).isZero();
+        NucleiGovernor.Allocation next = governor.allocate(List.of("https://example.com"));
+        assertThat(arg(next, "-rate-limit")).isEqualTo(50);
+        assertThat(governor.getActive()).isEqualTo(1);
+    }
+
+    private static int arg(NucleiGovernor.Allocation allocation, String name) {
+        List<String> args = allocation.args();
+        return Integer.parseInt(args.get(args.indexOf(name) + 1));
+    }
+}
@@ -0,0 +1,118 @@
+package com.fast.trust.scan.service;
+
+import com.fast.trust.scan.dto.NucleiFinding;
+import com.fast.trust.scan.dto.NucleiLine;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NucleiOutputParserTest {
+
+    private final NucleiOutputParser parser = new NucleiOutputParser();
+
+    @Test
+    void stripAnsiRemovesColorCodes() {
+        String colored = "\u001b[92m[INF]\u001b[0m Templates loaded: \u001b[1;34m4512\u001b[0m";
+
+        assertThat(NucleiOutputParser.stripAnsi(colored)).isEqualTo("[INF] Templates loaded: 4512");
+    }
+
+    @Test
+    void stripAnsiMatchesLegacyRegex() {
+        String[] lines = {
+                "\u001b[31mcritical\u001b[0m",
+                "no escape at all",
+                "\u001b[38;5;208mextended\u001b[0m",
+                "dangling \u001b[",
+                "not color \u001b[2K cleared",
+                "\u001b"
+        };
+        for (String line : lines) {
+            assertThat(NucleiOutputParser.stripAnsi(line))
+                    .as(line)
+                    .isEqualTo(line.replaceAll("\u001b\\[[0-9;]*m", ""));
+        }
+    }
+
+    @Test
+    void stripAnsiReturnsSameInstanceWithoutEscape() {
+        String line = "{\"template-id\":\"tech-detect\"}";
+
+        assertThat(NucleiOutputParser.stripAnsi(line)).isSameAs(line);
+    }
+
+    @Test
+    void parsesFindingWithoutRequestAndResponse() throws IOException {
+        String line = "{\"template-id\":\"git-config\",\"host\":\"https://example.com\","
+                + "\"matched-at\":\"https://example.com/.git/config\","
+                + "\"info\":{\"name\":\"Git Config\",\"severity\":\"medium\",\"tags\":[\"git\",\"config\"]},"
+                + "\"request\":\"GET /.git/config HTTP/1.1\",\"response\":{\"body\":\"[core]\"},"
+                + "\"matcher-name\":\"status\"}";
+
+        NucleiLine parsed = parser.parse(line);
+
+        assertThat(parsed.kind()).isEqualTo(NucleiLine.Kind.FINDING);
+        NucleiFinding finding = parsed.finding();
+        assertThat(finding.templateId()).isEqualTo("git-config");
+        assertThat(finding.name()).isEqualTo("Git Config");
+        assertThat(finding.severity()).isEqualTo("medium");
+        assertThat(finding.matchedAt()).isEqualTo("https://example.com/.git/config");
+        assertThat(finding.host()).isEqualTo("https://example.com");
+        assertThat(finding.tags()).containsExactly("git", "config");
+        assertThat(finding.fullResult())
+                .doesNotContainKeys("request", "response")
+                .containsEntry("matcher-name", "status");
+    }
+
+    @Test
+    void truncatesExtractedResults() throws IOException {
+        String extracted = IntStream.range(0, 25)
+                .mapToObj(i -> "\"v" + i + "\"")
+                .collect(Collectors.joining(",", "[", "]"));
+        String line = "{\"template-id\":\"tech-detect\",\"info\":{\"name\":\"Tech\",\"severity\":\"info\"},"
+                + "\"extracted-results\":" + extracted + "}";
+
+        NucleiFinding finding = parser.parse(line).finding();
+
+        assertThat(finding.extractedResults())
+                .hasSize(NucleiOutputParser.MAX_EXTRACTED_RESULTS)
+                .startsWith("v0", "v1")
+                .endsWith("v9");
+        assertThat(finding.extractedResultsCount()).isEqualTo(25);
+        assertThat(finding.fullResult()).containsEntry("extracted-results-count", 25);
+    }
+
+    @Test
+    void keepsExtractedResultsCountOutOfResultWhenNotTruncated() throws IOException {
+        String line = "{\"template-id\":\"tech-detect\",\"info\":{\"name\":\"Tech\",\"severity\":\"info\"},"
+                + "\"extracted-results\":[\"nginx\"]}";
+
+        NucleiFinding finding = parser.parse(line).finding();
+
+        assertThat(finding.extractedResults()).containsExactly("nginx");
+        assertThat(finding.fullResult()).doesNotContainKey("extracted-results-count");
+    }
+
+    @Test
+    void parsesProgressTextAndEmptyLines() throws IOException {
+        assertThat(parser.parse("{\"percent\":\"42\",\"requests\":\"100\"}"))
+                .isEqualTo(NucleiLine.progress("42"));
+        assertThat(parser.parse("[INF] Using Nuclei Engine 3.4.0"))
+                .isEqualTo(NucleiLine.text("[INF] Using Nuclei Engine 3.4.0"));
+        assertThat(parser.parse("   ").kind()).isEqualTo(NucleiLine.Kind.EMPTY);
+    }
+
+    @Test
+    void parsesColoredLineAfterStrip() throws IOException {
+        String line = "\u001b[0m{\"template-id\":\"ssl-expired\",\"info\":{\"name\":\"Expired\",\"severity\":\"info\"}}";
+
+        NucleiLine parsed = parser.parse(NucleiOutputParser.stripAnsi(line));
+
+        assertThat(parsed.kind()).isEqualTo(NucleiLine.Kind.FINDING);
+        assertThat(parsed.finding().templateId()).isEqualTo("ssl-expired");
+    }
+}
@@ -0,0 +1,80 @@
+package com.fast.trust.scan.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class NucleiResourceSamplerTest {
+
+    private final NucleiResourceSampler sampler = new NucleiResourceSampler();
+    private final List<Process> processes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(sampler, "sampleIntervalMs", 50L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        processes.forEach(ScanCancellationRegistry::destroyTree);
+        sampler.shutdown();
+    }
+
+    @Test
+    void wallTimeStopsAtClose() throws Exception {
+        Process process = start("sleep 30");
+        NucleiResourceSampler.Sampling sampling = sampler.start(process);
+        Thread.sleep(200);
+
+        sampling.close();
+        long wallMillis = sampling.usage().wallMillis();
+        Thread.sleep(100);
+
+        assertThat(wallMillis).isGreaterThanOrEqualTo(200);
+        assertThat(sampling.usage().wallMillis()).isEqualTo(wallMillis);
+        assertThat(sampling.exceeded()).isEmpty();
+        assertThat(process.isAlive()).isTrue();
+    }
+
+    @Test
+    void processExceedingCpuLimitIsDestroyed() throws Exception {
+        ReflectionTestUtils.setField(sampler, "maxCpuSeconds", 1L);
+        Process process = start("while :; do :; done");
+
+        try (NucleiResourceSampler.Sampling sampling = sampler.start(process)) {
+            assertThat(process.waitFor(20, TimeUnit.SECONDS)).isTrue();
+            assertThat(sampling.exceeded()).hasValueSatisfying(reason -> assertThat(reason).contains("CPU time"));
+            assertThat(sampling.usage().cpuMillis()).isGreaterThan(1000);
+        }
+    }
+
+    @Test
+    void rssIncludesChildProcessesAndIsLimited() throws Exception {
+        // /proc 이 없는 환경에서는 RSS 를 읽지 않는다
+        assumeTrue(Files.isDirectory(Paths.get("/proc")));
+        ReflectionTestUtils.setField(sampler, "maxRssMb", 1L);
+        Process process = start("sleep 30; :");
+
+        try (NucleiResourceSampler.Sampling sampling = sampler.start(process)) {
+            assertThat(process.waitFor(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(sampling.exceeded()).hasValueSatisfying(reason -> assertThat(reason).contains("RSS"));
+            assertThat(sampling.usage().peakRssKb()).isGreaterThan(1024);
+        }
+    }
+
+    private Process start(String script) throws Exception {
+        Process process = new ProcessBuilder("sh", "-c", script).start();
+        processes.add(process);
+        return process;
+    }
+}
@@ -0,0 +1,133 @@
+package com.fast.trust.scan.service;
+
+import com.fast.trust.scan.entity.ScanDetail;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RawSegmentStoreTest {
+
+    private static final String SCAN_ID = "6f1c2a4e-0b7d-4c55-9a51-3d0f7a2b9e10";
+
+    @TempDir
+    Path dir;
+
+    private RawSegmentStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new RawSegmentStore(dir.toString());
+    }
+
+    @Test
+    void findingsRoundTrip() throws IOException {
+        Map<String, Object> first = Map.of(
+                "template-id", "git-config",
+                "matched-at", "https://example.com/.git/config",
+                "info", Map.of("name", "Git Config", "severity", "medium"));
+        Map<String, Object> second = Map.of(
+                "template-id", "tech-detect",
+                "extracted-results", List.of("nginx", "php"),
+                "extracted-results-count", 2);
+        ScanDetail a = detail(first);
+        ScanDetail b = detail(second);
+
+        store.appendFindings(List.of(a, b));
+
+        assertThat(a.getRawOffset()).isZero();
+        assertThat(b.getRawOffset()).isEqualTo(a.getRawOffset() + a.getRawLength());
+        assertThat(store.readFinding(a)).contains(first);
+        assertThat(store.readFinding(b)).contains(second);
+    }
+
+    @Test
+    void laterAppendsContinueAfterEarlierRecords() throws IOException {
+        ScanDetail a = detail(Map.of("template-id", "first"));
+        store.appendFindings(List.of(a));
+        ScanDetail b = detail(Map.of("template-id", "second"));
+        store.appendFindings(List.of(b));
+
+        assertThat(b.getRawOffset()).isEqualTo(a.getRawOffset() + a.getRawLength());
+        assertThat(store.readFinding(a)).contains(Map.of("template-id", "first"));
+        assertThat(store.readFinding(b)).contains(Map.of("template-id", "second"));
+    }
+
+    @Test
+    void aiResponseRoundTrip() throws IOException {
+        ScanDetail finding = detail(Map.of("template-id", "git-config"));
+        store.appendFindings(List.of(finding));
+        String response = "{\"description\":\"노출된 .git 설정\",\"confidence\":0.9}";
+
+        store.appendAiResponse(finding, response);
+
+        assertThat(finding.getAiRawOffset()).isEqualTo(finding.getRawOffset() + finding.getRawLength());
+        assertThat(store.readAiResponse(finding)).contains(response);
+        assertThat(store.readFinding(finding)).contains(Map.of("template-id", "git-config"));
+    }
+
+    @Test
+    void detailWithoutReferenceReadsEmpty() throws IOException {
+        ScanDetail detail = detail(null);
+
+        assertThat(store.readFinding(detail)).isEmpty();
+        assertThat(store.readAiResponse(detail)).isEmpty();
+    }
+
+    @Test
+    void alreadyStoredFindingIsNotAppendedAgain() {
+        ScanDetail detail = detail(Map.of("template-id", "git-config"));
+        store.appendFindings(List.of(detail));
+        Long offset = detail.getRawOffset();
+
+        store.appendFindings(List.of(detail));
+
+        assertThat(detail.getRawOffset()).isEqualTo(offset);
+    }
+
+    @Test
+    void outOfRangeReferenceFails() {
+        ScanDetail detail = detail(Map.of("template-id", "git-config"));
+        store.appendFindings(List.of(detail));
+        detail.setRawOffset(detail.getRawOffset() + 1000);
+
+        assertThatThrownBy(() -> store.readFinding(detail)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void deletesSegmentsOlderThanCutoff() throws IOException {
+        store.appendFindings(List.of(detail(Map.of("template-id", "old"))));
+        Path segment = dir.resolve(SCAN_ID + ".seg");
+        Files.setLastModifiedTime(segment, FileTime.from(Instant.now().minus(10, ChronoUnit.DAYS)));
+
+        assertThat(store.deleteOlderThan(Instant.now().minus(1, ChronoUnit.DAYS))).isEqualTo(1);
+        assertThat(segment).doesNotExist();
+    }
+
+    @Test
+    void keepsRecentSegments() {
+        store.appendFindings(List.of(detail(Map.of("template-id", "recent"))));
+
+        assertThat(store.deleteOlderThan(Instant.now().minus(1, ChronoUnit.DAYS))).isZero();
+        assertThat(dir.resolve(SCAN_ID + ".seg")).exists();
+    }
+
+    private static ScanDetail detail(Map<String, Object> fullResult) {
+        return ScanDetail.builder()
+                .scanId(SCAN_ID)
+                .templateId("test")
+                .fullResult(fullResult)
+                .build();
+    }
+}
@@ -0,0 +1,91 @@
+package com.fast.trust.scan.service;
+
+import com.fast.trust.scan.entity.ScanDetail;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RescanServiceTest {
+
+    @Test
+    void classifiesNewResolvedAndUnchanged() {
+        List<ScanDetail> baseline = List.of(
+                detail("git-config", "https://example.com/.git/config", null),
+                detail("ssl-expired", "example.com:443", null)
+        );
+        List<ScanDetail> current = List.of(
+                detail("git-config", "https://example.com/.git/config", null),
+                detail("CVE-2021-41773", "https://example.com/cgi-bin/", null)
+        );
+
+        Map<String, Object> diff = RescanService.diff(baseline, current);
+
+        assertThat(diff).containsEntry("newCount", 1)
+                .containsEntry("resolvedCount", 1)
+                .containsEntry("unchangedCount", 1);
+        assertThat(names(diff, "new")).containsExactly("CVE-2021-41773");
+        assertThat(names(diff, "resolved")).containsExactly("ssl-expired");
+        assertThat(names(diff, "unchanged")).containsExactly("git-config");
+    }
+
+    @Test
+    void differentMatcherOrLocationIsADifferentFinding() {
+        List<ScanDetail> baseline = List.of(
+                detail("http-missing-security-headers", "https://example.com", "x-frame-options")
+        );
+        List<ScanDetail> current = List.of(
+                detail("http-missing-security-headers", "https://example.com", "content-security-policy"),
+                detail("http-missing-security-headers", "https://example.com/login", "x-frame-options")
+        );
+
+        Map<String, Object> diff = RescanService.diff(baseline, current);
+
+        assertThat(diff).containsEntry("newCount", 2)
+                .containsEntry("resolvedCount", 1)
+                .containsEntry("unchangedCount", 0);
+    }
+
+    @Test
+    void duplicateFindingsAreCountedOnce() {
+        ScanDetail finding = detail("git-config", "https://example.com/.git/config", null);
+
+        Map<String, Object> diff = RescanService.diff(List.of(finding, finding), List.of(finding, finding, finding));
+
+        assertThat(diff).containsEntry("newCount", 0)
+                .containsEntry("resolvedCount", 0)
+                .containsEntry("unchangedCount", 1);
+    }
+
+    @Test
+    void everythingIsNewWithoutBaseline() {
+        Map<String, Object> diff = RescanService.diff(List.of(), List.of(
+                detail("git-config", "https://example.com/.git/config", null),
+                detail("ssl-expired", "example.com:443", null)
+        ));
+
+        assertThat(diff).containsEntry("newCount", 2)
+                .containsEntry("resolvedCount", 0)
+                .containsEntry("unchangedCount", 0);
+    }
+
+    private static ScanDetail detail(String templateId, String matchedAt, String matcherName) {
+        return ScanDetail.builder()
+                .scanId("scan")
+                .templateId(templateId)
+                .name(templateId)
+                .severity("medium")
+                .matchedAt(matchedAt)
+                .matcherName(matcherName)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> names(Map<String, Object> diff, String key) {
+        return ((List<Map<String, Object>>) diff.get(key)).stream()
+                .map(finding -> finding.get("name"))
+                .toList();
+    }
+}
@@ -0,0 +1,76 @@
+package com.fast.trust.scan.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ScanCancellationRegistryTest {
+
+    private final ScanCancellationRegistry registry = new ScanCancellationRegistry();
+
+    @Test
+    void cancelByAnyScanIdRunsActionsOnce() {
+        ScanCancellationRegistry.Handle handle = registry.register(List.of("a", "b"));
+        AtomicInteger actions = new AtomicInteger();
+        handle.onCancel(actions::incrementAndGet);
+
+        assertThat(registry.cancel("b")).isTrue();
+        assertThat(registry.cancel("a")).isFalse();
+
+        assertThat(handle.isCancelled()).isTrue();
+        assertThat(actions).hasValue(1);
+    }
+
+    @Test
+    void actionAddedAfterCancelRunsImmediately() {
+        ScanCancellationRegistry.Handle handle = registry.register(List.of("a"));
+        handle.cancel();
+        AtomicInteger actions = new AtomicInteger();
+
+        handle.onCancel(actions::incrementAndGet);
+
+        assertThat(actions).hasValue(1);
+    }
+
+    @Test
+    void sameScanIdsReturnTheRegisteredHandle() {
+        ScanCancellationRegistry.Handle handle = registry.register(List.of("a", "b"));
+
+        assertThat(registry.register(List.of("a", "b"))).isSameAs(handle);
+    }
+
+    @Test
+    void partialCollisionRegistersNothing() {
+        ScanCancellationRegistry.Handle first = registry.register(List.of("b"));
+
+        assertThatThrownBy(() -> registry.register(List.of("a", "b", "c")))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(registry.find("a")).isEmpty();
+        assertThat(registry.find("c")).isEmpty();
+        assertThat(registry.find("b")).containsSame(first);
+    }
+
+    @Test
+    void claimSucceedsOnlyOnce() {
+        ScanCancellationRegistry.Handle handle = registry.register(List.of("a"));
+
+        assertThat(handle.claim()).isTrue();
+        assertThat(handle.claim()).isFalse();
+    }
+
+    @Test
+    void unregisterRemovesAllScanIds() {
+        ScanCancellationRegistry.Handle handle = registry.register(List.of("a", "b"));
+
+        registry.unregister(handle);
+
+        assertThat(registry.find("a")).isEmpty();
+        assertThat(registry.find("b")).isEmpty();
+        assertThat(registry.cancel("a")).isFalse();
+    }
+}
@@ -0,0 +1,157 @@
+package com.fast.trust.scan.service;
+
+import com.fast.trust.scan.entity.ScanDetail;
+import com.fast.trust.scan.repository.ScanDetailRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ScanDetailWriterTest {
+
+    private static final String SCAN_ID = "6f1c2a4e-0b7d-4c55-9a51-3d0f7a2b9e10";
+
+    @TempDir
+    Path dir;
+
+    private final AtomicLong ids = new AtomicLong();
+    private ScanDetailRepository repository;
+    private ScanDetailWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ScanDetailRepository.class);
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<ScanDetail> batch = invocation.getArgument(0);
+            batch.forEach(detail -> detail.setId(ids.incrementAndGet()));
+            return batch;
+        });
+        when(repository.save(any(ScanDetail.class))).thenAnswer(invocation -> {
+            ScanDetail detail = invocation.getArgument(0);
+            detail.setId(ids.incrementAndGet());
+            return detail;
+        });
+        // 저장은 호출 스레드에서 바로, 주기 flush 는 테스트 중에 돌지 않도록
+        writer = new ScanDetailWriter(repository, new RawSegmentStore(dir.toString()), Runnable::run, 2, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.shutdown();
+    }
+
+    @Test
+    void savesFullBatchAndCallsBackInOrderWithIds() {
+        List<ScanDetail> persisted = new ArrayList<>();
+        ScanDetailWriter.Buffer buffer = writer.open();
+
+        buffer.add(detail("a"), persisted::add);
+        verify(repository, never()).saveAll(anyList());
+        buffer.add(detail("b"), persisted::add);
+
+        verify(repository, times(1)).saveAll(anyList());
+        assertThat(persisted).extracting(ScanDetail::getTemplateId).containsExactly("a", "b");
+        assertThat(persisted).allSatisfy(detail -> assertThat(detail.getId()).isNotNull());
+        buffer.close();
+    }
+
+    @Test
+    void closeFlushesRemainingRows() {
+        List<ScanDetail> persisted = new ArrayList<>();
+        ScanDetailWriter.Buffer buffer = writer.open();
+
+        buffer.add(detail("a"), persisted::add);
+        buffer.close();
+
+        verify(repository, times(1)).saveAll(anyList());
+        assertThat(persisted).extracting(ScanDetail::getTemplateId).containsExactly("a");
+    }
+
+    @Test
+    void failedBatchIsRetriedRowByRowAndSkipsOnlyTheBadRow() {
+        doThrow(new IllegalStateException("batch failed")).when(repository).saveAll(anyList());
+        doThrow(new IllegalStateException("bad row")).when(repository)
+                .save(argThat((ScanDetail detail) -> "bad".equals(detail.getTemplateId())));
+        List<ScanDetail> persisted = new ArrayList<>();
+        ScanDetailWriter.Buffer buffer = writer.open();
+
+        buffer.add(detail("good"), persisted::add);
+        buffer.add(detail("bad"), persisted::add);
+        buffer.close();
+
+        assertThat(persisted).extracting(ScanDetail::getTemplateId).containsExactly("good");
+    }
+
+    @Test
+    void writesRawResultToSegmentAndKeepsOnlyItsPosition() {
+        ScanDetailWriter.Buffer buffer = writer.open();
+        ScanDetail detail = detail("a");
+
+        buffer.add(detail);
+        buffer.close();
+
+        assertThat(detail.getRawOffset()).isZero();
+        assertThat(detail.getRawLength()).isPositive();
+    }
+
+    @Test
+    void keepsRawResultInlineWhenSegmentWriteFails() throws Exception {
+        // 디렉터리 자리에 파일이 있어 세그먼트를 만들 수 없다
+        Path notADirectory = Files.createFile(dir.resolve("raw"));
+        ScanDetailWriter failing = new ScanDetailWriter(repository, new RawSegmentStore(notADirectory.toString()),
+                Runnable::run, 2, 60_000);
+        List<ScanDetail> persisted = new ArrayList<>();
+        ScanDetail detail = detail("a");
+
+        try (ScanDetailWriter.Buffer buffer = failing.open()) {
+            buffer.add(detail, persisted::add);
+        } finally {
+            failing.shutdown();
+        }
+
+        assertThat(persisted).containsExactly(detail);
+        assertThat(detail.getRawOffset()).isNull();
+        assertThat(detail.getRawInline()).containsEntry("template-id", "a");
+    }
+
+    @Test
+    void savesBatchWhenSegmentStoreThrows() {
+        RawSegmentStore broken = mock(RawSegmentStore.class);
+        doThrow(new IllegalStateException("disk gone")).when(broken).appendFindings(anyList());
+        ScanDetailWriter failing = new ScanDetailWriter(repository, broken, Runnable::run, 2, 60_000);
+        List<ScanDetail> persisted = new ArrayList<>();
+
+        try (ScanDetailWriter.Buffer buffer = failing.open()) {
+            buffer.add(detail("a"), persisted::add);
+            buffer.add(detail("b"), persisted::add);
+        } finally {
+            failing.shutdown();
+        }
+
+        verify(repository, times(1)).saveAll(anyList());
+        assertThat(persisted).extracting(ScanDetail::getTemplateId).containsExactly("a", "b");
+        assertThat(persisted).allSatisfy(detail -> assertThat(detail.getRawInline()).isNotNull());
+    }
+
+    private static ScanDetail detail(String templateId) {
+        return ScanDetail.builder()
+                .scanId(SCAN_ID)
+                .templateId(templateId)
+                .name(templateId)
+                .severity("low")
+                .fullResult(Map.of("template-id", templateId))
+                .build();
+    }
+}
@@ -0,0 +1,143 @@
+package com.fast.trust.scan.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScanEventHubTest {
+
+    // 전송은 호출 스레드에서 바로
+    private static final Executor DIRECT = Runnable::run;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ScanMetrics.Stage metrics;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new ScanMetrics(meterRegistry, new ScanScheduler(DIRECT)).of(ScanMetrics.Mode.STREAM);
+    }
+
+    @Test
+    void concurrentRequestsForSameKeyShareOneScan() {
+        ScanEventHub hub = hub(10, 10, DIRECT);
+
+        ScanEventHub.Attachment owner = hub.attach("stream:https://example.com", new RecordingEmitter(), 0, metrics);
+        ScanEventHub.Attachment follower = hub.attach("stream:https://example.com", new RecordingEmitter(), 0, metrics);
+
+        assertThat(owner.owner()).isTrue();
+        assertThat(follower.owner()).isFalse();
+        assertThat(follower.broadcast()).isSameAs(owner.broadcast());
+        assertThat(hub.getInFlightCount()).isEqualTo(1);
+    }
+
+    @Test
+    void lateSubscriberReceivesBufferedEventsThenLiveOnes() {
+        ScanEventHub hub = hub(10, 10, DIRECT);
+        ScanBroadcast broadcast = hub.attach("key", new RecordingEmitter(), 0, metrics).broadcast();
+        send(broadcast, 3);
+
+        RecordingEmitter late = new RecordingEmitter();
+        hub.attach("key", late, 0, metrics);
+        send(broadcast, 1);
+
+        assertThat(late.ids()).containsExactly(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void resumeWithLastEventIdReplaysOnlyLaterEventsOfFinishedScan() {
+        ScanEventHub hub = hub(10, 10, DIRECT);
+        ScanBroadcast broadcast = hub.attach("key", new RecordingEmitter(), 0, metrics).broadcast();
+        send(broadcast, 4);
+        broadcast.complete();
+
+        RecordingEmitter reconnected = new RecordingEmitter();
+        hub.find(broadcast.getScanId()).orElseThrow().resume(reconnected, 2);
+
+        assertThat(reconnected.ids()).containsExactly(3L, 4L);
+        assertThat(reconnected.completed).isTrue();
+        // 끝난 스캔은 새 요청과 합쳐지지 않는다
+        assertThat(hub.attach("key", new RecordingEmitter(), 0, metrics).owner()).isTrue();
+    }
+
+    @Test
+    void replayGapIsReportedWhenBufferOverflowed() {
+        ScanEventHub hub = hub(2, 10, DIRECT);
+        ScanBroadcast broadcast = hub.attach("key", new RecordingEmitter(), 0, metrics).broadcast();
+        send(broadcast, 4);
+
+        RecordingEmitter reconnected = new RecordingEmitter();
+        broadcast.resume(reconnected, 0);
+
+        assertThat(reconnected.payloads.get(0)).contains("replay_gap");
+        assertThat(reconnected.ids()).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void subscriberThatFallsBehindIsDroppedWithoutStoppingOthers() {
+        List<Runnable> pendingSends = new ArrayList<>();
+        ScanEventHub hub = hub(10, 1, pendingSends::add);
+        RecordingEmitter slow = new RecordingEmitter();
+        ScanBroadcast broadcast = hub.attach("key", slow, 0, metrics).broadcast();
+
+        // 전송 작업이 실행되지 않아 대기열(1)이 찬 상태에서 두 번째 이벤트
+        send(broadcast, 2);
+
+        assertThat(broadcast.getSubscriberCount()).isZero();
+        assertThat(meterRegistry.get("scan.sse.send.failures").tag("mode", ScanMetrics.Mode.STREAM.tag())
+                .counter().count()).isEqualTo(1);
+
+        RecordingEmitter next = new RecordingEmitter();
+        broadcast.resume(next, 0);
+        pendingSends.forEach(Runnable::run);
+        assertThat(next.ids()).containsExactly(1L, 2L);
+    }
+
+    private ScanEventHub hub(int bufferSize, int subscriberQueueCapacity, Executor sendExecutor) {
+        return new ScanEventHub(bufferSize, 300, subscriberQueueCapacity, 5, sendExecutor);
+    }
+
+    private static void send(ScanBroadcast broadcast, int count) {
+        for (int i = 0; i < count; i++) {
+            broadcast.send(SseEmitter.event().name("progress").data("event"));
+        }
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private static final Pattern ID = Pattern.compile("(?m)^id:(\\d+)$");
+
+        private final List<String> payloads = new ArrayList<>();
+        private boolean completed;
+
+        @Override
+        public synchronized void send(Set<DataWithMediaType> items) {
+            payloads.add(items.stream().map(item -> String.valueOf(item.getData())).collect(Collectors.joining()));
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+
+        private List<Long> ids() {
+            List<Long> ids = new ArrayList<>();
+            for (String payload : payloads) {
+                Matcher matcher = ID.matcher(payload);
+                if (matcher.find()) {
+                    ids.add(Long.parseLong(matcher.group(1)));
+                }
+            }
+            return ids;
+        }
+    }
+}
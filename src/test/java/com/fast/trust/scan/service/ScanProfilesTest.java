@@ -0,0 +1,96 @@
+package com.fast.trust.scan.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ScanProfilesTest {
+
+    private ScanProfiles scanProfiles;
+
+    @BeforeEach
+    void setUp() {
+        ScanProfiles.Profile full = new ScanProfiles.Profile();
+
+        ScanProfiles.Profile fast = new ScanProfiles.Profile();
+        fast.setSeverity(List.of("critical", "high"));
+        fast.setExcludeTags(List.of("dos", " ", "fuzz"));
+        fast.setTimeout(3);
+        fast.setMaxDurationSeconds(60L);
+
+        scanProfiles = new ScanProfiles();
+        scanProfiles.getProfiles().put("full", full);
+        scanProfiles.getProfiles().put("critical-fast", fast);
+    }
+
+    @Test
+    void resolvesDefaultProfileWhenModeIsBlank() {
+        ScanOptions options = scanProfiles.resolve("  ", null);
+
+        assertThat(options.key()).isEqualTo("full");
+        assertThat(options.args()).isEmpty();
+        assertThat(options.maxDuration()).isNull();
+    }
+
+    @Test
+    void resolvesProfileOptions() {
+        ScanOptions options = scanProfiles.resolve("Critical-Fast", null);
+
+        assertThat(options.key()).isEqualTo("critical-fast");
+        assertThat(options.args()).containsExactly(
+                "-severity", "critical,high",
+                "-exclude-tags", "dos,fuzz",
+                "-timeout", "3");
+        assertThat(options.maxDuration()).isEqualTo(Duration.ofSeconds(60));
+    }
+
+    @Test
+    void rejectsUnknownMode() {
+        assertThatThrownBy(() -> scanProfiles.resolve("aggressive", null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("aggressive");
+    }
+
+    @Test
+    void narrowsToTemplateIdsWithSortedKey() {
+        ScanOptions options = scanProfiles.resolve("full", " tech-detect, CVE-2021-44228,,tech-detect ,http-missing-*");
+
+        assertThat(options.args()).containsExactly("-id", "tech-detect,CVE-2021-44228,http-missing-*");
+        assertThat(options.key()).isEqualTo("full:CVE-2021-44228,http-missing-*,tech-detect");
+    }
+
+    @Test
+    void sameTemplatesInAnyOrderGiveSameKey() {
+        assertThat(scanProfiles.resolve("full", "b-template,a-template").key())
+                .isEqualTo(scanProfiles.resolve("full", "a-template,b-template").key());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "-t /tmp/evil.yaml",
+            "../../etc/passwd",
+            "/abs/path.yaml",
+            "tech-detect;rm -rf /",
+            "*",
+            "cve 2021",
+            "ok-id,-headless"
+    })
+    void rejectsInvalidTemplateIds(String templates) {
+        assertThatThrownBy(() -> scanProfiles.resolve("full", templates))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Invalid template id");
+    }
+
+    @Test
+    void isTemplateIdRejectsNull() {
+        assertThat(ScanProfiles.isTemplateId(null)).isFalse();
+        assertThat(ScanProfiles.isTemplateId("CVE-2021-44228")).isTrue();
+    }
+}
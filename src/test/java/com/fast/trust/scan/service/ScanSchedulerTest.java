@@ -0,0 +1,128 @@
+package com.fast.trust.scan.service;
+
+import com.fast.trust.common.exception.ScanQueueFullException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ScanSchedulerTest {
+
+    private ScanScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        // 작업은 호출 스레드에서 바로 실행
+        scheduler = new ScanScheduler(Runnable::run);
+        ReflectionTestUtils.setField(scheduler, "maxConcurrent", 1);
+        ReflectionTestUtils.setField(scheduler, "queueCapacity", 2);
+        ReflectionTestUtils.setField(scheduler, "retryAfterSeconds", 30L);
+    }
+
+    @Test
+    void grantsSlotImmediatelyWhenFree() {
+        CompletableFuture<ScanScheduler.ScanSlot> slot = scheduler.acquire(ScanScheduler.Priority.BATCH, null);
+
+        assertThat(slot).isCompleted();
+        assertThat(scheduler.getRunning()).isEqualTo(1);
+        assertThat(scheduler.getQueued()).isZero();
+    }
+
+    @Test
+    void interactiveRequestsOvertakeQueuedBatchRequests() {
+        ScanScheduler.ScanSlot running = scheduler.acquire(ScanScheduler.Priority.BATCH, null).join();
+        CompletableFuture<ScanScheduler.ScanSlot> batch = scheduler.acquire(ScanScheduler.Priority.BATCH, null);
+        CompletableFuture<ScanScheduler.ScanSlot> interactive = scheduler.acquire(ScanScheduler.Priority.INTERACTIVE, null);
+
+        running.release();
+
+        assertThat(interactive).isCompleted();
+        assertThat(batch).isNotDone();
+        assertThat(scheduler.getRunning()).isEqualTo(1);
+
+        interactive.join().release();
+        assertThat(batch).isCompleted();
+    }
+
+    @Test
+    void reportsQueuePositionsInPriorityOrder() {
+        scheduler.acquire(ScanScheduler.Priority.BATCH, null);
+        List<Integer> batchPositions = new ArrayList<>();
+        List<Integer> interactivePositions = new ArrayList<>();
+
+        scheduler.acquire(ScanScheduler.Priority.BATCH, batchPositions::add);
+        scheduler.acquire(ScanScheduler.Priority.INTERACTIVE, interactivePositions::add);
+
+        assertThat(batchPositions).containsExactly(1, 2);
+        assertThat(interactivePositions).containsExactly(1);
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() {
+        scheduler.acquire(ScanScheduler.Priority.BATCH, null);
+        scheduler.acquire(ScanScheduler.Priority.BATCH, null);
+        scheduler.acquire(ScanScheduler.Priority.BATCH, null);
+
+        assertThatThrownBy(() -> scheduler.acquire(ScanScheduler.Priority.INTERACTIVE, null))
+                .isInstanceOf(ScanQueueFullException.class)
+                .extracting("retryAfterSeconds").isEqualTo(30L);
+        assertThat(scheduler.getQueued()).isEqualTo(2);
+    }
+
+    @Test
+    void cancelledWaiterIsWithdrawnFromQueue() {
+        ScanScheduler.ScanSlot running = scheduler.acquire(ScanScheduler.Priority.BATCH, null).join();
+        CompletableFuture<ScanScheduler.ScanSlot> first = scheduler.acquire(ScanScheduler.Priority.BATCH, null);
+        CompletableFuture<ScanScheduler.ScanSlot> second = scheduler.acquire(ScanScheduler.Priority.BATCH, null);
+
+        first.cancel(false);
+        assertThat(scheduler.getQueued()).isEqualTo(1);
+
+        running.release();
+        assertThat(second).isCompleted();
+        assertThat(scheduler.getRunning()).isEqualTo(1);
+    }
+
+    @Test
+    void submitWithdrawsQueuedTaskWhenResultIsCancelled() {
+        ScanScheduler.ScanSlot running = scheduler.acquire(ScanScheduler.Priority.BATCH, null).join();
+        List<String> executed = new ArrayList<>();
+
+        CompletableFuture<String> result = scheduler.submit(ScanScheduler.Priority.BATCH, () -> {
+            executed.add("task");
+            return "done";
+        }, null);
+        assertThat(scheduler.getQueued()).isEqualTo(1);
+
+        result.cancel(false);
+        assertThat(scheduler.getQueued()).isZero();
+
+        running.release();
+        assertThat(executed).isEmpty();
+        assertThat(scheduler.getRunning()).isZero();
+    }
+
+    @Test
+    void submitReleasesSlotWhenTaskFinishes() {
+        CompletableFuture<String> result = scheduler.submit(ScanScheduler.Priority.INTERACTIVE, () -> "done", null);
+
+        assertThat(result.join()).isEqualTo("done");
+        assertThat(scheduler.getRunning()).isZero();
+    }
+
+    @Test
+    void releaseIsIdempotent() {
+        ScanScheduler.ScanSlot slot = scheduler.acquire(ScanScheduler.Priority.BATCH, null).join();
+
+        slot.release();
+        slot.release();
+
+        assertThat(scheduler.getRunning()).isZero();
+    }
+}
@@ -0,0 +1,146 @@
+package com.fast.trust.scan.service;
+
+import com.fast.trust.scan.dto.ScanScoreResult;
+import com.fast.trust.scan.entity.ScanDetail;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScoreAccumulatorTest {
+
+    private static final String[] SEVERITIES = {"critical", "high", "medium", "low", "info", "INFO", "Unknown", null};
+    private static final String[] TEMPLATES = {
+            "tech-detect", "ssl-expired", "tls-deprecated-protocol", "http-missing-security-headers",
+            "eol-software-php", "CVE-2021-41773", "git-config", null
+    };
+
+    @Test
+    void matchesBaselineCalculateScore() {
+        Random random = new Random(42);
+        for (int run = 0; run < 500; run++) {
+            List<ScanDetail> details = randomDetails(random, random.nextInt(40));
+
+            assertThat(ScanService.calculateScore(details))
+                    .as("run %d", run)
+                    .isEqualTo(baselineCalculateScore(details));
+        }
+    }
+
+    @Test
+    void aggregatedCountsMatchPerFindingAccumulation() {
+        Random random = new Random(7);
+        List<ScanDetail> details = randomDetails(random, 200);
+
+        // 점수 재계산(recalculateScore)과 같은 방식: 심각도별 건수 + high-risk INFO 템플릿 건수
+        ScoreAccumulator aggregated = new ScoreAccumulator();
+        Map<String, Long> bySeverity = new HashMap<>();
+        long highRiskInfo = 0;
+        for (ScanDetail detail : details) {
+            String severity = Optional.ofNullable(detail.getSeverity()).orElse("info").toLowerCase();
+            bySeverity.merge(severity, 1L, Long::sum);
+            if ("info".equals(severity) && ScoreAccumulator.isHighRiskInfoTemplate(detail.getTemplateId())) {
+                highRiskInfo++;
+            }
+        }
+        bySeverity.forEach(aggregated::addCount);
+        aggregated.addHighRiskInfo(highRiskInfo);
+
+        assertThat(aggregated.result()).isEqualTo(ScanService.calculateScore(details));
+    }
+
+    @Test
+    void deductionsAreCappedPerSeverity() {
+        ScoreAccumulator accumulator = new ScoreAccumulator();
+        for (int i = 0; i < 10; i++) {
+            accumulator.add("critical", "CVE-2021-41773");
+            accumulator.add("high", "git-config");
+        }
+
+        // critical 최대 50, high 최대 30
+        assertThat(accumulator.result()).isEqualTo(new ScanScoreResult(20, "F"));
+        assertThat(accumulator.total()).isEqualTo(20);
+    }
+
+    @Test
+    void emptyScanScoresFullMarks() {
+        assertThat(new ScoreAccumulator().result()).isEqualTo(new ScanScoreResult(100, "A"));
+    }
+
+    private static List<ScanDetail> randomDetails(Random random, int count) {
+        List<ScanDetail> details = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            details.add(ScanDetail.builder()
+                    .scanId("test")
+                    .severity(SEVERITIES[random.nextInt(SEVERITIES.length)])
+                    .templateId(TEMPLATES[random.nextInt(TEMPLATES.length)])
+                    .build());
+        }
+        return details;
+    }
+
+    /**
+     * ScoreAccumulator 도입 전 ScanService.calculateScore (비교 기준)
+     */
+    private static ScanScoreResult baselineCalculateScore(List<ScanDetail> scanDetailList) {
+        Set<String> highRiskInfoTemplates = Set.of(
+                "ssl-expired",
+                "tls-deprecated",
+                "missing-security-headers",
+                "eol-software"
+        );
+
+        int score = 100;
+
+        Map<String, Integer> severityCounts = new HashMap<>();
+        severityCounts.put("critical", 0);
+        severityCounts.put("high", 0);
+        severityCounts.put("medium", 0);
+        severityCounts.put("low", 0);
+        severityCounts.put("info", 0);
+
+        for (ScanDetail v : scanDetailList) {
+            String severity = Optional.ofNullable(v.getSeverity())
+                    .orElse("info")
+                    .toLowerCase();
+
+            severityCounts.computeIfPresent(severity, (k, val) -> val + 1);
+
+            if ("info".equals(severity)) {
+                String templateId = Optional.ofNullable(v.getTemplateId())
+                        .orElse("")
+                        .toLowerCase();
+
+                if (highRiskInfoTemplates.stream().anyMatch(templateId::contains)) {
+                    score -= 1;
+                }
+            }
+        }
+
+        score -= Math.min(severityCounts.get("critical") * 25, 50);
+        score -= Math.min(severityCounts.get("high") * 15, 30);
+        score -= Math.min(severityCounts.get("medium") * 5, 15);
+        score -= Math.min(severityCounts.get("low") * 2, 6);
+
+        score = Math.max(score, 0);
+
+        return new ScanScoreResult(score, baselineGrade(score));
+    }
+
+    private static String baselineGrade(int score) {
+        if (score >= 90) return "A";
+        if (score >= 80) return "B+";
+        if (score >= 70) return "B";
+        if (score >= 60) return "B-";
+        if (score >= 50) return "C";
+        if (score >= 40) return "D";
+        return "F";
+    }
+}